@@ -2,6 +2,8 @@ plugins {
     application
     id("tai-e.conventions")
     id("maven-publish.conventions")
+    // Microbenchmarks in src/jmh
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = projectGroupId
@@ -96,6 +98,14 @@ task("testTaieTestSuite", type = Test::class) {
     }
 }
 
+jmh {
+    jmhVersion.set("1.37")
+    // Profiles the allocations of each benchmark
+    profilers.add("gc")
+    jvmArgsAppend.add("-Xmx8G")
+    resultFormat.set("JSON")
+}
+
 // Automatically agree the Gradle ToS when running gradle with '--scan' option
 extensions.findByName("buildScan")?.withGroovyBuilder {
     setProperty("termsOfServiceUrl", "https://gradle.com/terms-of-service")
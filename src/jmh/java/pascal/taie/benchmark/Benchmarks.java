@@ -0,0 +1,55 @@
+package pascal.taie.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.config.Plan;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Builds the world of the benchmarks, which is given by the options file
+ * in system property {@code flash.benchmark.options} (the bundled JDV
+ * targets by default). The paths in the file are relative to the project.
+ */
+final class Benchmarks {
+
+    private static final String OPTIONS_FILE = System.getProperty(
+            "flash.benchmark.options", "java-benchmarks/JDV/test.yml");
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Builds a new world with the options file.
+     *
+     * @return the analysis plan in the options file.
+     */
+    static Plan buildWorld() {
+        World.reset();
+        return Main.buildWorld("--options-file", OPTIONS_FILE);
+    }
+
+    /**
+     * Builds a new world with the options file, in which the given
+     * options are overwritten.
+     */
+    static Plan buildWorld(Map<String, Object> overwrites) {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> options = mapper.readValue(new File(OPTIONS_FILE), Map.class);
+            options.putAll(overwrites);
+            File file = File.createTempFile("flash-benchmark", ".yml");
+            file.deleteOnExit();
+            mapper.writeValue(file, options);
+            World.reset();
+            return Main.buildWorld("--options-file", file.getPath());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
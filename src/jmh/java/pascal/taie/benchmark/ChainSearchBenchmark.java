@@ -0,0 +1,54 @@
+package pascal.taie.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.analysis.AnalysisManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of enumerating the gadget chains with the summaries, i.e.,
+ * {@code GCCollector.backDFS} and the verification of the chains.
+ * The chains of a single sink can be measured by parameter {@code sink}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class ChainSearchBenchmark {
+
+    /**
+     * Signature of the sink to search, or empty for all sinks.
+     */
+    @Param({""})
+    public String sink;
+
+    private AnalysisManager manager;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        manager = new AnalysisManager(sink.isEmpty()
+                ? Benchmarks.buildWorld()
+                : Benchmarks.buildWorld(Map.of("GC_SINKS", List.of(sink))));
+        manager.buildSummaries();
+    }
+
+    @Benchmark
+    public void collectGadgetChains() {
+        manager.collectGadgetChains();
+    }
+}
@@ -0,0 +1,62 @@
+package pascal.taie.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.World;
+import pascal.taie.analysis.AnalysisManager;
+import pascal.taie.analysis.dataflow.analysis.SummaryAnalysisDriver;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of analyzing a single method whose callees are summarized,
+ * which is dominated by the points-to queries ({@code findPointsTo})
+ * of {@code StmtProcessor}. The summarized methods are analyzed in turn.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class MethodSummaryBenchmark {
+
+    private SummaryAnalysisDriver driver;
+
+    private List<IR> irs;
+
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AnalysisManager manager = new AnalysisManager(Benchmarks.buildWorld());
+        manager.buildSummaries();
+        driver = manager.getSummaryAnalysisDriver();
+        irs = World.get().allMethods()
+                .filter(JMethod::hasSummary)
+                .filter(m -> !m.isAbstract())
+                .map(JMethod::getIR)
+                .filter(ir -> ir.getResult(CFGBuilder.ID) != null)
+                .toList();
+    }
+
+    @Benchmark
+    public Object analyzeMethod() {
+        IR ir = irs.get(next);
+        next = (next + 1) % irs.size();
+        return driver.analyze(ir);
+    }
+}
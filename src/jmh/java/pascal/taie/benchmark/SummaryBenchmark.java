@@ -0,0 +1,56 @@
+package pascal.taie.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.World;
+import pascal.taie.analysis.AnalysisManager;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of building the summaries of all methods reachable from the sources,
+ * and the number of the summarized methods, from which the throughput
+ * of {@code StmtProcessor} is derived.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class SummaryBenchmark {
+
+    private AnalysisManager manager;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        manager = new AnalysisManager(Benchmarks.buildWorld());
+    }
+
+    @Benchmark
+    public void buildSummaries(Counters counters) {
+        manager.buildSummaries();
+        counters.methods = World.get().allMethods().filter(JMethod::hasSummary).count();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+
+        /**
+         * Number of the methods with summaries.
+         */
+        public long methods;
+    }
+}
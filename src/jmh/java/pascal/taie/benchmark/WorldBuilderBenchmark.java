@@ -0,0 +1,30 @@
+package pascal.taie.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.World;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of building the world, i.e., loading the classes of the targets
+ * and the JRE, and preparing the sources and sinks.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class WorldBuilderBenchmark {
+
+    @Benchmark
+    public World buildWorld() {
+        Benchmarks.buildWorld();
+        return World.get();
+    }
+}
@@ -67,7 +67,7 @@ public abstract class AbstractWorldBuilder implements WorldBuilder {
             "<java.security.PrivilegedActionException: void <init>(java.lang.Exception)>"
     );
 
-    protected static String getClassPath(Options options) {
+    public static String getClassPath(Options options) {
         if (options.isPrependJVM()) {
             return String.join(File.pathSeparator, options.getClassPath());
         } else { // when prependJVM is not set, we manually specify JRE jars
@@ -114,13 +114,16 @@ public class Main {
 
     /**
      * Convenient method for building the world from String arguments.
+     *
+     * @return the analysis plan specified by the arguments.
      */
-    public static void buildWorld(String... args) {
+    public static Plan buildWorld(String... args) {
         Options options = Options.parse(args);
         LoggerConfigs.setOutput(options.getOutputDir());
         Plan plan = processConfigs(options);
         buildWorld(options, plan.analyses());
         LoggerConfigs.reconfigure();
+        return plan;
     }
 
     private static void buildWorld(Options options, List<AnalysisConfig> analyses) {
@@ -141,7 +144,10 @@ public class Main {
                         World.get()
                                 .allMethods()
                                 .count());
-                setSerializable(options.getSources());
+                // classes are marked when they are loaded in lazy mode
+                if (!options.isLazyWorld()) {
+                    setSerializable(options.getSources());
+                }
                 setPD();
             } catch (InstantiationException | IllegalAccessException |
                     NoSuchMethodException | InvocationTargetException e) {
@@ -27,9 +27,10 @@ import pascal.taie.config.Options;
 import pascal.taie.frontend.cache.CachedIRBuilder;
 import pascal.taie.frontend.soot.SootClassLoader;
 import pascal.taie.ir.IRBuilder;
-import pascal.taie.ir.exp.Var;
 import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.MethodIndex;
 import pascal.taie.language.natives.NativeModel;
 import pascal.taie.language.type.ClassType;
 import pascal.taie.language.type.Type;
@@ -44,8 +45,6 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.util.*;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -94,10 +93,17 @@ public final class World extends AbstractResultHolder
 
     private LinkedList<JMethod> GCEntries = new LinkedList<>();
 
-    private Set<JMethod> invocationHandlerMethods = new HashSet<>();
+    /**
+     * Set view of {@link #GCEntries} for fast lookup.
+     */
+    private Set<JMethod> GCEntrySet = Sets.newSet();
+
+    private Set<JMethod> invocationHandlerMethods = Sets.newLinkedSet();
 
     private Set<JMethod> sinks = new HashSet<>();
 
+    private transient volatile MethodIndex methodIndex;
+
     /**
      * Sets current world to {@code world}.
      */
@@ -207,8 +213,8 @@ public final class World extends AbstractResultHolder
         setIRBuilder((IRBuilder) s.readObject());
     }
 
-    public void addGCEntry(JMethod m) {
-        if (!GCEntries.contains(m)) {
+    public synchronized void addGCEntry(JMethod m) {
+        if (GCEntrySet.add(m)) {
             GCEntries.add(m);
             if (SootClassLoader.readSubSigList.contains(m.getSubsignature().toString())
                     || getOptions().getSources().contains(m.toString())) m.setSource();
@@ -219,7 +225,7 @@ public final class World extends AbstractResultHolder
         return GCEntries;
     }
 
-    public void addInvocationHandlerMethod(JMethod m) {
+    public synchronized void addInvocationHandlerMethod(JMethod m) {
         invocationHandlerMethods.add(m);
         m.setInvoke();
     }
@@ -228,12 +234,9 @@ public final class World extends AbstractResultHolder
         return invocationHandlerMethods;
     }
 
-    public void filterHandler() {
+    public synchronized void filterHandler() {
         if (options.isFilterNonSerializable()) {
-            Set<JMethod> methods = new HashSet<>(invocationHandlerMethods);
-            for (JMethod method : methods) {
-                if (!method.getDeclaringClass().isSerializable()) invocationHandlerMethods.remove(method);
-            }
+            invocationHandlerMethods.removeIf(method -> !method.getDeclaringClass().isSerializable());
         }
     }
 
@@ -253,31 +256,66 @@ public final class World extends AbstractResultHolder
     }
 
     public Set<JMethod> filterMethods(String nameReg, String clzName, List<Type> argTypes, boolean recSer, boolean paramSer, Type expandArgType) {
-        boolean hasStar = clzName.contains("*");
-        Pattern pattern = hasStar ? Pattern.compile(clzName) : null;
-        Type clsType = hasStar ? null : typeSystem.getType(clzName);
-
-        return filterMethods(hasStar, false, pattern, nameReg, clsType, argTypes, recSer, paramSer, expandArgType);
+        int arity = expandArgType == null ? argTypes.size() : -1;
+        if (clzName.contains("*")) {
+            List<JMethod> candidates = getMethodIndex().getMethodsOfClasses(clzName, nameReg, arity);
+            return filterMethods(candidates, null, argTypes, recSer, paramSer, expandArgType);
+        } else {
+            Type clsType = typeSystem.getType(clzName);
+            List<JMethod> candidates = getMethodIndex().getMethods(Set.of(nameReg), clsType, arity);
+            return filterMethods(candidates, clsType, argTypes, recSer, paramSer, expandArgType);
+        }
     }
 
     public Set<JMethod> filterMethods(String nameReg, Type clsType, List<Type> argTypes, boolean recSer, boolean paramSer, Type expandArgType) {
-        boolean hasStar = nameReg.contains("*");
-        Pattern pattern = hasStar ? Pattern.compile(nameReg) : null;
-
-        return filterMethods(hasStar, true, pattern, nameReg, clsType, argTypes, recSer, paramSer, expandArgType);
-    }
-
-    public Set<JMethod> filterMethods(boolean useMatch, boolean matchMethod, Pattern pattern, String reg, Type clsType, List<Type> argTypes, boolean recSer, boolean paramSer, Type expandArgType) {
-        return allMethods()
-                .filter(m -> useMatch ? (matchMethod ? pattern.matcher(m.getName()).find() : pattern.matcher(m.getDeclaringClass().getName()).find() && m.getName().equals(reg)) : m.getName().equals(reg))
-                .filter(m -> !m.isAbstract()
-                        && !m.isPrivate()
-                        && (clsType == null ? true : typeSystem.isSubtype(clsType, m.getDeclaringClass().getType()))
-                        && (recSer || m.getDeclaringClass().isSerializable())
-                        && (!paramSer || m.getIR().getParams().stream().allMatch(p -> ContrUtil.isSerializableType(p.getType()))))
-                .filter(m -> typeSystem.allSubType(expandArgType, argTypes, m.getIR().getParams().stream()
-                        .map(Var::getType)
-                        .collect(Collectors.toList())))
-                .collect(Collectors.toSet());
+        int arity = expandArgType == null ? argTypes.size() : -1;
+        Set<String> names = nameReg.contains("*") ? getMethodIndex().getMethodNames(nameReg) : Set.of(nameReg);
+        List<JMethod> candidates = getMethodIndex().getMethods(names, clsType, arity);
+        return filterMethods(candidates, clsType, argTypes, recSer, paramSer, expandArgType);
+    }
+
+    private Set<JMethod> filterMethods(List<JMethod> candidates, Type clsType, List<Type> argTypes, boolean recSer, boolean paramSer, Type expandArgType) {
+        Set<JMethod> result = new HashSet<>();
+        for (JMethod m : candidates) {
+            if ((clsType == null || typeSystem.isSubtype(clsType, m.getDeclaringClass().getType()))
+                    && (recSer || m.getDeclaringClass().isSerializable())
+                    && (!paramSer || m.getParamTypes().stream().allMatch(ContrUtil::isSerializableType))
+                    && typeSystem.allSubType(expandArgType, argTypes, m.getParamTypes())) {
+                result.add(m);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the index of reflective call targets, which is built
+     * at the first query.
+     */
+    private MethodIndex getMethodIndex() {
+        MethodIndex index = methodIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = methodIndex;
+                if (index == null) {
+                    index = new MethodIndex(classHierarchy);
+                    methodIndex = index;
+                    // adds the classes loaded while the index is built,
+                    // which are not added by indexClass()
+                    classHierarchy.allClasses().forEach(index::addClass);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Adds a class loaded during the analysis (in lazy world) to
+     * the index of reflective call targets, if the index is built.
+     */
+    public void indexClass(JClass jclass) {
+        MethodIndex index = methodIndex;
+        if (index != null) {
+            index.addClass(jclass);
+        }
     }
 }
@@ -26,6 +26,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
 import pascal.taie.analysis.dataflow.analysis.SummaryAnalysisDriver;
+import pascal.taie.analysis.dataflow.analysis.methodsummary.SummaryScheduler;
+import pascal.taie.analysis.dataflow.analysis.methodsummary.SummaryStore;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.ConfigException;
 import pascal.taie.config.Plan;
@@ -39,6 +41,11 @@ import pascal.taie.util.graph.SimpleGraph;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Creates and executes analyses based on given analysis plan.
@@ -76,17 +83,47 @@ public class AnalysisManager {
 
     private static List<MethodAnalysis> methodAnalyses;
 
+    private static SummaryScheduler scheduler;
+
+    private static SummaryStore summaryStore;
+
+    /**
+     * IDs of the analyses whose results are kept in the IR after a method
+     * is analyzed, or {@code null} if all results are kept.
+     */
+    private static Set<String> keptResults;
+
+    /**
+     * Methods being analyzed by each thread, the top one is running,
+     * and the others are suspended on the methods they request.
+     */
+    private static final ThreadLocal<Deque<MethodFrame>> workStacks =
+            ThreadLocal.withInitial(ArrayDeque::new);
+
     public AnalysisManager(Plan plan) {
         this.plan = plan;
         this.keepAllResults = plan.keepResult().contains(Plan.KEEP_ALL);
+        keptResults = keepAllResults ? null : plan.keepResult();
         workList = new LinkedList<>();
         methodAnalyses = new ArrayList<>();
+        scheduler = new SummaryScheduler();
     }
 
+    private SummaryAnalysisDriver driver;
+
     /**
      * Executes the analysis plan.
      */
     public void execute() {
+        buildSummaries();
+        collectGadgetChains();
+    }
+
+    /**
+     * Builds the summaries of the methods reachable from the entries
+     * of gadget chains.
+     */
+    public void buildSummaries() {
         // initialize
         if (!keepAllResults) {
             dependenceGraph = new SimpleGraph<>();
@@ -101,31 +138,127 @@ public class AnalysisManager {
         plan.analyses().forEach(config -> methodAnalyses.add((MethodAnalysis) getAnalysis(config)));
         World.get().filterHandler();
         workList.addAll(World.get().getGCEntries());
+        driver = (SummaryAnalysisDriver) getAnalysis(methodAnalyses, SummaryAnalysisDriver.ID);
+        int threads = driver != null ? driver.getThreads() : 1;
+        summaryStore = driver != null ? driver.getSummaryStore() : null;
 
         Timer.runAndCount(() -> {
-            while (!workList.isEmpty()) {
-                JMethod method = workList.poll();
-                if (!method.hasSummary()) {
-                    runMethodAnalysis(method);
+            if (threads > 1) {
+                runInParallel(threads);
+            } else {
+                while (!workList.isEmpty()) {
+                    JMethod method = workList.poll();
+                    if (!method.hasSummary()) {
+                        runMethodAnalysis(method);
+                    }
                 }
             }
         }, "deserialization call graph");
+        if (summaryStore != null) summaryStore.record();
+    }
 
-        Timer.runAndCount(() -> {
-            SummaryAnalysisDriver analysis = (SummaryAnalysisDriver) getAnalysis(methodAnalyses, SummaryAnalysisDriver.ID);
-            analysis.finish();
-        }, "collect gc");
+    /**
+     * Searches the gadget chains with the summaries built by {@link #buildSummaries()}.
+     */
+    public void collectGadgetChains() {
+        Timer.runAndCount(() -> driver.finish(), "collect gc");
+
+        if (summaryStore != null) {
+            Timer.runAndCount(() -> summaryStore.save(), "save summaries");
+        }
     }
 
+    /**
+     * @return the driver of method summaries in the plan, or null
+     * if the summaries are not built.
+     */
+    public SummaryAnalysisDriver getSummaryAnalysisDriver() {
+        return driver;
+    }
+
+    /**
+     * Builds the summaries reachable from the entries in work list with
+     * a pool of threads. Each thread owns its own analysis stack, and
+     * the methods in different threads are coordinated by {@link SummaryScheduler}.
+     */
+    private void runInParallel(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService service = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "summary-worker-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; !workList.isEmpty(); ++i) {
+            JMethod method = workList.poll();
+            int rank = i;
+            futures.add(service.submit(() -> {
+                scheduler.setRank(rank);
+                runMethodAnalysis(method);
+            }));
+        }
+        service.shutdown();
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisException("Interrupted when building method summaries", e);
+        } catch (ExecutionException e) {
+            throw new AnalysisException("Failed to build method summaries", e.getCause());
+        } finally {
+            service.shutdownNow();
+        }
+        logger.info("{} cross-thread cycles broken when building method summaries",
+                scheduler.getBrokenCycles());
+    }
+
+    /**
+     * Requests the summary of given method. If the method is requested by
+     * an analysis running on the work stack of current thread, the analysis
+     * is suspended, and it is resumed after the method is analyzed.
+     * Otherwise, the method and the methods it requests are analyzed on
+     * the work stack before this method returns.
+     */
     public static void runMethodAnalysis(JMethod m) {
-        if (m.isSink() || m.hasSummary() || m.isIgnored()) return;
-        methodAnalyses.forEach(analysis -> {
-            IR ir = m.getIR();
-            Object result = analysis.analyze(ir);
-            if (result != null) {
-                ir.storeResult(analysis.getId(), result);
+        if (m.isSink() || m.isIgnored()) return;
+        if (summaryStore != null) summaryStore.addDependency(m);
+        if (!scheduler.acquire(m)) return;
+        Deque<MethodFrame> frames = workStacks.get();
+        boolean requested = !frames.isEmpty();
+        frames.push(new MethodFrame(m));
+        if (requested) throw Suspension.INSTANCE;
+        runFrames(frames);
+    }
+
+    private static void runFrames(Deque<MethodFrame> frames) {
+        try {
+            while (!frames.isEmpty()) {
+                MethodFrame frame = frames.peek();
+                try {
+                    frame.resume();
+                } catch (Suspension s) {
+                    // the frame requested a method, which is now on top of the stack
+                    continue;
+                }
+                frames.pop();
+                frame.releaseResults();
+                scheduler.release(frame.method);
             }
-        });
+        } finally {
+            while (!frames.isEmpty()) {
+                scheduler.release(frames.pop().method);
+            }
+        }
+    }
+
+    /**
+     * @return true if the summary of given method is being built by another
+     * thread which (transitively) waits for the current thread.
+     */
+    public static boolean isSummaryPendingElsewhere(JMethod m) {
+        return scheduler.isPendingElsewhere(m);
     }
 
     private MethodAnalysis getAnalysis(List<MethodAnalysis> methodAnalyses, String id) {
@@ -159,4 +292,88 @@ public class AnalysisManager {
         }
         return analysis;
     }
+
+    /**
+     * Analyses of a method on the work stack. The frame is resumed from
+     * the analysis suspended last time.
+     */
+    private static class MethodFrame {
+
+        private final JMethod method;
+
+        private boolean started = false;
+
+        private int next = 0;
+
+        private SummaryAnalysisDriver.Frame summaryFrame;
+
+        private List<JMethod> dependencies;
+
+        private int nextDependency = 0;
+
+        private MethodFrame(JMethod method) {
+            this.method = method;
+        }
+
+        private void resume() {
+            if (!started) {
+                started = true;
+                if (summaryStore != null && summaryStore.restore(method)) {
+                    dependencies = summaryStore.getDependencies(method);
+                    summaryStore.enter(method);
+                }
+            }
+            if (dependencies != null) {
+                while (nextDependency < dependencies.size()) {
+                    runMethodAnalysis(dependencies.get(nextDependency));
+                    nextDependency++;
+                }
+                summaryStore.exit(method);
+                return;
+            }
+            IR ir = method.getIR();
+            while (next < methodAnalyses.size()) {
+                MethodAnalysis<?> analysis = methodAnalyses.get(next);
+                Object result;
+                if (analysis instanceof SummaryAnalysisDriver driver) {
+                    if (summaryFrame == null) summaryFrame = driver.newFrame(ir);
+                    result = summaryFrame != null ? summaryFrame.resume() : null;
+                    summaryFrame = null;
+                } else {
+                    result = analysis.analyze(ir);
+                }
+                if (result != null) {
+                    ir.storeResult(analysis.getId(), result);
+                }
+                next++;
+            }
+        }
+
+        /**
+         * Clears the results which are not kept, e.g., CFG and data-flow facts,
+         * as the summary of the method is final once its frame is finished.
+         */
+        private void releaseResults() {
+            if (keptResults == null || dependencies != null) return;
+            IR ir = method.getIR();
+            for (MethodAnalysis<?> analysis : methodAnalyses) {
+                if (!keptResults.contains(analysis.getId())) {
+                    ir.clearResult(analysis.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Unwinds the analysis which requests a method without summary.
+     * It carries no data, so a single instance without stack trace is used.
+     */
+    private static class Suspension extends RuntimeException {
+
+        private static final Suspension INSTANCE = new Suspension();
+
+        private Suspension() {
+            super(null, null, false, false);
+        }
+    }
 }
@@ -2,6 +2,7 @@ package pascal.taie.analysis.dataflow.analysis;
 
 import pascal.taie.analysis.dataflow.analysis.methodsummary.Contr;
 import pascal.taie.analysis.dataflow.analysis.methodsummary.ContrFact;
+import pascal.taie.analysis.dataflow.analysis.methodsummary.ContrValue;
 import pascal.taie.analysis.dataflow.analysis.methodsummary.StackManger;
 import pascal.taie.analysis.dataflow.analysis.methodsummary.StmtProcessor;
 import pascal.taie.analysis.dataflow.analysis.methodsummary.Utils.ContrUtil;
@@ -16,9 +17,12 @@ import pascal.taie.analysis.pta.core.cs.element.CSVar;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.solver.PointerFlowGraph;
 import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.If;
 import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Sets;
 
 import java.util.List;
+import java.util.Set;
 
 public class SummaryAnalysis extends AbstractDataflowAnalysis<Stmt, ContrFact> {
 
@@ -30,6 +34,8 @@ public class SummaryAnalysis extends AbstractDataflowAnalysis<Stmt, ContrFact> {
 
     private HeapModel heapModel;
 
+    private Set<Stmt> ifTargets;
+
     public SummaryAnalysis(CFG<Stmt> body, StackManger stackManger, CSManager csManager, HeapModel heapModel, Context context, PointerFlowGraph pointerFlowGraph, CSCallGraph csCallGraph, CompositePlugin plugin) {
         super(body);
         this.csManager = csManager;
@@ -48,14 +54,14 @@ public class SummaryAnalysis extends AbstractDataflowAnalysis<Stmt, ContrFact> {
         List<Var> params = cfg.getIR().getParams();
         for (int i = 0; i < params.size(); i++) {
             CSVar param = csManager.getCSVar(context, params.get(i));
-            CSObj csContrParam = ContrUtil.getObj(param, ContrUtil.int2String(i), heapModel, context, csManager);
+            CSObj csContrParam = ContrUtil.getObj(param, ContrValue.of(i), heapModel, context, csManager);
             stmtProcessor.addPFGEdge(csContrParam, param, FlowKind.NEW_CONTR, cfg.getEntry().getLineNumber());
         }
         Var thisVar = cfg.getIR().getThis();
         if (thisVar != null) {
             CSVar csThisVar = csManager.getCSVar(context, thisVar);
             stmtProcessor.setThis(csThisVar);
-            CSObj csContrThis = ContrUtil.getObj(csThisVar, ContrUtil.sTHIS, heapModel, context, csManager);
+            CSObj csContrThis = ContrUtil.getObj(csThisVar, ContrValue.THIS, heapModel, context, csManager);
             stmtProcessor.addPFGEdge(csContrThis, csThisVar, FlowKind.NEW_CONTR, cfg.getEntry().getLineNumber());
         }
         return newInitialFact();
@@ -68,7 +74,8 @@ public class SummaryAnalysis extends AbstractDataflowAnalysis<Stmt, ContrFact> {
 
     @Override
     public void meetInto(ContrFact fact, ContrFact target) {
-        fact.forEach((p, contr) -> {
+        // the mappings shared with target are met already
+        fact.forEachChanged(target, (p, contr) -> {
             target.update(p, merge(contr, target.get(p)));
         });
     }
@@ -92,6 +99,19 @@ public class SummaryAnalysis extends AbstractDataflowAnalysis<Stmt, ContrFact> {
         return out.copyFrom(stmtProcessor.getFact());
     }
 
+    /**
+     * @return false if the statement can be skipped by sparse solving.
+     */
+    public boolean isRelevant(Stmt stmt) {
+        if (ifTargets == null) {
+            ifTargets = Sets.newSet();
+            cfg.getIR().forEach(s -> {
+                if (s instanceof If ifStmt) ifTargets.add(ifStmt.getTarget());
+            });
+        }
+        return ifTargets.contains(stmt) || stmtProcessor.isRelevant(stmt);
+    }
+
     public void complementSummary() { // 返回值已经处理,补充对参数的影响
         stmtProcessor.complementSummary(cfg.getIR().getParams(), cfg.getIR().getThis());
     }
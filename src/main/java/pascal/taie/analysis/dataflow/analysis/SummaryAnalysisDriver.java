@@ -5,10 +5,12 @@ import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
 import pascal.taie.analysis.MethodAnalysis;
 import pascal.taie.analysis.dataflow.analysis.methodsummary.ContrFact;
+import pascal.taie.analysis.dataflow.analysis.methodsummary.ContrValue;
 import pascal.taie.analysis.dataflow.analysis.methodsummary.StackManger;
+import pascal.taie.analysis.dataflow.analysis.methodsummary.SummaryStore;
 import pascal.taie.analysis.dataflow.analysis.methodsummary.plugin.*;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
-import pascal.taie.analysis.dataflow.solver.Solver;
+import pascal.taie.analysis.dataflow.solver.ResumableSolver;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.pta.core.cs.CSCallGraph;
@@ -25,6 +27,8 @@ import pascal.taie.ir.IR;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JMethod;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 public class SummaryAnalysisDriver extends MethodAnalysis<DataflowResult<Stmt, ContrFact>> {
 
     public static final String ID = "method-summary";
@@ -35,19 +39,26 @@ public class SummaryAnalysisDriver extends MethodAnalysis<DataflowResult<Stmt, C
 
     private CSManager csManager;
 
-    private StackManger stackManger;
+    /**
+     * Each thread building summaries has its own analysis stack.
+     */
+    private final ThreadLocal<StackManger> stackMangers;
 
     private PointerFlowGraph pointerFlowGraph;
 
     private CSCallGraph csCallGraph;
 
-    private Solver<Stmt, ContrFact> solver;
-
     private CompositePlugin plugin;
 
     private long allMethod = World.get().allMethods().count();
 
-    private long analyzedMethod;
+    private final AtomicLong analyzedMethod;
+
+    private final int threads;
+
+    private final boolean sparse;
+
+    private final SummaryStore summaryStore;
 
     private static final Logger logger = LogManager.getLogger(SummaryAnalysisDriver.class);
 
@@ -57,11 +68,16 @@ public class SummaryAnalysisDriver extends MethodAnalysis<DataflowResult<Stmt, C
         this.emptyContext = ContextSelectorFactory.makeCISelector().getEmptyContext();
         this.csManager = new MapBasedCSManager();
         this.csCallGraph = new CSCallGraph(csManager, emptyContext);
-        this.stackManger = new StackManger();
+        this.stackMangers = ThreadLocal.withInitial(StackManger::new);
         this.pointerFlowGraph = new PointerFlowGraph(csManager);
-        this.solver = Solver.getSolver();
+        this.threads = Math.max(1, getOptions().getInt("threads"));
+        this.sparse = getOptions().getBoolean("sparse");
+        String storePath = getOptions().getString("summary-store");
+        this.summaryStore = storePath != null
+                ? new SummaryStore(storePath, getOptions().getString("priori-knowledge"), csManager, csCallGraph, emptyContext)
+                : null;
         setPlugin(getOptions());
-        analyzedMethod = 0;
+        analyzedMethod = new AtomicLong();
     }
 
     private void setPlugin(AnalysisOptions options) {
@@ -70,34 +86,95 @@ public class SummaryAnalysisDriver extends MethodAnalysis<DataflowResult<Stmt, C
                 new AnalysisTimer(),
                 new ClassInitializer(),
                 new PrioriKnow(options.getString("priori-knowledge")),
-                new GCCollector(csCallGraph, World.get().getOptions().getGC_OUT())
+                new GCCollector(csCallGraph, World.get().getOptions().getGC_OUT(), threads, summaryStore)
         );
         plugin.onStart();
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
+    public SummaryStore getSummaryStore() {
+        return summaryStore;
+    }
+
     public void finish() {
         plugin.onFinish();
     }
 
     @Override
     public DataflowResult<Stmt, ContrFact> analyze(IR ir) {
+        Frame frame = newFrame(ir);
+        return frame != null ? frame.resume() : null;
+    }
+
+    /**
+     * Pushes the method of given IR to the analysis stack of current thread.
+     *
+     * @return the frame to run the analysis of the method, or null if
+     * the method needs no analysis.
+     */
+    public Frame newFrame(IR ir) {
         JMethod method = ir.getMethod();
+        StackManger stackManger = stackMangers.get();
         if (stackManger.containsMethod(method)) return null;
         CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
         if (cfg == null) return null; // 跳过abstract方法分析
         stackManger.pushMethod(method);
-        plugin.onNewInit(method); // 先分析static方法
-        csCallGraph.addReachableMethod(csManager.getCSMethod(emptyContext, method));
-        SummaryAnalysis analysis = makeAnalysis(cfg, stackManger, csManager, heapModel, emptyContext, pointerFlowGraph, csCallGraph, plugin);
-        DataflowResult<Stmt, ContrFact> ret = solver.solve(analysis);
-        analysis.complementSummary();
-        stackManger.popMethod();
-        if (!method.hasSummary()) method.setSummary("return", "null+null");
-        analyzedMethod += 1;
-        if (analyzedMethod % 5000 == 0) {
-            logger.info("[+] have analyzed {} methods, remaining {} methods in stack, {} methods may need analysis", analyzedMethod, stackManger.mSize(), allMethod - analyzedMethod - stackManger.mSize());
+        if (summaryStore != null) summaryStore.enter(method);
+        return new Frame(method, cfg, stackManger);
+    }
+
+    /**
+     * Analysis of a method on the analysis stack, which is suspended when
+     * it requests a method without summary. The request unwinds out of
+     * {@link #resume()}, and the statement making the request is processed
+     * again when the frame is resumed after the requested method is analyzed.
+     */
+    public class Frame {
+
+        private final JMethod method;
+
+        private final CFG<Stmt> cfg;
+
+        private final StackManger stackManger;
+
+        private SummaryAnalysis analysis;
+
+        private ResumableSolver<Stmt, ContrFact> solver;
+
+        private Frame(JMethod method, CFG<Stmt> cfg, StackManger stackManger) {
+            this.method = method;
+            this.cfg = cfg;
+            this.stackManger = stackManger;
+        }
+
+        /**
+         * Runs the analysis until it finishes or is suspended.
+         *
+         * @return the data-flow result of the method.
+         */
+        public DataflowResult<Stmt, ContrFact> resume() {
+            if (analysis == null) {
+                plugin.onNewInit(method); // 先分析static方法
+                csCallGraph.addReachableMethod(csManager.getCSMethod(emptyContext, method));
+                analysis = makeAnalysis(cfg, stackManger, csManager, heapModel, emptyContext, pointerFlowGraph, csCallGraph, plugin);
+                solver = sparse
+                        ? new ResumableSolver<>(analysis, analysis::isRelevant)
+                        : new ResumableSolver<>(analysis);
+            }
+            DataflowResult<Stmt, ContrFact> ret = solver.solve();
+            analysis.complementSummary();
+            stackManger.popMethod();
+            if (!method.hasSummary()) method.setSummary(ContrValue.RETURN, ContrValue.NULL_RETURN);
+            if (summaryStore != null) summaryStore.exit(method);
+            long analyzed = analyzedMethod.incrementAndGet();
+            if (analyzed % 5000 == 0) {
+                logger.info("[+] have analyzed {} methods, remaining {} methods in stack, {} methods may need analysis", analyzed, stackManger.mSize(), allMethod - analyzed - stackManger.mSize());
+            }
+            return ret;
         }
-        return ret;
     }
 
     public static SummaryAnalysis makeAnalysis(CFG<Stmt> body, StackManger stackManger, CSManager csManager, HeapModel heapModel, Context context, PointerFlowGraph pointerFlowGraph, CSCallGraph csCallGraph, CompositePlugin plugin) {
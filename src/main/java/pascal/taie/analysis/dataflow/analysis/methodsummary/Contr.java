@@ -9,7 +9,6 @@ import pascal.taie.language.classes.Modifier;
 import pascal.taie.language.type.ArrayType;
 import pascal.taie.language.type.ClassType;
 import pascal.taie.language.type.Type;
-import pascal.taie.util.Strings;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -35,9 +34,9 @@ public class Contr {
 
     private boolean isCasted = false;
 
-    private String value = ContrUtil.sNOT_POLLUTED;
+    private ContrValue value = ContrValue.NOT_POLLUTED;
 
-    private String constString;
+    private ContrValue constString;
 
     private ArrayList<Contr> arrayElements = new ArrayList<>();
 
@@ -108,7 +107,7 @@ public class Contr {
     }
 
     public boolean isNew() {
-        return isNew || value.startsWith("new");
+        return isNew || value.isNew();
     }
 
     public void setNew() {
@@ -132,12 +131,12 @@ public class Contr {
         this.isCasted = true;
     }
 
-    public String getValue() {
+    public ContrValue getValue() {
         if (this.constString != null) return this.constString;
         return this.value;
     }
 
-    public void setValue(String value) {
+    public void setValue(ContrValue value) {
         this.value = value;
     }
 
@@ -147,26 +146,17 @@ public class Contr {
         }
     }
 
-    public void updateValue(String value, String actionType) {
-        if (!Strings.isLegalContrValue(value)) return;
+    public void updateValue(ContrValue value, String actionType) {
+        if (!value.isLegal()) return;
         switch (actionType) {
             case "assign" -> {
                 if (ContrUtil.needUpdateInMerge(this.value, value)) setValue(value);
             }
             case "append" -> {
-                if ((this.value.equals(ContrUtil.sNOT_POLLUTED) || this.value.contains("new"))
-                        && !value.equals(ContrUtil.sNOT_POLLUTED)) {
+                if ((this.value.isNull() || this.value.containsNew()) && !value.isNull()) {
                     setValue(value);
-                } else {
-                    String last;
-                    if (this.value.contains("+")) {
-                        last = this.value.substring(this.value.lastIndexOf("+") + 1);
-                    } else {
-                        last = this.value;
-                    }
-                    if (ContrUtil.needUpdateInAppend(last, value)) {
-                        this.value = this.value + "+" + value;
-                    }
+                } else if (ContrUtil.needUpdateInAppend(this.value.last(), value)) {
+                    this.value = this.value.append(value);
                 }
             }
         }
@@ -174,11 +164,15 @@ public class Contr {
     }
 
     public void setConstString(String constString) {
+        this.constString = constString != null ? ContrValue.of(constString) : null;
+    }
+
+    private void setConstString(ContrValue constString) {
         this.constString = constString;
     }
 
     public String getCS() {
-        return constString;
+        return constString != null ? constString.toString() : null;
     }
 
     public String getName() {
@@ -221,6 +215,27 @@ public class Contr {
         return copy;
     }
 
+    /**
+     * @return a copy with exactly the same state, while {@link #copy()}
+     * derives the type and flags of the copy from the pointer.
+     */
+    public Contr duplicate() {
+        Contr dup = new Contr();
+        dup.pointer = pointer;
+        dup.name = name;
+        dup.type = type;
+        dup.isTransient = isTransient;
+        dup.isSerializable = isSerializable;
+        dup.isNew = isNew;
+        dup.newType = new HashSet<>(newType);
+        dup.isCasted = isCasted;
+        dup.value = value;
+        dup.constString = constString;
+        dup.arrayElements = new ArrayList<>(arrayElements);
+        dup.isIntra = isIntra;
+        return dup;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
@@ -230,7 +245,7 @@ public class Contr {
         }
         Contr other = (Contr) obj;
         return pointer.equals(other.pointer) &&
-                value.equals(other.value);
+                value == other.value;
     }
 
     public JClass getJClass() {
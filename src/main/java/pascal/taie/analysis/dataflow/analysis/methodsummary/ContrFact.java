@@ -1,28 +1,102 @@
 package pascal.taie.analysis.dataflow.analysis.methodsummary;
 
-import pascal.taie.analysis.dataflow.fact.MapFact;
-import pascal.taie.analysis.pta.core.cs.element.CSVar;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.util.Copyable;
+import pascal.taie.util.collection.PersistentIndexableMap;
 
-import java.util.Collections;
-import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
 
-public class ContrFact extends MapFact<Pointer, Contr> {
+/**
+ * Maps pointers to their controllability. The mappings are kept in a
+ * persistent map, so {@link #copy()} takes O(1), and a fact shares the
+ * unchanged mappings with the fact it is copied from.
+ */
+public class ContrFact implements Copyable<ContrFact> {
+
+    private PersistentIndexableMap<Pointer, Contr> map;
 
     public ContrFact() {
-        this(Collections.emptyMap());
+        this(PersistentIndexableMap.empty());
+    }
+
+    private ContrFact(PersistentIndexableMap<Pointer, Contr> map) {
+        this.map = map;
+    }
+
+    public Contr get(Pointer p) {
+        return map.get(p);
+    }
+
+    public boolean contains(Pointer p) {
+        return map.containsKey(p);
+    }
+
+    /**
+     * @return if the update changes this fact.
+     */
+    public boolean update(Pointer p, Contr contr) {
+        Contr old = map.get(p);
+        map = contr != null ? map.put(p, contr) : map.remove(p);
+        return !Objects.equals(old, contr);
     }
 
-    public ContrFact(Map<Pointer, Contr> map) {
-        super(map);
+    public Contr remove(Pointer p) {
+        Contr old = map.get(p);
+        map = map.remove(p);
+        return old;
     }
 
-    public boolean update(CSVar p, Contr contr) {
-        return super.update(p, contr);
+    /**
+     * Copies the content from given fact to this fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean copyFrom(ContrFact fact) {
+        if (map.isEmpty()) {
+            map = fact.map;
+            return !map.isEmpty();
+        }
+        boolean[] changed = {false};
+        fact.map.forEachChanged(map, (p, contr) -> changed[0] |= update(p, contr));
+        return changed[0];
     }
 
+    public void forEach(BiConsumer<Pointer, Contr> action) {
+        map.forEach(action);
+    }
+
+    /**
+     * Performs the given action for each mapping of this fact which is not
+     * in given fact. The mappings shared by the two facts are skipped.
+     */
+    public void forEachChanged(ContrFact fact, BiConsumer<Pointer, Contr> action) {
+        map.forEachChanged(fact.map, action);
+    }
+
+    @Override
     public ContrFact copy() {
-        return new ContrFact(this.map);
+        return new ContrFact(map);
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return map.equals(((ContrFact) o).map);
+    }
+
+    @Override
+    public int hashCode() {
+        return map.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return map.toString();
+    }
 }
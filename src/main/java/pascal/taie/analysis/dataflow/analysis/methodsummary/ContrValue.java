@@ -0,0 +1,369 @@
+package pascal.taie.analysis.dataflow.analysis.methodsummary;
+
+import pascal.taie.analysis.dataflow.analysis.methodsummary.Utils.ContrUtil;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.Strings;
+import pascal.taie.util.collection.Maps;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Interned controllability value, e.g., "param-0", "this-f", "polluted",
+ * "new X" or concatenations like "a+b".
+ * There is exactly one instance for each textual form, so values are compared
+ * by identity, and the properties queried by the analysis (the int code used in
+ * call edges, whether the value contains const strings, ...) are computed once
+ * when the value is interned. The textual form is only used for output and for
+ * values coming from priori knowledge.
+ */
+public final class ContrValue implements Serializable {
+
+    private static final ConcurrentMap<String, ContrValue> table = Maps.newConcurrentMap(4096);
+
+    private static final int CACHED_PARAMS = 32;
+
+    private static final ContrValue[] params = new ContrValue[CACHED_PARAMS];
+
+    public static final ContrValue NOT_POLLUTED = of(ContrUtil.sNOT_POLLUTED);
+
+    public static final ContrValue POLLUTED = of(ContrUtil.sPOLLUTED);
+
+    public static final ContrValue THIS = of(ContrUtil.sTHIS);
+
+    public static final ContrValue RETURN = of("return");
+
+    /**
+     * Return summary of methods which do not return controllable values.
+     */
+    public static final ContrValue NULL_RETURN = of("null+null");
+
+    static {
+        for (int i = 0; i < CACHED_PARAMS; i++) {
+            params[i] = of(ContrUtil.sParam + "-" + i);
+        }
+    }
+
+    private final String value;
+
+    /**
+     * Int code of this value, see {@link ContrUtil#string2Int(String)}.
+     */
+    private final int code;
+
+    private final boolean hasCS;
+
+    private final boolean isLegal;
+
+    private final boolean isNew;
+
+    private final boolean containsNew;
+
+    private final int lastPlus;
+
+    private final int colon;
+
+    private transient ContrValue last;
+
+    private transient ContrValue head;
+
+    private transient ContrValue body;
+
+    private transient String cs;
+
+    private transient String reg;
+
+    private transient volatile Pattern pattern;
+
+    private transient String fieldName;
+
+    private transient ContrValue fieldKey;
+
+    private transient volatile ConcurrentMap<String, ContrValue> fields;
+
+    private transient volatile ConcurrentMap<ContrValue, ContrValue> appended;
+
+    private ContrValue(String value) {
+        this.value = value;
+        this.code = ContrUtil.string2Int(value);
+        this.hasCS = computeHasCS(value);
+        this.isLegal = Strings.isLegalContrValue(value);
+        this.isNew = value.startsWith("new");
+        this.containsNew = value.contains("new");
+        this.lastPlus = value.lastIndexOf('+');
+        this.colon = value.indexOf(':');
+    }
+
+    public static ContrValue of(String value) {
+        ContrValue v = table.get(value);
+        if (v == null) {
+            // values are not created inside computeIfAbsent() as lazily
+            // derived values intern their parts
+            ContrValue newV = new ContrValue(value);
+            v = table.putIfAbsent(value, newV);
+            if (v == null) v = newV;
+        }
+        return v;
+    }
+
+    /**
+     * @return the value of a parameter, or this/polluted/null for the
+     * corresponding int code.
+     */
+    public static ContrValue of(int code) {
+        if (code >= 0) return code < CACHED_PARAMS ? params[code] : of(ContrUtil.int2String(code));
+        else if (code == ContrUtil.iTHIS) return THIS;
+        else if (code == ContrUtil.iPOLLUTED) return POLLUTED;
+        else return NOT_POLLUTED;
+    }
+
+    public static ContrValue ofNew(Type type) {
+        return of("new " + type);
+    }
+
+    public int code() {
+        return code;
+    }
+
+    public boolean isControllable() {
+        return code >= ContrUtil.iPOLLUTED;
+    }
+
+    public boolean isControllableParam() {
+        return code > ContrUtil.iTHIS;
+    }
+
+    public boolean isCallSite() {
+        return code >= ContrUtil.iTHIS;
+    }
+
+    public boolean isThis() {
+        return code == ContrUtil.iTHIS;
+    }
+
+    public boolean hasCS() {
+        return hasCS;
+    }
+
+    public boolean isLegal() {
+        return isLegal;
+    }
+
+    /**
+     * @return true if the value starts with "new", e.g., "new X" for objects
+     * created in the program.
+     */
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public boolean containsNew() {
+        return containsNew;
+    }
+
+    public boolean isNull() {
+        return this == NOT_POLLUTED;
+    }
+
+    public boolean startsWith(String prefix) {
+        return value.startsWith(prefix);
+    }
+
+    public boolean contains(String s) {
+        return value.contains(s);
+    }
+
+    public boolean contains(ContrValue v) {
+        return value.contains(v.value);
+    }
+
+    public boolean isConcat() {
+        return lastPlus >= 0;
+    }
+
+    /**
+     * @return the part after the last '+', or this value if it is not a concatenation.
+     */
+    public ContrValue last() {
+        if (last == null) {
+            last = lastPlus >= 0 ? of(value.substring(lastPlus + 1)) : this;
+        }
+        return last;
+    }
+
+    /**
+     * @return the part before the last '+', or this value if it is not a concatenation.
+     * For return summaries ("value+type"), this is the returned value and
+     * {@link #last()} is the type.
+     */
+    public ContrValue head() {
+        if (head == null) {
+            head = lastPlus >= 0 ? of(value.substring(0, lastPlus)) : this;
+        }
+        return head;
+    }
+
+    /**
+     * @return the action ("assign" or "append") of a summary value
+     * given by priori knowledge, or null if the value has no action.
+     */
+    public String action() {
+        return colon >= 0 ? value.substring(0, colon) : null;
+    }
+
+    /**
+     * @return this value without the action prefix.
+     */
+    public ContrValue body() {
+        if (body == null) {
+            body = colon >= 0 ? of(value.substring(colon + 1)) : this;
+        }
+        return body;
+    }
+
+    public ContrValue append(ContrValue v) {
+        ConcurrentMap<ContrValue, ContrValue> m = appended;
+        if (m == null) {
+            m = Maps.newConcurrentMap(4);
+            appended = m;
+        }
+        ContrValue ret = m.get(v);
+        if (ret == null) {
+            ret = of(value + "+" + v.value);
+            m.put(v, ret);
+        }
+        return ret;
+    }
+
+    /**
+     * @return the value of the field of this value, e.g., "param-0-f".
+     */
+    public ContrValue field(String name) {
+        ConcurrentMap<String, ContrValue> m = fields;
+        if (m == null) {
+            m = Maps.newConcurrentMap(4);
+            fields = m;
+        }
+        ContrValue ret = m.get(name);
+        if (ret == null) {
+            ret = of(value + "-" + name);
+            m.put(name, ret);
+        }
+        return ret;
+    }
+
+    public String fieldName() {
+        if (fieldName == null) fieldName = Strings.extractFieldName(value);
+        return fieldName;
+    }
+
+    /**
+     * @return the summary key of the field accessed by this value, i.e., "this-f".
+     */
+    public ContrValue fieldKey() {
+        if (fieldKey == null) fieldKey = THIS.field(fieldName());
+        return fieldKey;
+    }
+
+    public ContrValue replace(ContrValue target, ContrValue replacement) {
+        return of(value.replace(target.value, replacement.value));
+    }
+
+    /**
+     * @return the value with every controllable part replaced by the given
+     * value, and const string parts kept.
+     */
+    public ContrValue replaceContr(ContrValue contr) {
+        if (hasCS) {
+            String[] parts = value.split("\\+");
+            StringBuilder replace = new StringBuilder(parts[0]);
+            ContrValue left = of(parts[0]);
+            for (int i = 1; i < parts.length; i++) {
+                ContrValue right = of(parts[i]);
+                if (ContrUtil.needUpdateInAppend(left, right)) {
+                    replace.append('+').append(right.isControllable() ? contr.value : right.value);
+                    left = right;
+                }
+            }
+            return of(replace.toString());
+        } else {
+            return contr;
+        }
+    }
+
+    /**
+     * @return the const strings contained in this value.
+     */
+    public String getCS() {
+        if (cs == null) {
+            if (lastPlus >= 0) {
+                StringBuilder ret = new StringBuilder();
+                for (String part : value.split("\\+")) {
+                    if (isConstString(part)) ret.append(part);
+                }
+                cs = ret.toString();
+            } else {
+                cs = value;
+            }
+        }
+        return cs;
+    }
+
+    /**
+     * @return the regex matching the names this value may represent.
+     */
+    public String toRegex() {
+        if (reg == null) {
+            if (lastPlus >= 0) {
+                StringBuilder ret = new StringBuilder();
+                for (String p : value.split("\\+")) {
+                    if (ContrUtil.string2Int(p) >= ContrUtil.iPOLLUTED && !ret.toString().endsWith(".*")) {
+                        ret.append(".*");
+                    } else {
+                        ret.append(p);
+                    }
+                }
+                reg = ret.toString();
+            } else if (isControllable()) {
+                reg = ".*";
+            } else if (!isNull()) {
+                reg = value;
+            } else {
+                reg = "";
+            }
+        }
+        return reg;
+    }
+
+    public Pattern toPattern() {
+        if (pattern == null) pattern = Pattern.compile(toRegex());
+        return pattern;
+    }
+
+    private static boolean computeHasCS(String value) {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '+') {
+                if (isConstString(value.substring(start, i))) return true;
+                start = i + 1;
+            }
+        }
+        return isConstString(start == 0 ? value : value.substring(start));
+    }
+
+    private static boolean isConstString(String value) {
+        return ContrUtil.string2Int(value) < ContrUtil.iPOLLUTED && !value.equals(ContrUtil.sNOT_POLLUTED);
+    }
+
+    @Serial
+    private Object readResolve() {
+        return of(value);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -52,7 +52,7 @@ public class PointsTo {
         return mergedContr == null;
     }
 
-    public void setValue(String s) {
+    public void setValue(ContrValue s) {
         mergedContr.setValue(s);
     }
 }
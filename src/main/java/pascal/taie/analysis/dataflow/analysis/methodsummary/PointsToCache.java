@@ -0,0 +1,180 @@
+package pascal.taie.analysis.dataflow.analysis.methodsummary;
+
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.solver.PointerFlowGraph;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+
+import static pascal.taie.analysis.dataflow.analysis.methodsummary.Utils.PUtil.getPointerMethod;
+
+/**
+ * Caches the points-to queries of a method on the pointers which do not
+ * belong to the method, e.g., the sources of alias edges in other methods.
+ * <p>
+ * The fact of a method only holds the pointers of the method, so such a
+ * query does not depend on the fact if its backward slice in the PFG has
+ * no pointer of the method. Each cached result records the versions of the
+ * in edges of the pointers in its slice and the number of match edges used
+ * for alias, and it is reused until any of them changes. Thus, a new PFG
+ * edge only invalidates the results whose slices contain its target.
+ */
+public class PointsToCache {
+
+    private final JMethod method;
+
+    private final StackManger stackManger;
+
+    private final PointerFlowGraph pointerFlowGraph;
+
+    private final Map<Pointer, Result> results = Maps.newMap();
+
+    /**
+     * Slices of the queries in progress, the top one is the innermost.
+     */
+    private final Deque<Slice> slices = new ArrayDeque<>();
+
+    public PointsToCache(JMethod method, StackManger stackManger, PointerFlowGraph pointerFlowGraph) {
+        this.method = method;
+        this.stackManger = stackManger;
+        this.pointerFlowGraph = pointerFlowGraph;
+    }
+
+    /**
+     * Adds the cached result of the pointer to pt if it is still valid.
+     *
+     * @return true if the result is reused, otherwise the query is needed.
+     */
+    public boolean lookup(Pointer pointer, PointsTo pt) {
+        Result result = results.get(pointer);
+        if (result == null) return false;
+        if (!isUpToDate(result)) {
+            results.remove(pointer);
+            return false;
+        }
+        for (Pointer p : result.pointers) {
+            // the query would be cut or typed differently now
+            if (stackManger.containsQuery(p) || stackManger.containsInstanceOfType(p)) return false;
+        }
+        Slice slice = slices.peek();
+        if (slice != null) slice.addAll(result);
+        if (result.contr != null) pt.add(result.contr.duplicate());
+        return true;
+    }
+
+    private boolean isUpToDate(Result result) {
+        if (result.ifRangeVersion != pointerFlowGraph.getIfRangeVersion()) return false;
+        for (int i = 0; i < result.pointers.length; i++) {
+            if (result.pointers[i].getInEdgeVersion() != result.versions[i]) return false;
+        }
+        for (Map.Entry<Pointer, Integer> e : result.matches.entrySet()) {
+            if (pointerFlowGraph.getMatchEdges(e.getKey()).size() != e.getValue()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Starts a query, which is finished by {@link #end(Pointer, PointsTo)}.
+     */
+    public void begin() {
+        slices.push(new Slice(pointerFlowGraph.getIfRangeVersion()));
+    }
+
+    /**
+     * Called before the in edges or the contr of a pointer are read.
+     */
+    public void visit(Pointer p) {
+        Slice slice = slices.peek();
+        if (slice == null) return;
+        if (Objects.equals(getPointerMethod(p), method) || stackManger.containsInstanceOfType(p)) {
+            slice.cacheable = false;
+        } else {
+            slice.versions.putIfAbsent(p, p.getInEdgeVersion());
+        }
+    }
+
+    /**
+     * Called before the match edges of a pointer are read for alias.
+     */
+    public void visitMatchEdges(Pointer p) {
+        Slice slice = slices.peek();
+        if (slice != null) slice.matches.putIfAbsent(p, pointerFlowGraph.getMatchEdges(p).size());
+    }
+
+    /**
+     * Called when a query is cut to avoid recursion, then the queries
+     * in progress are incomplete.
+     */
+    public void cut() {
+        Slice slice = slices.peek();
+        if (slice != null) slice.cacheable = false;
+    }
+
+    public void end(Pointer pointer, PointsTo pt) {
+        Slice slice = slices.pop();
+        Slice outer = slices.peek();
+        if (outer != null) outer.addAll(slice);
+        if (slice.cacheable && !Objects.equals(getPointerMethod(pointer), method)) {
+            results.put(pointer, new Result(slice, pt.getMergedContr()));
+        }
+    }
+
+    private static class Slice {
+
+        private final Map<Pointer, Integer> versions = Maps.newMap();
+
+        private final Map<Pointer, Integer> matches = Maps.newSmallMap();
+
+        private final int ifRangeVersion;
+
+        private boolean cacheable = true;
+
+        private Slice(int ifRangeVersion) {
+            this.ifRangeVersion = ifRangeVersion;
+        }
+
+        private void addAll(Slice slice) {
+            slice.versions.forEach(versions::putIfAbsent);
+            slice.matches.forEach(matches::putIfAbsent);
+            cacheable &= slice.cacheable;
+        }
+
+        private void addAll(Result result) {
+            for (int i = 0; i < result.pointers.length; i++) {
+                versions.putIfAbsent(result.pointers[i], result.versions[i]);
+            }
+            result.matches.forEach(matches::putIfAbsent);
+        }
+    }
+
+    private static class Result {
+
+        private final Pointer[] pointers;
+
+        private final int[] versions;
+
+        private final Map<Pointer, Integer> matches;
+
+        private final int ifRangeVersion;
+
+        /**
+         * Copy of the result, as the results of queries are modified by callers.
+         */
+        private final Contr contr;
+
+        private Result(Slice slice, Contr contr) {
+            this.pointers = slice.versions.keySet().toArray(new Pointer[0]);
+            this.versions = new int[pointers.length];
+            for (int i = 0; i < pointers.length; i++) {
+                versions[i] = slice.versions.get(pointers[i]);
+            }
+            this.matches = slice.matches.isEmpty() ? Map.of() : Map.copyOf(slice.matches);
+            this.ifRangeVersion = slice.ifRangeVersion;
+            this.contr = contr != null ? contr.duplicate() : null;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import pascal.taie.analysis.dataflow.analysis.methodsummary.Utils.ContrUtil;
 import pascal.taie.analysis.dataflow.analysis.methodsummary.plugin.CompositePlugin;
 import pascal.taie.analysis.dataflow.analysis.methodsummary.plugin.TaintTransfer;
 import pascal.taie.analysis.dataflow.analysis.methodsummary.plugin.TaintTransferEdge;
+import pascal.taie.analysis.graph.callgraph.CHATargets;
 import pascal.taie.analysis.graph.callgraph.CallGraphs;
 import pascal.taie.analysis.graph.callgraph.Edge;
 import pascal.taie.analysis.graph.flowgraph.FlowKind;
@@ -26,7 +27,6 @@ import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.*;
 import pascal.taie.util.InvokeUtils;
-import pascal.taie.util.Strings;
 import pascal.taie.util.collection.Sets;
 
 import java.lang.reflect.Method;
@@ -63,12 +63,18 @@ public class StmtProcessor {
 
     private static final Logger logger = LogManager.getLogger(StmtProcessor.class);
 
+    private static final ContrValue GET = ContrValue.of("get");
+
+    private static final ContrValue SET = ContrValue.of("set");
+
     private boolean isFilterNonSerializable =  World.get().getOptions().isFilterNonSerializable();
 
     private CompositePlugin plugin;
 
     private boolean mayCreateRoute;
 
+    private final PointsToCache pointsToCache;
+
     public StmtProcessor(StackManger stackManger, CSCallGraph callGraph, PointerFlowGraph pointerFlowGraph, HeapModel heapModel, CSManager csManager, Context context, CompositePlugin plugin) {
         this.drivenMap = new ContrFact();
         this.visitor = new Visitor();
@@ -83,6 +89,7 @@ public class StmtProcessor {
         this.plugin = plugin;
         this.lineNumber = -1;
         this.mayCreateRoute = false;
+        this.pointsToCache = new PointsToCache(curMethod, stackManger, pointerFlowGraph);
     }
 
     public void setThis(CSVar thisVar) {
@@ -139,8 +146,9 @@ public class StmtProcessor {
             if (containsContr(p)) {
                 drivenMap.remove(p);
             }
-            for (PointerFlowEdge outEdge : p.getOutEdges()) {
-                varsToReQuery(outEdge.target(), visited);
+            PointerFlowEdges outEdges = p.getOutEdges();
+            for (int i = 0; i < outEdges.size(); ++i) {
+                varsToReQuery(outEdges.get(i).target(), visited);
             }
         }
     }
@@ -152,6 +160,30 @@ public class StmtProcessor {
         if (stackManger.containsInstanceOfEnd(stmt)) stackManger.removeInstanceOfEnd(stmt);
     }
 
+    /**
+     * @return false if processing the statement never changes the fact
+     * or the analysis state, e.g., primitive operations and the assignments
+     * of ignored types. The targets of if statements are always relevant,
+     * as the if and instanceof scopes end at them.
+     */
+    public boolean isRelevant(Stmt stmt) {
+        if (stmt instanceof Copy copy) {
+            return !isIgnored(copy.getRValue().getType());
+        } else if (stmt instanceof Cast cast) {
+            return !isIgnored(cast.getRValue().getCastType());
+        } else if (stmt instanceof LoadField || stmt instanceof LoadArray) {
+            return !isIgnored(((DefinitionStmt<?, ?>) stmt).getLValue().getType());
+        } else if (stmt instanceof StoreField store) {
+            return !isIgnored(store.getRValue().getType());
+        } else if (stmt instanceof StoreArray store) {
+            return !isIgnored(store.getRValue().getType());
+        } else {
+            return stmt instanceof New || stmt instanceof AssignLiteral
+                    || stmt instanceof If || stmt instanceof InstanceOf
+                    || stmt instanceof Return || stmt instanceof Invoke;
+        }
+    }
+
     private class Visitor implements StmtVisitor<Void> {
 
         public Visitor() {
@@ -308,15 +340,15 @@ public class StmtProcessor {
         public Void visit(Return stmt) {
             Var ret = stmt.getValue();
             if (ret == null || isIgnored(ret.getType())) {
-                String oldV = curMethod.getSummary("return");
-                if (oldV == null) curMethod.setSummary("return", "null+null");
+                ContrValue oldV = curMethod.getSummary(ContrValue.RETURN);
+                if (oldV == null) curMethod.setSummary(ContrValue.RETURN, ContrValue.NULL_RETURN);
             } else {
-                String oldV = curMethod.getSummary("return");
+                ContrValue oldV = curMethod.getSummary(ContrValue.RETURN);
                 CSVar retVar = csManager.getCSVar(context, ret);
-                String newV = getContrValue(retVar);
-                newV = newV + "+" + (containsContr(retVar) ? drivenMap.get(retVar).getType() : "null");
+                ContrValue newV = getContrValue(retVar);
+                newV = newV.append(containsContr(retVar) ? ContrValue.of(drivenMap.get(retVar).getType().toString()) : ContrValue.NOT_POLLUTED);
                 if (ContrUtil.needUpdateInMerge(oldV, newV)) {
-                    curMethod.setSummary("return", newV);
+                    curMethod.setSummary(ContrValue.RETURN, newV);
                 }
             }
             return null;
@@ -331,7 +363,7 @@ public class StmtProcessor {
             List<CSVar> callSiteVars = getCallsiteVars(invokeExp);
             CSVar base = callSiteVars.get(0);
             List<Contr> csContr = getCallSiteContr(callSiteVars);
-            List<String> csContrValue = getCallSiteContrValue(csContr);
+            List<ContrValue> csContrValue = getCallSiteContrValue(csContr);
             Set<JMethod> callees = new HashSet<>();
             if (stmt.isInterface()) processProxy(stmt, csContr, csContrValue);
             if (ref.isTransfer()) {
@@ -357,7 +389,7 @@ public class StmtProcessor {
         }
     }
 
-    private void sideEffects(Invoke stmt, Set<JMethod> callees, List<CSVar> callSiteVars, CSVar base, List<String> csContrValue) { // 处理返回值以及对参数的影响
+    private void sideEffects(Invoke stmt, Set<JMethod> callees, List<CSVar> callSiteVars, CSVar base, List<ContrValue> csContrValue) { // 处理返回值以及对参数的影响
         Var ret = stmt.getResult();
         CSVar csRet = null;
         Contr retContr = null;
@@ -368,9 +400,9 @@ public class StmtProcessor {
         String actionType = "assign";
         for (JMethod callee : callees) {
             if (isIgnored(callee)) continue;
-            if (stackManger.containsMethod(callee)) { // 处理递归导致的忽略问题, 暂时没有更好的方法
+            if (stackManger.containsMethod(callee) || AnalysisManager.isSummaryPendingElsewhere(callee)) { // 处理递归导致的忽略问题, 暂时没有更好的方法
                 if (retContr != null) {
-                    for (String contr : csContrValue) {
+                    for (ContrValue contr : csContrValue) {
                         if (ContrUtil.isControllable(contr)) {
                             retContr.updateValue(contr, actionType);
                             break;
@@ -380,18 +412,19 @@ public class StmtProcessor {
                 }
                 continue;
             }
-            Map<String, String> summary = callee.getSummaryMap();
-            for (String sKey : summary.keySet()) {
-                String sValue = summary.get(sKey);
-                if (sValue.contains(":")) {
-                    actionType = sValue.substring(0, sValue.indexOf(":"));
-                    sValue = sValue.substring(sValue.indexOf(":") + 1, sValue.length());
+            Map<ContrValue, ContrValue> summary = callee.getSummaryMap();
+            for (Map.Entry<ContrValue, ContrValue> entry : summary.entrySet()) {
+                ContrValue sKey = entry.getKey();
+                ContrValue sValue = entry.getValue();
+                if (sValue.action() != null) {
+                    actionType = sValue.action();
+                    sValue = sValue.body();
                 }
-                if (sKey.equals("return")) { // return
+                if (sKey == ContrValue.RETURN) { // return
                     if (retContr == null) continue;
-                    String retValue = sValue.substring(0, sValue.lastIndexOf("+"));
-                    String retType = sValue.substring(sValue.lastIndexOf("+") + 1);
-                    if (!retType.equals("null")) retContr.setType(typeSystem.getType(retType));
+                    ContrValue retValue = sValue.head();
+                    ContrValue retType = sValue.last();
+                    if (!retType.isNull()) retContr.setType(typeSystem.getType(retType.toString()));
                     if (ContrUtil.isCallSite(retValue)) { // 返回值来源于参数
                         Contr fromContr = getCallSiteCorrespondContr(retValue, callSiteVars, base);
                         retContr.updateValue(fromContr, actionType);
@@ -406,7 +439,7 @@ public class StmtProcessor {
                 } else if (ContrUtil.isCallSite(sKey)) { // 参数
                     Contr toContr = getCallSiteCorrespondContr(sKey, callSiteVars, base);
                     if (toContr == null) continue;
-                    String target = toContr.getValue();
+                    ContrValue target = toContr.getValue();
                     if (ContrUtil.isCallSite(sValue)) {
                         Contr fromContr = getCallSiteCorrespondContr(sValue, callSiteVars, base);
                         toContr.updateValue(fromContr, actionType);
@@ -425,7 +458,7 @@ public class StmtProcessor {
         }
     }
 
-    private void addWL(Invoke stmt, JMethod callee, List<Contr> edgeContr, List<String> edgeContrValue) {
+    private void addWL(Invoke stmt, JMethod callee, List<Contr> edgeContr, List<ContrValue> edgeContrValue) {
         if (!isIgnored(callee) && (callee.isSink() || (!callee.isTransfer() && !callee.hasImitatedBehavior()))) {
             List<Type> edgeType = getCallSiteType(edgeContr);
             Edge callEdge = getCallEdge(stmt, callee, edgeContrValue, edgeType);
@@ -479,8 +512,8 @@ public class StmtProcessor {
         return contrList;
     }
 
-    private List<String> getCallSiteContrValue(List<Contr> callSiteContrs) {
-        List<String> list = new ArrayList<>();
+    private List<ContrValue> getCallSiteContrValue(List<Contr> callSiteContrs) {
+        List<ContrValue> list = new ArrayList<>();
         callSiteContrs.forEach(contr -> list.add(getContrValue(contr)));
         return list;
     }
@@ -504,17 +537,18 @@ public class StmtProcessor {
         return vars;
     }
 
-    private String getContrValue(Pointer p) {
+    private ContrValue getContrValue(Pointer p) {
         Contr contr = getContr(p);
         return getContrValue(contr);
     }
 
-    private String getContrValue(Contr c) {
-        return c != null ? c.getValue() : ContrUtil.sNOT_POLLUTED;
+    private ContrValue getContrValue(Contr c) {
+        return c != null ? c.getValue() : ContrValue.NOT_POLLUTED;
     }
 
     private Contr getContr(Pointer p) {
         if (p != null && !isIgnored(p.getType())) {
+            pointsToCache.visit(p);
             if (containsContr(p)) {
                 Contr query = drivenMap.get(p);
                 if (stackManger.containsInstanceOfType(p)) {
@@ -546,9 +580,9 @@ public class StmtProcessor {
 
     private void checkParamIdx(Contr query) { // TODO to refine
         if (ContrUtil.isControllableParam(query)) {
-            int idx = Strings.extractParamIndex(query.getValue());
+            int idx = query.getValue().code();
             if (idx >= curMethod.getParamCount()) {
-                query.setValue(query.getValue().replace(ContrUtil.sParam + "-" + idx, ContrUtil.sTHIS));
+                query.setValue(query.getValue().replace(ContrValue.of(idx), ContrValue.THIS));
             }
         }
     }
@@ -577,7 +611,7 @@ public class StmtProcessor {
         }
     }
 
-    private Edge getCallEdge(Invoke callSite, JMethod callee, List<String> csContr, List<Type> edgeType) {
+    private Edge getCallEdge(Invoke callSite, JMethod callee, List<ContrValue> csContr, List<Type> edgeType) {
         CSCallSite csCallSite = csManager.getCSCallSite(context, callSite);
         CSMethod csCallee = csManager.getCSMethod(context, callee);
         return new Edge<>(CallGraphs.getCallKind(callSite), csCallSite, csCallee, csContr, lineNumber, edgeType);
@@ -594,7 +628,7 @@ public class StmtProcessor {
             } else if (baseContr.isNew()) {
                 baseContr.getNewType().forEach(type -> ret.add(CallGraphs.resolveCallee(type, stmt)));
             } else {
-                Set<JMethod> chaTargets = CallGraphs.resolveCalleesOf(stmt);
+                CHATargets chaTargets = CallGraphs.resolveCHATargetsOf(stmt);
                 ret.addAll(filterCHA(chaTargets, baseContr, refType));
             }
         }
@@ -605,17 +639,17 @@ public class StmtProcessor {
         return callees;
     }
 
-    private Contr getCallSiteCorrespondContr(String value, List<CSVar> callSiteVars, CSVar base) { // TODO refine
+    private Contr getCallSiteCorrespondContr(ContrValue value, List<CSVar> callSiteVars, CSVar base) { // TODO refine
         Pointer origin;
-        String contrValue = ContrUtil.sNOT_POLLUTED;
-        String param_part = null;
+        ContrValue contrValue = ContrValue.NOT_POLLUTED;
+        ContrValue param_part = null;
         boolean isIntra = false;
         if (value.contains(ContrUtil.sTHIS)) {
             if (base != null) {
                 if (value.contains("-")) { // this.f = xxx
-                    String fieldName = Strings.extractFieldName(value);
+                    String fieldName = value.fieldName();
                     JField field = base.getVar().getClassField(fieldName);
-                    param_part = ContrUtil.sTHIS + "-" + fieldName;
+                    param_part = value.fieldKey();
                     if (field != null) {
                         InstanceField iFiled = csManager.getInstanceField(base, field);
                         origin = iFiled;
@@ -624,27 +658,27 @@ public class StmtProcessor {
                     }
                     Contr baseContr = getContr(base);
                     if (baseContr != null && baseContr.isNew()) isIntra = true;
-                    contrValue = getContrValue(baseContr) + "-" + fieldName;
+                    contrValue = getContrValue(baseContr).field(fieldName);
                 } else { // this = xx
                     origin = base;
                     contrValue = getContrValue(base);
-                    param_part = ContrUtil.sTHIS;
+                    param_part = ContrValue.THIS;
                 }
             } else { // 静态方法调用
                 return getOrAddContr(null);
             }
         } else if (value.contains(ContrUtil.sPOLLUTED)) {
             origin = null;
-            contrValue = ContrUtil.sPOLLUTED;
+            contrValue = ContrValue.POLLUTED;
         } else {
-            int paramIdx = ContrUtil.string2Int(value) + 1;
+            int paramIdx = value.code() + 1;
             origin = callSiteVars.get(paramIdx);
-            param_part = ContrUtil.sParam + "-" + (paramIdx - 1);
+            param_part = ContrValue.of(paramIdx - 1);
         }
         Contr ret;
         if (containsContr(origin)) {
             ret = drivenMap.get(origin).copy();
-            if (value.contains(param_part) && value.contains("+")) {
+            if (value.contains(param_part) && value.isConcat()) {
                 ret.setValue(value.replace(param_part, ret.getValue()));
             }
         } else {
@@ -657,7 +691,12 @@ public class StmtProcessor {
 
     private PointsTo findPointsTo(Pointer pointer) {
         PointsTo pt = PointsTo.make();
-        if (stackManger.containsQuery(pointer)) return pt; // 防止递归
+        if (stackManger.containsQuery(pointer)) { // 防止递归
+            pointsToCache.cut();
+            return pt;
+        }
+        if (pointsToCache.lookup(pointer, pt)) return pt;
+        pointsToCache.begin();
         stackManger.pushQuery(pointer);
 
         LinkedList<Pointer> workList = new LinkedList<>();
@@ -666,11 +705,14 @@ public class StmtProcessor {
 
         while (!workList.isEmpty()) {
             Pointer p = workList.poll();
+            pointsToCache.visit(p);
             if (containsContr(p)) {
                 pt.add(drivenMap.get(p));
                 continue;
             }
-            for (PointerFlowEdge pfe : p.getInEdges()) {
+            PointerFlowEdges inEdges = p.getInEdges();
+            for (int i = 0; i < inEdges.size(); ++i) {
+                PointerFlowEdge pfe = inEdges.get(i);
                 Pointer source = pfe.source();
                 switch (pfe.kind()) {
                     case NEW, NEW_CONTR -> {
@@ -682,8 +724,7 @@ public class StmtProcessor {
                         } else if (obj instanceof ConstantObj co && co.getAllocation() instanceof ClassLiteral cl) {
                             newContr.setType(cl.getTypeValue());
                         } else {
-                            String newType = "new " + obj.getType();
-                            newContr.setValue(newType);
+                            newContr.setValue(ContrValue.ofNew(obj.getType()));
                             newContr.setNew();
                         }
                         pt.add(newContr);
@@ -697,7 +738,7 @@ public class StmtProcessor {
                             contr.setCasted();
                             contr.setType(st.getType());
                             if (from.isNew()) {
-                                contr.setValue("new " + st.getType());
+                                contr.setValue(ContrValue.ofNew(st.getType()));
                                 contr.addNewType(st.getType());
                             }
                             pt.add(contr);
@@ -712,21 +753,21 @@ public class StmtProcessor {
                         if (source instanceof InstanceField iField) {
                             base = iField.getBaseVar();
                             fieldName = iField.getField().getName();
-                            matchEdges = pointerFlowGraph.getMatchEdges(iField.getField());
                         } else if (source instanceof ArrayIndex arrayIndex) {
                             base = arrayIndex.getArrayVar();
                             fieldName = "arr";
-                            matchEdges = pointerFlowGraph.getMatchEdges(base.getVar().getMethod().getDeclaringClass(), base.getType());
                             contr.setType(p.getType()); // element type
                         }
+                        pointsToCache.visitMatchEdges(source);
+                        matchEdges = pointerFlowGraph.getMatchEdges(source);
                         if (!processAlias(source, matchEdges, pt, pfe.getLineNumber(), fieldName)) {
                             Contr baseContr = getContr(base);
                             if (ContrUtil.isControllable(baseContr)) {
                                 if (source instanceof ArrayIndex) {
-                                    contr.setValue(baseContr.getValue() + "-" + fieldName);
+                                    contr.setValue(baseContr.getValue().field(fieldName));
                                 } else if (!contr.isTransient()) {
                                     if (fieldName.equals("this$0")) contr.setValue(baseContr.getValue()); // Class.this的一种访问形式
-                                    else contr.setValue(baseContr.getValue() + "-" + fieldName);
+                                    else contr.setValue(baseContr.getValue().field(fieldName));
                                 }
                             }
                             pt.add(contr);
@@ -761,6 +802,7 @@ public class StmtProcessor {
             }
         }
         stackManger.popQuery();
+        pointsToCache.end(pointer, pt);
         return pt;
     }
 
@@ -770,7 +812,7 @@ public class StmtProcessor {
         }
     }
 
-    private void processProxy(Invoke stmt, List<Contr> csContr, List<String> csContrValue) {
+    private void processProxy(Invoke stmt, List<Contr> csContr, List<ContrValue> csContrValue) {
         Contr baseContr = csContr.get(0);
         if (baseContr != null && ContrUtil.isCallSite(baseContr.getValue()) && !baseContr.isCasted()) {
             for (JMethod callee : World.get().getInvocationHandlerMethod()) {
@@ -788,10 +830,10 @@ public class StmtProcessor {
             if (same(source, matchTarget)) {
                 JMethod targetMethod = getPointerMethod(matchTarget);
                 if (targetMethod == null) continue;
-                String ifRange = pointerFlowGraph.getIfRange(matchEdge);
-                if (!ifRange.equals("-1")) {
-                    int ifStart = Integer.parseInt(ifRange.split("->")[0]);
-                    int ifEnd = Integer.parseInt(ifRange.split("->")[1]);
+                long ifRange = pointerFlowGraph.getIfRange(matchEdge);
+                if (ifRange != -1) {
+                    int ifStart = PointerFlowGraph.getIfStart(ifRange);
+                    int ifEnd = PointerFlowGraph.getIfEnd(ifRange);
                     JMethod ifContainer = pointerFlowGraph.getIfContainer(matchEdge);
                     if (curMethod.equals(ifContainer) && (lineNumber >= ifEnd || lineNumber <= ifStart)) continue;
                 }
@@ -800,8 +842,8 @@ public class StmtProcessor {
                 if (!Objects.equals(getPointerMethod(source), targetMethod) // 如果来源变量不属于当前方法，则参数来源可能不一致
                         && !pt.isEmpty()
                         && ContrUtil.isControllableParam(pt.getMergedContr())) {
-                    String value = pt.getMergedContr().getValue();
-                    pt.setValue(source instanceof InstanceField ? ContrUtil.replaceContr(value, ContrUtil.sTHIS + "-" + fieldName) : ContrUtil.replaceContr(value, ContrUtil.sPOLLUTED));
+                    ContrValue value = pt.getMergedContr().getValue();
+                    pt.setValue(source instanceof InstanceField ? ContrUtil.replaceContr(value, ContrValue.THIS.field(fieldName)) : ContrUtil.replaceContr(value, ContrValue.POLLUTED));
                 }
             }
         }
@@ -826,7 +868,7 @@ public class StmtProcessor {
         }
     }
 
-    private void processBehavior(JMethod method, Invoke stmt, List<CSVar> callSiteVars, List<Contr> csContr, List<String> csContrValue) {
+    private void processBehavior(JMethod method, Invoke stmt, List<CSVar> callSiteVars, List<Contr> csContr, List<ContrValue> csContrValue) {
         Map<String, String> imitatedBehavior = method.getImitatedBehavior();
         if (imitatedBehavior.containsKey("jump")) {
             String target = imitatedBehavior.get("jump");
@@ -865,10 +907,10 @@ public class StmtProcessor {
                     callees = World.get().filterMethods(mName, clzName, argTypes, ContrUtil.isControllableParam(fromContr), isFilterNonSerializable, expandArgType);
                     if (callees.size() > 1) logger.info("[+] {} possible init target in {}", callees.size(), curMethod);
                     for (JMethod init : callees) {
-                        List<String> edgeContr = new ArrayList<>();
+                        List<ContrValue> edgeContr = new ArrayList<>();
                         edgeContr.add(csContrValue.get(0));
                         int pSize = init.getIR().getParams().size(); // 构造调用边
-                        List<String> copied = Collections.nCopies(pSize, csContrValue.get(1));
+                        List<ContrValue> copied = Collections.nCopies(pSize, csContrValue.get(1));
                         edgeContr.addAll(copied);
                         addWL(stmt, init, csContr, edgeContr);
                     }
@@ -880,7 +922,7 @@ public class StmtProcessor {
                     if (isOneInEdge(callSiteVars.get(idx))) return;
                     Contr nameContr = csContr.get(idx);
                     if (nameContr == null) return;
-                    String nameValue = nameContr.getValue();
+                    ContrValue nameValue = nameContr.getValue();
                     if (nameValue.startsWith(ContrUtil.sParam)) {
                         stmt.setFilterByCaller("edge:" + nameValue);
                     }
@@ -900,7 +942,7 @@ public class StmtProcessor {
                     if (callees.size() > 1) logger.info("[+] {} possible invoke target in {}", callees.size(), curMethod);
                     if (nameReg.equals(".*")) callees.addAll(World.get().getInvocationHandlerMethod());
                     for (JMethod callee : callees) {
-                        List<String> edgeContr = new ArrayList<>();
+                        List<ContrValue> edgeContr = new ArrayList<>();
                         edgeContr.add(csContrValue.get(ridx));
                         if (callee.isInvoke()) {
                             edgeContr.add(csContrValue.get(ridx));
@@ -918,21 +960,21 @@ public class StmtProcessor {
                 }
                 case "get" -> {
                     int getIdx = InvokeUtils.toInt(imitatedBehavior.get("fromIdx")) + 1;
-                    String fromValue = csContrValue.get(getIdx);
+                    ContrValue fromValue = csContrValue.get(getIdx);
                     if (ContrUtil.isControllable(fromValue) && stmt.getResult() != null) {
                         Pointer p = csManager.getCSVar(context, stmt.getResult());
                         Contr retContr = getOrAddContr(p);
-                        retContr.setValue("get+" + fromValue);
+                        retContr.setValue(GET.append(fromValue));
                         updateContr(p, retContr);
                     }
                 }
                 case "set" -> {
                     int setIdx = InvokeUtils.toInt(imitatedBehavior.get("fromIdx")) + 1;
-                    String fromValue = csContrValue.get(setIdx);
+                    ContrValue fromValue = csContrValue.get(setIdx);
                     if (ContrUtil.isControllable(fromValue) && stmt.getResult() != null) {
                         Pointer p = csManager.getCSVar(context, stmt.getResult());
                         Contr retContr = getOrAddContr(p);
-                        retContr.setValue("set+" + fromValue);
+                        retContr.setValue(SET.append(fromValue));
                         updateContr(p, retContr);
                     }
                 }
@@ -943,7 +985,7 @@ public class StmtProcessor {
                     JMethod callee = CallGraphs.resolveCalleesOf(contr.getJClass(), "java.lang.Object run()");
                     if (callee != null) {
                         List<Contr> edgeContr = csContr.subList(fromIdx, csContr.size());
-                        List<String> edgeContrValue = csContrValue.subList(fromIdx, csContr.size());
+                        List<ContrValue> edgeContrValue = csContrValue.subList(fromIdx, csContr.size());
                         addWL(stmt, callee, edgeContr, edgeContrValue);
                         sideEffects(stmt, Set.of(callee), callSiteVars, callSiteVars.get(fromIdx), csContrValue);
                     }
@@ -965,7 +1007,7 @@ public class StmtProcessor {
                             String replacedValue = (String) rep.invoke(s, ContrUtil.getCS(csContrValue.get(1)), ContrUtil.getCS(csContrValue.get(2)));
                             CSVar base = callSiteVars.get(0);
                             Contr replacedContr = getContr(base);
-                            replacedContr.setValue(replacedValue);
+                            replacedContr.setValue(ContrValue.of(replacedValue));
                             updateContr(base, replacedContr);
                         } catch (Exception e) {
                             logger.info("[-] {} error when replacing in {}", curMethod);
@@ -977,7 +1019,7 @@ public class StmtProcessor {
                     Contr baseContr = csContr.get(0);
                     if (baseContr != null) {
                         for (int i = 1; i < callSiteVars.size(); i++) {
-                            String contr = csContrValue.get(i);
+                            ContrValue contr = csContrValue.get(i);
                             if (ContrUtil.isControllable(contr)) {
                                 baseContr.setValue(contr);
                                 updateContr(base, baseContr);
@@ -1001,19 +1043,19 @@ public class StmtProcessor {
         return false;
     }
 
-    private List<String> getDynamicProxyEdge(List<String> csContr) {
-        List<String> invokeEdge = new ArrayList<>(); // 适应参数长度
+    private List<ContrValue> getDynamicProxyEdge(List<ContrValue> csContr) {
+        List<ContrValue> invokeEdge = new ArrayList<>(); // 适应参数长度
         invokeEdge.add(csContr.get(0));
         invokeEdge.add(csContr.get(0));
-        invokeEdge.add(ContrUtil.sNOT_POLLUTED);
+        invokeEdge.add(ContrValue.NOT_POLLUTED);
         for (int i = 1; i < csContr.size(); i++) {
-            String v = csContr.get(i);
+            ContrValue v = csContr.get(i);
             if (ContrUtil.isControllable(v)) {
                 invokeEdge.add(v);
                 break;
             }
         }
-        if (invokeEdge.size() == 3) invokeEdge.add(ContrUtil.sNOT_POLLUTED);
+        if (invokeEdge.size() == 3) invokeEdge.add(ContrValue.NOT_POLLUTED);
         return invokeEdge;
     }
 
@@ -1036,19 +1078,16 @@ public class StmtProcessor {
         return false;
     }
 
-    private Collection<? extends JMethod> filterCHA(Set<JMethod> methods, Contr baseContr, Type refType) {
+    private Collection<? extends JMethod> filterCHA(CHATargets targets, Contr baseContr, Type refType) {
+        Set<JMethod> methods = targets.getMethods();
         if (methods.size() <= 1) return methods;
         Type type = baseContr.getType();
         boolean ignoredType = !typeSystem.isSubtype(refType, type); // 消除iterator的transfer副作用
         boolean isConstruct = baseContr.isSerializable() && ContrUtil.isControllable(baseContr) && baseContr.getOrigin() instanceof CSVar var && var.isAssigned();
-        return methods.stream()
-                .filter(method -> isFilterNonSerializable ? (method.getDeclaringClass().isSerializable() ? true : isConstruct) : true)
-                .filter(method -> ignoredType || typeSystem.isSubtype(type, method.getDeclaringClass().getType()))
-                .filter(method -> !method.isPrivate())
-                .collect(Collectors.toSet());
+        return targets.filter(ignoredType ? null : type, !isFilterNonSerializable || isConstruct);
     }
 
-    private void filterByCaller(Invoke stmt, Edge callEdge, List<String> edgeContr) {
+    private void filterByCaller(Invoke stmt, Edge callEdge, List<ContrValue> edgeContr) {
         if (mayCreateRoute) {
             if (stackManger.isInIf()) {
                 ConditionExp conditionExp = stackManger.getIfCondition(curMethod);
@@ -1096,9 +1135,9 @@ public class StmtProcessor {
                 if (!isIgnored(field.getType())) {
                     InstanceField to = csManager.getInstanceField(thisVar, field);
                     if (to.getInEdges().size() > 0) {
-                        String key = tv.getName().substring(1) + "-" + field.getName();
-                        String oldV = curMethod.getSummary(key);
-                        String newV = getContrValue(to);
+                        ContrValue key = ContrValue.THIS.field(field.getName());
+                        ContrValue oldV = curMethod.getSummary(key);
+                        ContrValue newV = getContrValue(to);
                         if (ContrUtil.needUpdateInMerge(oldV, newV)) {
                             curMethod.setSummary(key, newV);
                         }
@@ -1111,9 +1150,9 @@ public class StmtProcessor {
             if (param.getInEdges().size() > 1) { // 存在参数操作
                 param.removePFG(FlowKind.NEW_CONTR); // 削除初始操作影响
                 drivenMap.remove(param);
-                String key = "param-" + i;
-                String oldV = curMethod.getSummary(key);
-                String newV = getContrValue(param);
+                ContrValue key = ContrValue.of(i);
+                ContrValue oldV = curMethod.getSummary(key);
+                ContrValue newV = getContrValue(param);
                 if (ContrUtil.needUpdateInMerge(oldV, newV)) curMethod.setSummary(key, newV);
             }
         }
@@ -1123,14 +1162,14 @@ public class StmtProcessor {
         return type.getName().equals("java.lang.String");
     }
 
-    private boolean useFiled(CSVar csVar, String target) {
+    private boolean useFiled(CSVar csVar, ContrValue target) {
         if (csVar == null) return false;
         List<StoreField> storeFields = csVar.getVar().getStoreFields();
         for (StoreField storeField : storeFields) {
             JField field = storeField.getFieldRef().resolve();
             if (isIgnored(field.getType())) continue;
-            String key = thisVar.getVar().getName().substring(1) + "-" + field.getName();
-            if (key.equals(target)) return true;
+            ContrValue key = ContrValue.THIS.field(field.getName());
+            if (key == target) return true;
         }
         return false;
     }
@@ -0,0 +1,158 @@
+package pascal.taie.analysis.dataflow.analysis.methodsummary;
+
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides which thread builds the summary of a method.
+ * A method is owned by at most one thread while its summary is computed,
+ * other threads requesting the same method wait until it is published.
+ * If waiting would close a cycle among the waiting threads (i.e., the methods
+ * form a strongly connected component spread over several threads), one
+ * request in the cycle is treated like a recursive call in the sequential
+ * analysis.
+ * <p>
+ * The request to cut does not depend on which thread closes the cycle.
+ * Each thread runs an entry of the work list, and the sequential analysis
+ * would run the earliest entry in the cycle first, entering the component
+ * from the method owned by its thread and cutting the request which comes
+ * back to that method. So the thread waiting for the thread of the earliest
+ * entry cuts its request, and the other threads keep waiting.
+ * <p>
+ * This does not make the summaries equal to the sequential ones in general.
+ * A component which one thread builds alone is cut where that thread enters
+ * it, which may not be where the earliest entry reaching the component would
+ * enter it, as the thread of that entry may reach the component later. So the
+ * summaries of recursive methods, and the chains through them, may differ
+ * from those built with one thread.
+ */
+public class SummaryScheduler {
+
+    private final Map<JMethod, Thread> owners = Maps.newConcurrentMap();
+
+    private final Map<Thread, JMethod> waiting = Maps.newConcurrentMap();
+
+    private final Set<JMethod> finished = Sets.newConcurrentSet();
+
+    /**
+     * Thread -> index of the entry it runs in the work list.
+     */
+    private final Map<Thread, Integer> ranks = Maps.newConcurrentMap();
+
+    /**
+     * Waiting threads which should cut their requests.
+     */
+    private final Set<Thread> cutThreads = Sets.newConcurrentSet();
+
+    private int brokenCycles = 0;
+
+    /**
+     * @return true if the current thread should analyze the method,
+     * false if the summary is available, or it is being built by the current
+     * thread, or the request is cut in a cycle among threads.
+     */
+    public synchronized boolean acquire(JMethod method) {
+        Thread current = Thread.currentThread();
+        while (true) {
+            if (finished.contains(method)) return false;
+            Thread owner = owners.get(method);
+            if (owner == null) {
+                if (method.hasSummary()) return false;
+                owners.put(method, current);
+                return true;
+            }
+            if (owner == current) return false;
+            if (isWaitingFor(owner, current)) {
+                Thread cutThread = getCutThread(current, method);
+                if (cutThread == current) {
+                    brokenCycles++;
+                    return false;
+                }
+                cutThreads.add(cutThread);
+                notifyAll();
+            }
+            waiting.put(current, method);
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                waiting.remove(current);
+            }
+            if (cutThreads.remove(current)) {
+                brokenCycles++;
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Sets the index of the entry run by the current thread,
+     * which decides where the cycles among threads are cut.
+     */
+    public void setRank(int rank) {
+        ranks.put(Thread.currentThread(), rank);
+    }
+
+    /**
+     * @return the thread whose request is cut in the cycle closed by
+     * the current thread requesting given method, i.e., the thread waiting
+     * for the thread of the earliest entry in the cycle.
+     */
+    private Thread getCutThread(Thread current, JMethod method) {
+        Thread cutThread = current;
+        int minRank = Integer.MAX_VALUE;
+        Thread t = current;
+        JMethod requested = method;
+        do {
+            Thread owner = owners.get(requested);
+            int rank = ranks.getOrDefault(owner, Integer.MAX_VALUE);
+            if (rank < minRank) {
+                minRank = rank;
+                cutThread = t;
+            }
+            t = owner;
+            requested = waiting.get(t);
+        } while (t != current);
+        return cutThread;
+    }
+
+    public synchronized void release(JMethod method) {
+        owners.remove(method);
+        // methods without summary (e.g., abstract ones) are not requested again
+        finished.add(method);
+        notifyAll();
+    }
+
+    /**
+     * @return true if the summary of the method is still being built by
+     * another thread, which only happens when the method is in a cycle
+     * spanning several threads.
+     */
+    public boolean isPendingElsewhere(JMethod method) {
+        Thread owner = owners.get(method);
+        return owner != null && owner != Thread.currentThread();
+    }
+
+    public synchronized int getBrokenCycles() {
+        return brokenCycles;
+    }
+
+    private boolean isWaitingFor(Thread from, Thread to) {
+        Thread t = from;
+        while (true) {
+            // a thread cutting its request no longer waits
+            if (cutThreads.contains(t)) return false;
+            JMethod m = waiting.get(t);
+            if (m == null) return false;
+            t = owners.get(m);
+            if (t == null) return false;
+            if (t == to) return true;
+        }
+    }
+}
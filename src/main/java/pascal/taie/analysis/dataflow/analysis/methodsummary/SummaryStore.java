@@ -0,0 +1,715 @@
+package pascal.taie.analysis.dataflow.analysis.methodsummary;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.AbstractWorldBuilder;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallGraphs;
+import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.core.cs.CSCallGraph;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.config.Options;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.FieldAccess;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.StaticFieldAccess;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static pascal.taie.util.Hashes.FNV64_OFFSET;
+import static pascal.taie.util.Hashes.fnv64;
+
+/**
+ * On-disk store of method summaries, which lets summaries of the JDK and
+ * shared libraries be reused by later runs instead of being rebuilt.
+ * <p>
+ * Each method is stored with its summary, the call edges out of it, its
+ * invoke dispatch data and the methods analyzed on its behalf. A stored
+ * summary is reused only if
+ * <ul>
+ *     <li>the store was written with the same priori knowledge and options,</li>
+ *     <li>the class file declaring the method is unchanged (by content hash),</li>
+ *     <li>the CHA targets of its call sites and the invocation handlers are
+ *     unchanged, as new application classes add targets to library calls,</li>
+ *     <li>and the same holds for all methods analyzed on its behalf.</li>
+ * </ul>
+ * Methods calling APIs with imitated behavior (e.g., reflection) match their
+ * targets against the whole world, so their summaries are not stored.
+ * <p>
+ * Flows through static fields and fields of {@code this} cross methods in
+ * the pointer flow graph, as a load is matched with the stores in other
+ * methods (see {@link pascal.taie.analysis.pta.core.solver.PointerFlowGraph}).
+ * A restored method adds no pointer flow edges, so the methods storing such
+ * fields are always re-analyzed to rebuild their edges, and a method loading
+ * such fields depends on the methods storing them in the last run. It is
+ * also invalid if a class changed since the last run may store the fields.
+ * <p>
+ * As only the invalid summaries are rebuilt, a run after some jars change
+ * re-analyzes the changed methods and their (transitive) callers. The store
+ * also keeps the gadget chains found from each sink, which are reused if the
+ * call edges that may be in the chains are unchanged.
+ */
+public class SummaryStore {
+
+    private static final Logger logger = LogManager.getLogger(SummaryStore.class);
+
+    private static final int VERSION = 3;
+
+    private final Path path;
+
+    private final CSManager csManager;
+
+    private final CSCallGraph csCallGraph;
+
+    private final Context context;
+
+    private final ClassHierarchy hierarchy;
+
+    private final TypeSystem typeSystem;
+
+    private final long fingerprint;
+
+    /**
+     * Method signature -> record, both loaded and built in this run.
+     */
+    private final Map<String, Record> records = Maps.newConcurrentMap();
+
+    /**
+     * Sink signature -> gadget chains found in the last search from the sink.
+     */
+    private final Map<String, ChainRecord> chains = Maps.newConcurrentMap();
+
+    private final Map<JMethod, Boolean> valid = Maps.newConcurrentMap();
+
+    private final Map<JMethod, Boolean> localValid = Maps.newConcurrentMap();
+
+    private final Map<JMethod, Set<JMethod>> dependencies = Maps.newConcurrentMap();
+
+    private final Set<JMethod> analyzed = Sets.newConcurrentSet();
+
+    private final Set<JMethod> restored = Sets.newConcurrentSet();
+
+    private final Set<JMethod> invalidated = Sets.newConcurrentSet();
+
+    /**
+     * Stored methods which are re-analyzed as they store fields loaded
+     * by other methods.
+     */
+    private final Set<JMethod> reanalyzed = Sets.newConcurrentSet();
+
+    /**
+     * Class name -> hash of class file, of the classes in the last run.
+     */
+    private final Map<String, Long> lastClassHashes = Maps.newMap();
+
+    /**
+     * Fields (given by {@link #getFieldKeys}) which may be stored by
+     * the classes changed since the last run.
+     */
+    private volatile Set<String> changedStores;
+
+    private int stored = 0;
+
+    private final ThreadLocal<Deque<JMethod>> current = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private volatile Map<String, Long> classHashes;
+
+    private final Map<String, Long> dirClassHashes = Maps.newConcurrentMap();
+
+    private final List<Path> classDirs = new ArrayList<>();
+
+    private long handlerHash;
+
+    public SummaryStore(String path, String prioriKnowledge,
+                        CSManager csManager, CSCallGraph csCallGraph, Context context) {
+        this.path = Path.of(path);
+        this.csManager = csManager;
+        this.csCallGraph = csCallGraph;
+        this.context = context;
+        this.hierarchy = World.get().getClassHierarchy();
+        this.typeSystem = World.get().getTypeSystem();
+        this.fingerprint = computeFingerprint(prioriKnowledge);
+        load();
+    }
+
+    /**
+     * Called before the analysis of a method is requested, to record
+     * that the method currently analyzed by this thread depends on it.
+     */
+    public void addDependency(JMethod method) {
+        JMethod caller = current.get().peek();
+        if (caller != null && caller != method) {
+            // dependencies are requested in order when the caller is restored
+            Set<JMethod> deps = dependencies.computeIfAbsent(caller,
+                    m -> Collections.synchronizedSet(Sets.newLinkedSet()));
+            deps.add(method);
+        }
+    }
+
+    public void enter(JMethod method) {
+        current.get().push(method);
+    }
+
+    public void exit(JMethod method) {
+        current.get().pop();
+        analyzed.add(method);
+    }
+
+    /**
+     * Restores the stored summary of the method, its call edges and invoke
+     * dispatch data.
+     *
+     * @return true if the summary is restored, false if the method
+     * needs to be analyzed.
+     */
+    public boolean restore(JMethod method) {
+        Record record = records.get(method.getSignature());
+        if (record == null) return false;
+        if (!isValid(method)) {
+            invalidated.add(method);
+            return false;
+        }
+        if (!record.stores.isEmpty()) {
+            // the stores are matched by loads in the methods analyzed
+            // in this run, so the pointer flow edges of them are needed
+            reanalyzed.add(method);
+            return false;
+        }
+        record.summary.forEach((k, v) -> method.setSummary(ContrValue.of(k), ContrValue.of(v)));
+        CSMethod csMethod = csManager.getCSMethod(context, method);
+        csCallGraph.addReachableMethod(csMethod);
+        if (!record.edges.isEmpty() || !record.invokeDispatch.isEmpty()) {
+            IR ir = method.getIR();
+            for (EdgeRecord e : record.edges) {
+                csCallGraph.addEdge(toEdge(e, ir));
+            }
+            if (!record.invokeDispatch.isEmpty()) {
+                for (Var var : ir.getVars()) {
+                    String dispatch = record.invokeDispatch.get(var.getName());
+                    if (dispatch != null) method.addInvokeDispatch(csManager.getCSVar(context, var), dispatch);
+                }
+            }
+        }
+        restored.add(method);
+        return true;
+    }
+
+    /**
+     * @return the methods analyzed on behalf of the restored method, which
+     * should be requested after it is restored.
+     */
+    public List<JMethod> getDependencies(JMethod method) {
+        return records.get(method.getSignature()).dependencies.stream()
+                .map(hierarchy::getMethod)
+                .toList();
+    }
+
+    /**
+     * @return true if the stored summary of the method and of all methods
+     * it (transitively) depends on can be reused.
+     */
+    private boolean isValid(JMethod method) {
+        Boolean result = valid.get(method);
+        if (result != null) return result;
+        Set<JMethod> closure = Sets.newSet();
+        Deque<JMethod> workList = new ArrayDeque<>();
+        closure.add(method);
+        workList.push(method);
+        result = true;
+        while (!workList.isEmpty()) {
+            JMethod m = workList.pop();
+            Boolean known = valid.get(m);
+            if (known != null) {
+                if (known) continue;
+                result = false;
+                break;
+            }
+            Boolean local = localValid.get(m);
+            if (local == null) {
+                local = isLocallyValid(m);
+                localValid.put(m, local);
+            }
+            if (!local) {
+                result = false;
+                break;
+            }
+            for (String dep : records.get(m.getSignature()).dependencies) {
+                JMethod d = hierarchy.getMethod(dep);
+                if (closure.add(d)) workList.push(d);
+            }
+        }
+        if (result) {
+            closure.forEach(m -> valid.put(m, true));
+        } else {
+            valid.put(method, false);
+        }
+        return result;
+    }
+
+    private boolean isLocallyValid(JMethod method) {
+        Record record = records.get(method.getSignature());
+        if (record == null
+                || record.classHash != getClassHash(method.getDeclaringClass())
+                || record.dispatchHash != getDispatchHash(method)) {
+            return false;
+        }
+        for (EdgeRecord e : record.edges) {
+            if (hierarchy.getMethod(e.callee) == null) return false;
+        }
+        for (String dep : record.dependencies) {
+            if (hierarchy.getMethod(dep) == null) return false;
+        }
+        if (!record.loads.isEmpty()) {
+            Set<String> changed = getChangedStores();
+            for (String load : record.loads) {
+                if (changed.contains(load)) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the fields which may be stored by the methods of the classes
+     * changed or added in the class path since the last run. The stores
+     * removed from the changed classes are covered by the dependencies on
+     * their methods. The changed classes are found by the class files,
+     * so they are also found if they are not loaded yet in lazy world.
+     */
+    private Set<String> getChangedStores() {
+        Set<String> result = changedStores;
+        if (result == null) {
+            synchronized (this) {
+                result = changedStores;
+                if (result == null) {
+                    result = Sets.newSet();
+                    for (Map.Entry<String, Long> e : getClassPathHashes().entrySet()) {
+                        if (!e.getValue().equals(lastClassHashes.get(e.getKey()))) {
+                            JClass c = hierarchy.getClass(e.getKey());
+                            if (c != null) {
+                                for (JMethod m : c.getDeclaredMethods()) {
+                                    result.addAll(getFieldKeys(m, true));
+                                }
+                            }
+                        }
+                    }
+                    changedStores = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param store true for the stored fields, false for the loaded fields.
+     * @return keys of the fields accessed by the method which cross methods
+     * in the pointer flow graph, i.e., static fields, and fields of
+     * {@code this} which are matched by the type of {@code this}.
+     */
+    private static Set<String> getFieldKeys(JMethod method, boolean store) {
+        if (method.isAbstract() || method.isNative()) return Set.of();
+        Set<String> keys = Sets.newLinkedSet();
+        for (Stmt stmt : method.getIR()) {
+            FieldAccess access;
+            if (store && stmt instanceof StoreField storeField) {
+                access = storeField.getFieldAccess();
+            } else if (!store && stmt instanceof LoadField loadField) {
+                access = loadField.getFieldAccess();
+            } else {
+                continue;
+            }
+            JField field = access.getFieldRef().resolveNullable();
+            String fieldKey = field != null ? field.getSignature() : access.getFieldRef().toString();
+            if (access instanceof StaticFieldAccess) {
+                keys.add(fieldKey);
+            } else if (access instanceof InstanceFieldAccess iAccess
+                    && iAccess.getBase().getName().equals("%this")) {
+                keys.add(iAccess.getBase().getType().getName() + " " + fieldKey);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * @return true if the summary of the method is restored from this store.
+     */
+    public boolean isRestored(JMethod method) {
+        return restored.contains(method);
+    }
+
+    /**
+     * @param coneHash hash of the call edges which may be in the gadget
+     *                 chains to the sink
+     * @return the gadget chains to the sink stored by the last run, or null
+     * if the sink was not searched or its edges have changed since then.
+     */
+    public List<String> getChains(JMethod sink, long coneHash) {
+        ChainRecord record = chains.get(sink.getSignature());
+        return record != null && record.coneHash == coneHash ? record.chains : null;
+    }
+
+    public void putChains(JMethod sink, long coneHash, List<String> gcs) {
+        chains.put(sink.getSignature(), new ChainRecord(coneHash, List.copyOf(gcs)));
+    }
+
+    /**
+     * Records the summaries built in this run. This must be called before
+     * gadget chains are collected, which adds edges to the call graph.
+     */
+    public void record() {
+        MultiMap<String, JMethod> storers = Maps.newMultiMap();
+        for (JMethod method : analyzed) {
+            if (method.hasSummary() && !restored.contains(method)) {
+                getFieldKeys(method, true).forEach(key -> storers.put(key, method));
+            }
+        }
+        for (JMethod method : analyzed) {
+            if (!method.hasSummary() || restored.contains(method)) continue;
+            if (isStorable(method)) {
+                records.put(method.getSignature(), buildRecord(method, storers));
+                stored++;
+            } else {
+                records.remove(method.getSignature());
+            }
+        }
+    }
+
+    /**
+     * Writes the recorded summaries and chains together with the loaded ones.
+     */
+    public void save() {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (ObjectOutputStream out = new ObjectOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(VERSION);
+            out.writeLong(fingerprint);
+            out.writeObject(records);
+            out.writeObject(chains);
+            out.writeObject(getClassPathHashes());
+        } catch (IOException e) {
+            logger.warn("Failed to write summary store {}: {}", path, e.getMessage());
+            return;
+        }
+        try {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to replace summary store {}: {}", path, e.getMessage());
+            return;
+        }
+        logger.info("reuse {} stored summaries, {} invalidated, {} re-analyzed for field stores," +
+                        " store {} new summaries, {} summaries in {}",
+                restored.size(), invalidated.size(), reanalyzed.size(), stored, records.size(), path);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void load() {
+        if (Files.exists(path)) {
+            try (ObjectInputStream in = new ObjectInputStream(
+                    new BufferedInputStream(Files.newInputStream(path)))) {
+                if (in.readInt() == VERSION && in.readLong() == fingerprint) {
+                    records.putAll((Map<String, Record>) in.readObject());
+                    chains.putAll((Map<String, ChainRecord>) in.readObject());
+                    lastClassHashes.putAll((Map<String, Long>) in.readObject());
+                    logger.info("load {} summaries and chains of {} sinks from {}",
+                            records.size(), chains.size(), path);
+                    return;
+                }
+                logger.info("summary store {} is outdated, rebuild it", path);
+            } catch (IOException | ClassNotFoundException | ClassCastException e) {
+                logger.warn("Failed to read summary store {}: {}", path, e.getMessage());
+                records.clear();
+                chains.clear();
+                lastClassHashes.clear();
+            }
+        }
+    }
+
+    private boolean isStorable(JMethod method) {
+        IR ir = method.getIR();
+        for (Stmt stmt : ir) {
+            if (stmt instanceof Invoke invoke && !invoke.isDynamic()) {
+                JMethod ref = invoke.getMethodRef().resolveNullable();
+                if (ref != null && ref.hasImitatedBehavior()) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return class name -> hash of class file, of all classes in class path.
+     */
+    private Map<String, Long> getClassPathHashes() {
+        Map<String, Long> result = Maps.newMap();
+        result.putAll(getClassHashes()); // also finds the directories in class path
+        for (Path dir : classDirs) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.map(f -> dir.relativize(f).toString())
+                        .filter(f -> f.endsWith(".class"))
+                        .map(f -> f.substring(0, f.length() - 6).replace(File.separatorChar, '.'))
+                        .forEach(name -> result.putIfAbsent(name, getClassHash(name)));
+            } catch (IOException e) {
+                logger.warn("Failed to read {}: {}", dir, e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param storers field key -> methods storing the field in this run.
+     */
+    private Record buildRecord(JMethod method, MultiMap<String, JMethod> storers) {
+        Map<String, String> summary = Maps.newMap();
+        method.getSummaryMap().forEach((k, v) -> summary.put(k.toString(), v.toString()));
+        Map<String, String> invokeDispatch = Maps.newMap();
+        method.getInvokeDispatchMap().forEach((var, v) -> invokeDispatch.put(var.getVar().getName(), v));
+        List<EdgeRecord> edges = new ArrayList<>();
+        CSMethod csMethod = csManager.getCSMethod(context, method);
+        csCallGraph.getCallSitesIn(csMethod).forEach(csCallSite ->
+                csCallSite.getEdges().forEach(edge -> edges.add(EdgeRecord.of(edge))));
+        Set<String> deps = Sets.newLinkedSet();
+        Set<JMethod> methodDeps = dependencies.getOrDefault(method, Set.of());
+        synchronized (methodDeps) {
+            methodDeps.forEach(dep -> {
+                if (dep.hasSummary()) deps.add(dep.getSignature());
+            });
+        }
+        List<String> loads = List.copyOf(getFieldKeys(method, false));
+        // the loaded fields may flow from the stores in other methods
+        loads.forEach(key -> storers.get(key).forEach(storer -> {
+            if (storer != method) deps.add(storer.getSignature());
+        }));
+        return new Record(getClassHash(method.getDeclaringClass()), getDispatchHash(method),
+                summary, invokeDispatch, edges, List.copyOf(deps),
+                loads, List.copyOf(getFieldKeys(method, true)));
+    }
+
+    /**
+     * @return hash of the CHA targets of the call sites in the method,
+     * and of the invocation handlers if it contains interface calls
+     * (see proxy handling in {@link StmtProcessor}).
+     */
+    private long getDispatchHash(JMethod method) {
+        if (method.isAbstract() || method.isNative()) return 0;
+        long hash = FNV64_OFFSET;
+        boolean hasInterfaceCall = false;
+        for (Stmt stmt : method.getIR()) {
+            if (stmt instanceof Invoke invoke && !invoke.isDynamic()) {
+                hasInterfaceCall |= invoke.isInterface();
+                hash = fnv64(hash, String.valueOf(invoke.getIndex()));
+                for (String callee : toSortedSignatures(CallGraphs.resolveCalleesOf(invoke))) {
+                    hash = fnv64(hash, callee);
+                }
+            }
+        }
+        return hasInterfaceCall ? hash ^ getHandlerHash() : hash;
+    }
+
+    private synchronized long getHandlerHash() {
+        if (handlerHash == 0) {
+            long hash = FNV64_OFFSET;
+            for (String handler : toSortedSignatures(World.get().getInvocationHandlerMethod())) {
+                hash = fnv64(hash, handler);
+            }
+            handlerHash = hash;
+        }
+        return handlerHash;
+    }
+
+    private static Set<String> toSortedSignatures(Set<JMethod> methods) {
+        Set<String> result = new TreeSet<>();
+        methods.forEach(m -> result.add(m.getSignature()));
+        return result;
+    }
+
+    /**
+     * @return hash of the content of the class file, or 0 if the class file
+     * is not found in the class path.
+     */
+    private long getClassHash(JClass jclass) {
+        return getClassHash(jclass.getName());
+    }
+
+    private long getClassHash(String name) {
+        Long hash = getClassHashes().get(name);
+        if (hash != null) return hash;
+        return dirClassHashes.computeIfAbsent(name, n -> {
+            String file = n.replace('.', File.separatorChar) + ".class";
+            for (Path dir : classDirs) {
+                Path classFile = dir.resolve(file);
+                if (Files.isRegularFile(classFile)) {
+                    try (InputStream in = Files.newInputStream(classFile)) {
+                        CRC32 crc = new CRC32();
+                        byte[] bytes = in.readAllBytes();
+                        crc.update(bytes);
+                        return (crc.getValue() << 32) ^ bytes.length;
+                    } catch (IOException e) {
+                        return 0L;
+                    }
+                }
+            }
+            return 0L;
+        });
+    }
+
+    /**
+     * @return class name -> hash of class file in the jars of class path,
+     * which is given by the CRC in the jar entries, so the class files are
+     * not read. Directories in class path are hashed on demand.
+     */
+    private Map<String, Long> getClassHashes() {
+        Map<String, Long> result = classHashes;
+        if (result == null) {
+            synchronized (this) {
+                result = classHashes;
+                if (result == null) {
+                    result = Maps.newMap();
+                    String classPath = AbstractWorldBuilder.getClassPath(World.get().getOptions());
+                    for (String entry : classPath.split(File.pathSeparator)) {
+                        if (entry.isBlank()) continue;
+                        Path p = Path.of(entry);
+                        if (Files.isDirectory(p)) {
+                            classDirs.add(p);
+                        } else if (Files.isRegularFile(p)) {
+                            readJar(p, result);
+                        }
+                    }
+                    classHashes = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void readJar(Path jar, Map<String, Long> hashes) {
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (name.endsWith(".class")) {
+                    String className = name.substring(0, name.length() - 6).replace('/', '.');
+                    // the first class in class path is loaded
+                    hashes.putIfAbsent(className, (entry.getCrc() << 32) ^ entry.getSize());
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read {}: {}", jar, e.getMessage());
+        }
+    }
+
+    private long computeFingerprint(String prioriKnowledge) {
+        long hash = FNV64_OFFSET;
+        if (prioriKnowledge != null) {
+            try {
+                hash = fnv64(hash, Files.readString(Path.of(prioriKnowledge)));
+            } catch (IOException e) {
+                hash = fnv64(hash, prioriKnowledge);
+            }
+        }
+        Options options = World.get().getOptions();
+        hash = fnv64(hash, String.valueOf(options.getJavaVersion()));
+        hash = fnv64(hash, String.valueOf(options.isFilterNonSerializable()));
+        hash = fnv64(hash, String.valueOf(options.getSources()));
+        return hash;
+    }
+
+    private Edge<CSCallSite, CSMethod> toEdge(EdgeRecord e, IR ir) {
+        CSCallSite csCallSite = csManager.getCSCallSite(context, (Invoke) ir.getStmt(e.invoke));
+        CSMethod csCallee = csManager.getCSMethod(context, hierarchy.getMethod(e.callee));
+        List<ContrValue> csContr = null;
+        if (e.contr != null) {
+            csContr = new ArrayList<>(e.contr.length);
+            for (String v : e.contr) csContr.add(ContrValue.of(v));
+        }
+        List<Type> typeList = null;
+        if (e.types != null) {
+            typeList = new ArrayList<>(e.types.length);
+            for (String t : e.types) typeList.add(t == null ? null : typeSystem.getType(t));
+        }
+        Edge<CSCallSite, CSMethod> edge = new Edge<>(CallKind.valueOf(e.kind),
+                csCallSite, csCallee, csContr, e.lineNumber, typeList);
+        edge.setFilterByCaller(e.filterByCaller);
+        for (int i : e.casted) edge.setCasted(i);
+        return edge;
+    }
+
+    private record Record(long classHash, long dispatchHash,
+                          Map<String, String> summary,
+                          Map<String, String> invokeDispatch,
+                          List<EdgeRecord> edges,
+                          List<String> dependencies,
+                          List<String> loads,
+                          List<String> stores) implements Serializable {
+    }
+
+    private record ChainRecord(long coneHash, List<String> chains) implements Serializable {
+    }
+
+    /**
+     * Call edge out of a stored method, where the call site is given by
+     * the index of the invoke in the IR of the method.
+     */
+    private record EdgeRecord(String kind, int invoke, String callee, String[] contr,
+                              Integer lineNumber, String[] types,
+                              String filterByCaller, int[] casted) implements Serializable {
+
+        private static EdgeRecord of(Edge<CSCallSite, CSMethod> edge) {
+            List<ContrValue> csContr = edge.getCSContr();
+            List<Type> typeList = edge.getTypeList();
+            List<Integer> casted = new ArrayList<>();
+            for (int i = 0; i < edge.getCSIntContr().size(); i++) {
+                if (edge.isCasted(i)) casted.add(i);
+            }
+            return new EdgeRecord(edge.getKind().name(),
+                    edge.getCallSite().getCallSite().getIndex(),
+                    CSCallGraph.getCallee(edge).getSignature(),
+                    csContr == null ? null : csContr.stream().map(ContrValue::toString).toArray(String[]::new),
+                    edge.getLineNo(),
+                    typeList == null ? null : typeList.stream()
+                            .map(t -> t == null ? null : t.getName())
+                            .toArray(String[]::new),
+                    edge.getFilterByCaller(),
+                    casted.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.dataflow.analysis.ContrAlloc;
 import pascal.taie.analysis.dataflow.analysis.methodsummary.Contr;
+import pascal.taie.analysis.dataflow.analysis.methodsummary.ContrValue;
 import pascal.taie.analysis.pta.core.cs.context.Context;
 import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
@@ -57,119 +58,72 @@ public class ContrUtil {
         return iNOT_POLLUTED;
     }
 
-    public static List<Integer> string2Int(List<String> values) {
-        List<Integer> ret = new ArrayList<>();
-        values.forEach(value -> ret.add(string2Int(value)));
+    public static List<Integer> string2Int(List<ContrValue> values) {
+        List<Integer> ret = new ArrayList<>(values.size());
+        values.forEach(value -> ret.add(value.code()));
         return ret;
     }
 
-    public static boolean needUpdateInMerge(String oldV, String newV) {
+    public static boolean needUpdateInMerge(ContrValue oldV, ContrValue newV) {
         if (oldV == null) {
-            return !newV.equals(sNOT_POLLUTED);
-        } else if (newV.startsWith("new") && !oldV.contains("new")) {
+            return !newV.isNull();
+        } else if (newV.isNew() && !oldV.containsNew()) {
             return true;
         } else {
-            boolean oldc = isControllable(oldV);
-            boolean newc = isControllable(newV);
+            boolean oldc = oldV.isControllable();
+            boolean newc = newV.isControllable();
             if (!oldc && !newc) {
-                return hasCS(newV);
+                return newV.hasCS();
             } else if (oldc && newc) {
-                return hasCS(newV) && !hasCS(oldV);
+                return newV.hasCS() && !oldV.hasCS();
             } else {
                 return !oldc && newc;
             }
         }
     }
 
-    public static boolean hasCS(String value) {
-        if (value.contains("+")) {
-            int start = 0;
-            for (int i = 0; i < value.length(); i++) {
-                if (value.charAt(i) == '+') {
-                    String part = value.substring(start, i);
-                    if (isConstString(part)) {
-                        return true;
-                    }
-                    start = i + 1;  // 更新起始位置
-                }
-            }
-            String lastPart = value.substring(start);
-            return isConstString(lastPart);
-        } else {
-            return isConstString(value);
-        }
+    public static boolean hasCS(ContrValue value) {
+        return value.hasCS();
     }
 
-    public static String getCS(String value) {
-        if (value.contains("+")) {
-            String ret = "";
-            String[] parts = value.split("\\+");
-            for (String part : parts) {
-                if (isConstString(part)) {
-                    ret = ret + part;
-                }
-            }
-            return ret;
-        } else {
-            return value;
-        }
+    public static String getCS(ContrValue value) {
+        return value.getCS();
     }
 
-    public static boolean needUpdateInAppend(String left, String right) {
-        return isControllable(left) != isControllable(right) || (hasCS(right) && !right.equals(left));
+    public static boolean needUpdateInAppend(ContrValue left, ContrValue right) {
+        return left.isControllable() != right.isControllable() || (right.hasCS() && right != left);
     }
 
     public static boolean isControllable(Contr contr) {
-        return contr != null && isControllable(contr.getValue());
+        return contr != null && contr.getValue().isControllable();
     }
 
-    public static boolean isControllable(String value) {
-        return string2Int(value) >= iPOLLUTED;
+    public static boolean isControllable(ContrValue value) {
+        return value.isControllable();
     }
 
     public static boolean isControllableParam(Contr contr) {
         if (contr == null) return false;
-        else return isControllableParam(contr.getValue());
-    }
-
-    public static boolean isControllableParam(String value) {
-        return string2Int(value) > iTHIS;
+        else return contr.getValue().isControllableParam();
     }
 
-    public static boolean isCallSite(String value) {
-        return string2Int(value) >= iTHIS;
+    public static boolean isControllableParam(ContrValue value) {
+        return value.isControllableParam();
     }
 
-    public static boolean isThis(String value) {
-        return string2Int(value) == iTHIS;
+    public static boolean isCallSite(ContrValue value) {
+        return value.isCallSite();
     }
 
-    private static boolean isConstString(String value) {
-        return !isControllable(value) && !value.equals(sNOT_POLLUTED);
+    public static boolean isThis(ContrValue value) {
+        return value.isThis();
     }
 
-    public static String convert2Reg(String v) {
-        if (v.contains("+")) {
-            StringBuilder ret = new StringBuilder();
-            String[] parts = v.split("\\+");
-            for (String p : parts) {
-                if (isControllable(p) && !ret.toString().endsWith(".*")) {
-                    ret.append(".*");
-                } else {
-                    ret.append(p);
-                }
-            }
-            return ret.toString();
-        } else if (isControllable(v)) {
-            return ".*";
-        } else if (!v.equals(sNOT_POLLUTED)) {
-            return v;
-        } else {
-            return "";
-        }
+    public static String convert2Reg(ContrValue v) {
+        return v.toRegex();
     }
 
-    public static CSObj getObj(Pointer p, String value, HeapModel heapModel, Context context, CSManager csManager) {
+    public static CSObj getObj(Pointer p, ContrValue value, HeapModel heapModel, Context context, CSManager csManager) {
         ContrAlloc alloc = new ContrAlloc(p, value);
         Obj obj = heapModel.getMockObj(Descriptor.CONTR_DESC, alloc, p.getType());
         return csManager.getCSObj(context, obj);
@@ -192,21 +146,7 @@ public class ContrUtil {
         return !values.contains(iNOT_POLLUTED);
     }
 
-    public static String replaceContr(String old, String contr) {
-        if (hasCS(old)) {
-            String[] parts = old.split("\\+");
-            String replace = parts[0];
-            String left = replace;
-            for (int i = 1; i < parts.length; i++) {
-                String right = parts[i];
-                if (needUpdateInAppend(left, right)) {
-                    replace += "+" + (isControllable(right) ? contr : right);
-                    left = right;
-                }
-            }
-            return replace;
-        } else {
-            return contr;
-        }
+    public static ContrValue replaceContr(ContrValue old, ContrValue contr) {
+        return old.replaceContr(contr);
     }
 }
@@ -0,0 +1,232 @@
+package pascal.taie.analysis.dataflow.analysis.methodsummary.plugin;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Writes gadget chains to the output as soon as they are found.
+ * A chain is given in the text form of {@link GCCollector}, i.e., a line
+ * {@code caller->[taint vector]} per call edge followed by the sink.
+ */
+abstract class ChainWriter {
+
+    private static final Logger logger = LogManager.getLogger(ChainWriter.class);
+
+    /**
+     * (source, sink) pairs of the written chains, or null if
+     * all chains are written.
+     */
+    private final Set<String> sourceSinks;
+
+    private int written = 0;
+
+    private ChainWriter(boolean uniqueSourceSink) {
+        this.sourceSinks = uniqueSourceSink ? Sets.newSet() : null;
+    }
+
+    /**
+     * @param format           {@code text} for the plain text, or
+     *                         {@code jsonl} for a JSON object per line with
+     *                         a sidecar index.
+     * @param uniqueSourceSink if true, only the first chain of each
+     *                         (source, sink) pair is written.
+     */
+    static ChainWriter of(String output, String format, boolean uniqueSourceSink) {
+        try {
+            return switch (format) {
+                case "text" -> new Text(output, uniqueSourceSink);
+                case "jsonl" -> new JsonLines(output, uniqueSourceSink);
+                default -> throw new IllegalArgumentException(
+                        "Unknown format of gadget chains: " + format);
+            };
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Writes a chain unless a chain of the same (source, sink) pair is
+     * written when the pairs are unique.
+     *
+     * @return true if the chain is written.
+     */
+    synchronized boolean write(String gcText) {
+        List<String> lines = gcText.lines().toList();
+        if (sourceSinks != null && !sourceSinks.add(getMethod(lines.get(0)) + lines.get(lines.size() - 1))) {
+            return false;
+        }
+        try {
+            doWrite(gcText, lines);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        ++written;
+        return true;
+    }
+
+    /**
+     * @return number of the written chains.
+     */
+    synchronized int getWritten() {
+        return written;
+    }
+
+    /**
+     * Finishes the output, after which no chain is written.
+     */
+    synchronized void close(int total) {
+        try {
+            doClose(total);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    abstract void doWrite(String gcText, List<String> lines) throws IOException;
+
+    abstract void doClose(int total) throws IOException;
+
+    /**
+     * @return the method of given line of a chain.
+     */
+    private static String getMethod(String line) {
+        int i = line.indexOf("->");
+        return i == -1 ? line : line.substring(0, i);
+    }
+
+    /**
+     * @return the package of a method signature like {@code <p.C: void m()>}.
+     */
+    private static String getPackage(String method) {
+        int end = method.indexOf(':');
+        String className = method.substring(method.startsWith("<") ? 1 : 0, end == -1 ? method.length() : end);
+        int i = className.lastIndexOf('.');
+        return i == -1 ? "" : className.substring(0, i);
+    }
+
+    /**
+     * The original text output, in which the chains are split by empty lines.
+     */
+    private static class Text extends ChainWriter {
+
+        private final PrintWriter pw;
+
+        private Text(String output, boolean uniqueSourceSink) throws IOException {
+            super(uniqueSourceSink);
+            this.pw = new PrintWriter(new BufferedWriter(new FileWriter(output)));
+        }
+
+        @Override
+        void doWrite(String gcText, List<String> lines) {
+            lines.forEach(logger::info);
+            logger.info("");
+            pw.println(gcText);
+            pw.flush();
+        }
+
+        @Override
+        void doClose(int total) {
+            pw.println("total gadget chains : " + total);
+            pw.close();
+        }
+    }
+
+    /**
+     * Writes a JSON object per chain, e.g.,
+     * <pre>
+     * {"source":"&lt;A: void readObject(..)&gt;","sink":"&lt;B: ..&gt;",
+     *  "methods":["&lt;A: ..&gt;",..,"&lt;B: ..&gt;"],"contrs":["[0]",..]}
+     * </pre>
+     * and an index {@code <output>.idx.json} when finished, which contains
+     * the byte offset of each chain, and the chains of each source, sink
+     * and package, so that the chains can be filtered without parsing
+     * the whole output.
+     */
+    private static class JsonLines extends ChainWriter {
+
+        private final ObjectMapper mapper = new ObjectMapper();
+
+        private final File indexFile;
+
+        private final OutputStream out;
+
+        private long offset = 0;
+
+        private final List<Long> offsets = new ArrayList<>();
+
+        private final Map<String, List<Integer>> sources = new TreeMap<>();
+
+        private final Map<String, List<Integer>> sinks = new TreeMap<>();
+
+        private final Map<String, List<Integer>> packages = new TreeMap<>();
+
+        private JsonLines(String output, boolean uniqueSourceSink) throws IOException {
+            super(uniqueSourceSink);
+            this.out = new BufferedOutputStream(new FileOutputStream(output));
+            this.indexFile = new File(output + ".idx.json");
+        }
+
+        @Override
+        void doWrite(String gcText, List<String> lines) throws IOException {
+            List<String> methods = new ArrayList<>(lines.size());
+            List<String> contrs = new ArrayList<>(lines.size() - 1);
+            for (int i = 0; i < lines.size() - 1; ++i) {
+                String line = lines.get(i);
+                String method = getMethod(line);
+                methods.add(method);
+                contrs.add(line.substring(Math.min(line.length(), method.length() + 2)));
+            }
+            methods.add(lines.get(lines.size() - 1));
+            String source = methods.get(0);
+            String sink = methods.get(methods.size() - 1);
+            Map<String, Object> chain = Maps.newLinkedHashMap();
+            chain.put("source", source);
+            chain.put("sink", sink);
+            chain.put("methods", methods);
+            chain.put("contrs", contrs);
+            byte[] bytes = (mapper.writeValueAsString(chain) + "\n").getBytes(StandardCharsets.UTF_8);
+            int id = offsets.size();
+            offsets.add(offset);
+            out.write(bytes);
+            out.flush();
+            offset += bytes.length;
+            sources.computeIfAbsent(source, __ -> new ArrayList<>()).add(id);
+            sinks.computeIfAbsent(sink, __ -> new ArrayList<>()).add(id);
+            Set<String> chainPackages = Sets.newHybridSet();
+            methods.forEach(m -> chainPackages.add(getPackage(m)));
+            chainPackages.forEach(p -> packages.computeIfAbsent(p, __ -> new ArrayList<>()).add(id));
+        }
+
+        @Override
+        void doClose(int total) throws IOException {
+            out.close();
+            Map<String, Object> index = Maps.newLinkedHashMap();
+            index.put("total", total);
+            index.put("written", offsets.size());
+            index.put("offsets", offsets);
+            index.put("sources", sources);
+            index.put("sinks", sinks);
+            index.put("packages", packages);
+            mapper.writeValue(indexFile, index);
+            logger.info("gadget chains are indexed in {}", indexFile);
+        }
+    }
+}
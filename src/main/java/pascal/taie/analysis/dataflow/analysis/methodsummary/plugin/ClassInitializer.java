@@ -3,8 +3,8 @@ package pascal.taie.analysis.dataflow.analysis.methodsummary.plugin;
 import pascal.taie.analysis.AnalysisManager;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Sets;
 
-import java.util.HashSet;
 import java.util.Set;
 
 public class ClassInitializer implements Plugin {
@@ -17,9 +17,10 @@ public class ClassInitializer implements Plugin {
 
     @Override
     public void onStart() {
-        noDeserClz = new HashSet<>();
-        initClz = new HashSet<>();
-        deserClz = new HashSet<>();
+        // classes may be initialized by several threads building summaries
+        noDeserClz = Sets.newConcurrentSet();
+        initClz = Sets.newConcurrentSet();
+        deserClz = Sets.newConcurrentSet();
     }
 
     @Override
@@ -31,7 +32,12 @@ public class ClassInitializer implements Plugin {
     }
 
     public void initializeClass(JClass cls) {
-        if (cls == null || cls.isIgnored() || initClz.contains(cls)) {
+        if (cls == null || cls.isIgnored()) {
+            return;
+        }
+        if (initClz.contains(cls)) {
+            // waits for the initializer if it is analyzed by another thread
+            AnalysisManager.runMethodAnalysis(cls.getClinit());
             return;
         }
         JClass superclass = cls.getSuperClass();
@@ -52,7 +58,14 @@ public class ClassInitializer implements Plugin {
     }
 
     private void initializeReadObject(JClass cls) {
-        if (cls == null || !cls.isSerializable() || noDeserClz.contains(cls) || deserClz.contains(cls)) {
+        if (cls == null || !cls.isSerializable() || noDeserClz.contains(cls)) {
+            return;
+        }
+        if (deserClz.contains(cls)) {
+            // waits for the deserialization methods if they are analyzed by another thread
+            for (JMethod readObject : cls.getDeclaredMethods()) {
+                if (readObject.isSource()) AnalysisManager.runMethodAnalysis(readObject);
+            }
             return;
         }
         JClass superclass = cls.getSuperClass();
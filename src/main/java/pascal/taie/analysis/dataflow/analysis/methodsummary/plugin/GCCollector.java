@@ -3,21 +3,31 @@ package pascal.taie.analysis.dataflow.analysis.methodsummary.plugin;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.methodsummary.ContrValue;
+import pascal.taie.analysis.dataflow.analysis.methodsummary.SummaryStore;
 import pascal.taie.analysis.dataflow.analysis.methodsummary.Utils.ContrUtil;
 import pascal.taie.analysis.graph.callgraph.CallKind;
 import pascal.taie.analysis.graph.callgraph.Edge;
 import pascal.taie.analysis.pta.core.cs.CSCallGraph;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.config.Options;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
 import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.Hashes;
 import pascal.taie.util.Strings;
 import pascal.taie.util.collection.Lists;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
 
-import java.io.*;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public class GCCollector implements Plugin {
@@ -34,102 +44,422 @@ public class GCCollector implements Plugin {
 
     public static final int MAX_TIME_PER_SINK = World.get().getOptions().getMAX_PER_SINK() * 1000;
 
-    private Set<List<Edge>> GCs;
-
-    private PrintWriter pw;
-
-    public GCCollector(CSCallGraph csCallGraph, String db_path) {
+    public static final int MAX_PATHS_PER_SINK = World.get().getOptions().getGC_MAX_PATHS_PER_SINK();
+
+    private final int threads;
+
+    /**
+     * Hashes of the emitted chains (see {@link #hashGC(List)}), which are
+     * kept instead of the chains, as a run may find millions of them.
+     */
+    private final Set<Long> GCs;
+
+    private final ChainWriter writer;
+
+    private static final int REACHED = 1;
+
+    private static final int CUT = 2;
+
+    /**
+     * Results of {@link #filterByCaller(Edge, Edge, int)} when the filter
+     * is decided by a caller.
+     */
+    private static final int FILTERED = -1;
+
+    private static final int PASSED = -2;
+
+    /**
+     * Callers (with their taint vectors) from which no source can be reached
+     * -> the max number of edges searched. Shared by the searches of all sinks.
+     */
+    private final Map<DeadState, Integer> deadStates = Maps.newConcurrentMap();
+
+    /**
+     * Number of the edges added to the call graph during the search.
+     * A dead state is not recorded if an edge is added while it is
+     * searched, as the edge may not see it to invalidate it.
+     */
+    private final AtomicInteger graphVersion = new AtomicInteger();
+
+    /**
+     * Store of the gadget chains found by the last run, or null if
+     * the chains are always searched.
+     */
+    private final SummaryStore store;
+
+    private int reusedGCs = 0;
+
+    private int emittedGCs = 0;
+
+    /**
+     * Keywords of which a chain must contain at least one in the signature
+     * of any of its methods, or empty if the chains are not filtered.
+     */
+    private final List<String> keywords;
+
+    /**
+     * Methods reachable from the methods matching {@link #keywords} in the
+     * call graph. Searching backwards, a path without keywords can only
+     * obtain one from the callers of the methods in this set.
+     */
+    private Set<JMethod> keywordReachable = Set.of();
+
+    /**
+     * Methods reachable from the callees of the edges of imitated or
+     * invocation handler methods, which end the type checks of a chain.
+     * Searching backwards, a path whose types mismatch can only be
+     * accepted by the callers of the methods in this set.
+     */
+    private Set<JMethod> specialReachable = Set.of();
+
+    /**
+     * Signatures of the sinks to search, or empty if all sinks are searched.
+     */
+    private final Set<String> sinkFilter;
+
+    /**
+     * Whether only the first chain of each (source, sink) pair is output.
+     */
+    private final boolean uniqueSourceSink;
+
+    public GCCollector(CSCallGraph csCallGraph, String db_path, int threads, SummaryStore store) {
         super();
         this.csCallGraph = csCallGraph;
+        this.store = store;
         this.typeSystem = World.get().getTypeSystem();
         this.output = db_path;
-        this.GCs = new HashSet<>();
-        try {
-            this.pw = new PrintWriter(new BufferedWriter(new FileWriter(output)));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        this.threads = threads;
+        this.GCs = Sets.newConcurrentSet();
+        Options options = World.get().getOptions();
+        this.writer = ChainWriter.of(output, options.getGC_FORMAT(), options.isGC_UNIQUE_SOURCE_SINK());
+        this.keywords = options.getGC_KEYWORDS();
+        this.sinkFilter = Set.copyOf(options.getGC_SINKS());
+        this.uniqueSourceSink = options.isGC_UNIQUE_SOURCE_SINK();
     }
 
     @Override
     public void onFinish() {
         Set<JMethod> sinks = World.get().getSinks();
-        for (JMethod sink : sinks) {
-            long startTime = System.currentTimeMillis();
-            logger.info("start from {}", sink.toString());
-            Set<List<Edge>> init_gcs = getCandidateGCs(sink, startTime); // 初始路径
-            verifyAndSimplyGCs(init_gcs); // 验证
+        if (!sinkFilter.isEmpty()) {
+            sinks = sinks.stream()
+                    .filter(sink -> sinkFilter.contains(sink.getSignature()))
+                    .collect(Collectors.toSet());
+        }
+        if (!keywords.isEmpty()) keywordReachable = getKeywordReachable();
+        specialReachable = getReachable(csCallGraph.edges()
+                .filter(GCCollector::endsTypeCheck)
+                .map(CSCallGraph::getCallee)
+                .toList());
+        // cones are hashed before the search, which adds edges when simplifying chains
+        Map<JMethod, Long> coneHashes = Maps.newMap();
+        if (store != null) sinks.forEach(sink -> coneHashes.put(sink, getConeHash(sink)));
+        ExecutorService pool = Executors.newWorkStealingPool(threads);
+        try {
+            List<Future<SinkStats>> results = new ArrayList<>();
+            for (JMethod sink : sinks) {
+                List<String> stored = store != null ? store.getChains(sink, coneHashes.get(sink)) : null;
+                if (stored != null) {
+                    logger.info("reuse {} gadget chains of {}, whose callers are unchanged", stored.size(), sink);
+                    stored.forEach(writer::write);
+                    reusedGCs += stored.size();
+                } else {
+                    results.add(pool.submit(() -> searchFrom(sink)));
+                }
+            }
+            for (Future<SinkStats> result : results) {
+                SinkStats stats = result.get();
+                logger.info(stats);
+                emittedGCs += stats.emitted;
+                if (store != null) store.putChains(stats.sink, coneHashes.get(stats.sink), stats.chains);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // the chains written so far are incomplete, thus not indexed
+            throw new AnalysisException("Interrupted when collecting gadget chains", e);
+        } catch (ExecutionException e) {
+            throw new AnalysisException("Failed to collect gadget chains", e.getCause());
+        } finally {
+            pool.shutdownNow();
         }
-        logger.info("total gadget chains : {}", GCs.size());
-        pw.println("total gadget chains : " +  GCs.size());
-        pw.flush();
+        int total = emittedGCs + reusedGCs;
+        logger.info("total gadget chains : {}, written : {}", total, writer.getWritten());
+        writer.close(total);
     }
 
-    private Set<List<Edge>> getCandidateGCs(JMethod sink, long startTime) {
-        Set<List<Edge>> result = new HashSet<>();
+    /**
+     * Searches the gadget chains to the sink backwards, and verifies
+     * and writes each chain as soon as it reaches a source.
+     * The search of a sink stops when it runs out of its time or path budget.
+     */
+    SinkStats searchFrom(JMethod sink) {
+        logger.info("start from {}", sink.toString());
+        long deadline = MAX_TIME_PER_SINK > 0
+                ? System.currentTimeMillis() + MAX_TIME_PER_SINK
+                : Long.MAX_VALUE;
+        SinkStats stats = new SinkStats(sink, deadline);
         List<Edge> current = new ArrayList<>();
         Set<JMethod> visited = new HashSet<>();
-
+        List<Integer> tcList = Arrays.stream(sink.getSink()).boxed().collect(Collectors.toList());
+        boolean matched = matchesKeywords(sink);
+        PathCheck check = new PathCheck();
         csCallGraph.edgesInTo(sink).forEach(edge -> {
-            backDFS(sink, edge, current, result, visited, Arrays.stream(sink.getSink()).boxed().collect(Collectors.toList()), startTime);
+            backDFS(sink, edge, current, visited, tcList, matched, check, stats);
         });
-        return result;
+        stats.elapsed = System.currentTimeMillis() - stats.start;
+        return stats;
     }
 
-    private void backDFS(JMethod callee, Edge curEdge, List<Edge> curGC, Set<List<Edge>> result, Set<JMethod> visited, List<Integer> TCList, long startTime) {
-//        if (System.currentTimeMillis() - startTime > MAX_TIME_PER_SINK) return;
-        if (!visited.add(callee)) return;
+    /**
+     * Searches the callers of the edge backwards.
+     *
+     * @param matched whether the path contains a method matching the keywords.
+     * @param check   the checks of the path evaluated so far.
+     * @return {@link #REACHED} if some path reaches a source, and
+     * {@link #CUT} if the search is cut by the current path or the budget,
+     * i.e., its result cannot be reused by other paths.
+     */
+    private int backDFS(JMethod callee, Edge curEdge, List<Edge> curGC, Set<JMethod> visited, List<Integer> TCList, boolean matched, PathCheck check, SinkStats stats) {
+        if (stats.isExhausted()) return CUT;
+        if (!visited.add(callee)) return CUT;
         JMethod caller = CSCallGraph.getCaller(curEdge);
         List<Integer> newTCList = getNewTCList(TCList, curEdge.getCSIntContr());
-        if (!ContrUtil.allControllable(newTCList)) return;
+        if (!ContrUtil.allControllable(newTCList)) {
+            stats.pruned++;
+            visited.remove(callee);
+            return 0;
+        }
+        boolean newMatched = matched || matchesKeywords(caller);
+        if (!newMatched && !keywordReachable.contains(caller)) {
+            // neither the caller nor its callers match the keywords
+            stats.pruned++;
+            visited.remove(callee);
+            return 0;
+        }
+        PathCheck newCheck = check.push(curEdge);
+        if (newCheck.isRejected(caller)) {
+            // all paths extended from here are rejected by verifyAndSimplyGC,
+            // which depends on the path, thus the result is not reusable
+            stats.pruned++;
+            visited.remove(callee);
+            return CUT;
+        }
 
+        int result = 0;
         curGC.add(curEdge);
         if (caller.isSource()) {
-            result.add(new ArrayList<>(curGC));
+            if (uniqueSourceSink && stats.sources.contains(caller)) {
+                // a chain from the source to the sink is already emitted
+                stats.pruned++;
+            } else {
+                stats.explored++;
+                verifyAndSimplyGC(new ArrayList<>(curGC), stats);
+            }
+            result = REACHED;
         } else if (curGC.size() == MAX_LEN) {
-            visited.remove(callee);
-            curGC.remove(curGC.size() - 1);
-            return;
+            stats.pruned++;
         } else {
-            csCallGraph.edgesInTo(caller).forEach(edge -> {
-                backDFS(caller, edge, curGC, result, visited, newTCList, startTime);
-            });
+            int depth = MAX_LEN - curGC.size();
+            int version = graphVersion.get();
+            DeadState state = new DeadState(caller, newTCList, newMatched);
+            Integer deadDepth = deadStates.get(state);
+            if (deadDepth != null && deadDepth >= depth) {
+                stats.reused++;
+            } else {
+                for (Edge edge : csCallGraph.edgesInTo(caller).toList()) {
+                    result |= backDFS(caller, edge, curGC, visited, newTCList, newMatched, newCheck, stats);
+                }
+                if (result == 0 && version == graphVersion.get()) {
+                    deadStates.merge(state, depth, Math::max);
+                    if (version != graphVersion.get()) {
+                        // an edge added meanwhile may have missed the state
+                        deadStates.remove(state);
+                    }
+                }
+            }
         }
 
         visited.remove(callee);
         curGC.remove(curGC.size() - 1);
+        return result;
     }
 
-    private void verifyAndSimplyGCs(Set<List<Edge>> edgeLists) {
-        for (List<Edge> edgeList : edgeLists) {
-            if (!filterEdge(edgeList) && typeCheck(edgeList)) {
-                List<Edge> gc = simplyGC(edgeList);
-                if (GCs.add(gc)) logAndWrite(gc);
+    private void verifyAndSimplyGC(List<Edge> edgeList, SinkStats stats) {
+        if (!isRejected(edgeList)) {
+            List<Edge> gc = simplyGC(edgeList);
+            if (!keywords.isEmpty() && !matchesKeywords(gc)) {
+                // the methods matching the keywords are simplified
+                stats.rejected++;
+            } else if (GCs.add(hashGC(gc))) {
+                stats.emitted++;
+                // the chain runs from the source
+                stats.sources.add(CSCallGraph.getCaller(gc.get(0)));
+                String text = toText(gc);
+                if (store != null) stats.chains.add(text);
+                writer.write(text);
             }
+        } else {
+            stats.rejected++;
         }
     }
 
-    private void logAndWrite(List<Edge> gcEdgeList){
-        try {
-            int gcSize = gcEdgeList.size();
-            for (int i = 0; i < gcSize; i++) {
-                Edge edge = gcEdgeList.get(i);
-                String caller = CSCallGraph.getCaller(edge).toString();
-                StringBuilder line = new StringBuilder(caller);
-                line.append("->").append(edge.getCSIntContr());
-                String writeLine = line.toString();
-                logger.info(writeLine);
-                pw.println(writeLine);
+    /**
+     * @param edgeList the edges of a complete chain, from the sink.
+     * @return true if the chain is rejected by the caller filters
+     * or the type checks.
+     */
+    boolean isRejected(List<Edge> edgeList) {
+        return filterEdge(edgeList) || !typeCheck(edgeList);
+    }
+
+    /**
+     * Pushes given edges, from the sink, to a {@link PathCheck}.
+     *
+     * @param typesFinal whether no edge which ends the type checks
+     *                   is pushed after the edges.
+     * @return true if the check rejects the path whatever edges are
+     * pushed later.
+     */
+    boolean isRejectedByPathCheck(List<Edge> edgeList, boolean typesFinal) {
+        PathCheck check = new PathCheck();
+        for (Edge edge : edgeList) {
+            check = check.push(edge);
+        }
+        return check.filterIdx == FILTERED || (typesFinal && check.typeMismatched);
+    }
+
+    /**
+     * @return true if there are no keywords, or the signature
+     * of the method contains any of them.
+     */
+    private boolean matchesKeywords(JMethod method) {
+        if (keywords.isEmpty()) return true;
+        String signature = method.getSignature();
+        for (String keyword : keywords) {
+            if (signature.contains(keyword)) return true;
+        }
+        return false;
+    }
+
+    private boolean matchesKeywords(List<Edge> gc) {
+        if (matchesKeywords(CSCallGraph.getCallee(gc.get(gc.size() - 1)))) return true;
+        for (Edge edge : gc) {
+            if (matchesKeywords(CSCallGraph.getCaller(edge))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the methods reachable from the methods matching the keywords.
+     */
+    private Set<JMethod> getKeywordReachable() {
+        Set<JMethod> methods = Sets.newSet();
+        csCallGraph.edges().forEach(edge -> {
+            methods.add(CSCallGraph.getCaller(edge));
+            methods.add(CSCallGraph.getCallee(edge));
+        });
+        return getReachable(methods.stream().filter(this::matchesKeywords).toList());
+    }
+
+    /**
+     * @return the methods reachable from given methods in the call graph.
+     * The edges added when simplifying chains only shortcut the existing
+     * paths, so the result holds during the search.
+     */
+    private Set<JMethod> getReachable(Collection<JMethod> from) {
+        Map<JMethod, List<JMethod>> callees = Maps.newMap();
+        csCallGraph.edges().forEach(edge -> callees
+                .computeIfAbsent(CSCallGraph.getCaller(edge), __ -> new ArrayList<>())
+                .add(CSCallGraph.getCallee(edge)));
+        Set<JMethod> reachable = Sets.newSet();
+        Deque<JMethod> workList = new ArrayDeque<>();
+        for (JMethod method : from) {
+            if (reachable.add(method)) workList.add(method);
+        }
+        while (!workList.isEmpty()) {
+            for (JMethod callee : callees.getOrDefault(workList.poll(), List.of())) {
+                if (reachable.add(callee)) workList.add(callee);
+            }
+        }
+        return reachable;
+    }
+
+    /**
+     * @return a 64-bit hash of the edges of the chain, by which the chains
+     * found from different sinks and paths are deduplicated.
+     */
+    private static long hashGC(List<Edge> gc) {
+        long hash = Hashes.FNV64_OFFSET;
+        for (Edge edge : gc) {
+            hash = Hashes.fnv64(hash, toKey(edge));
+        }
+        return hash;
+    }
+
+    private String toText(List<Edge> gcEdgeList) {
+        StringBuilder text = new StringBuilder();
+        for (Edge edge : gcEdgeList) {
+            text.append(CSCallGraph.getCaller(edge)).append("->").append(edge.getCSIntContr()).append('\n');
+        }
+        text.append(CSCallGraph.getCallee(gcEdgeList.get(gcEdgeList.size() - 1))).append('\n');
+        return text.toString();
+    }
+
+    /**
+     * @return hash of the call edges which may be in the gadget chains to
+     * the sink, i.e., the edges into the methods reaching the sink within
+     * {@link #MAX_LEN} calls (if it is positive), and of the options of
+     * the search.
+     * The chains found by the last run are reused if this hash is unchanged.
+     */
+    private long getConeHash(JMethod sink) {
+        long hash = Hashes.FNV64_OFFSET;
+        hash = Hashes.fnv64(hash, MAX_LEN);
+        hash = Hashes.fnv64(hash, MAX_TIME_PER_SINK);
+        hash = Hashes.fnv64(hash, MAX_PATHS_PER_SINK);
+        hash = Hashes.fnv64(hash, Arrays.toString(sink.getSink()));
+        hash = Hashes.fnv64(hash, keywords.toString());
+        hash = Hashes.fnv64(hash, String.valueOf(uniqueSourceSink));
+        List<String> edges = new ArrayList<>();
+        Map<JMethod, Integer> depths = Maps.newMap();
+        Deque<JMethod> queue = new ArrayDeque<>();
+        depths.put(sink, 0);
+        queue.add(sink);
+        while (!queue.isEmpty()) {
+            JMethod callee = queue.poll();
+            int depth = depths.get(callee);
+            if (MAX_LEN > 0 && depth == MAX_LEN) continue;
+            for (Edge edge : csCallGraph.edgesInTo(callee).toList()) {
+                JMethod caller = CSCallGraph.getCaller(edge);
+                edges.add(toKey(edge));
+                if (!caller.isSource() && !depths.containsKey(caller)) {
+                    depths.put(caller, depth + 1);
+                    queue.add(caller);
+                }
             }
-            String sink = CSCallGraph.getCallee(gcEdgeList.get(gcSize - 1)).toString();
-            logger.info(sink);
-            pw.println(sink);
-            logger.info("");
-            pw.println("");
-            pw.flush();
-        } catch (Exception e) {
-            logger.info(e);
         }
+        Collections.sort(edges);
+        for (String edge : edges) {
+            hash = Hashes.fnv64(hash, edge);
+        }
+        return hash;
+    }
+
+    private static String toKey(Edge edge) {
+        CSCallSite csCallSite = (CSCallSite) edge.getCallSite();
+        JMethod caller = CSCallGraph.getCaller(edge);
+        StringBuilder key = new StringBuilder(caller.getSignature())
+                .append(caller.isSource() ? "[source]" : "")
+                .append('@').append(csCallSite.getCallSite().getIndex())
+                .append('/').append(edge.getLineNo())
+                .append(edge.getKind())
+                .append("->").append(CSCallGraph.getCallee(edge).getSignature())
+                .append(edge.getCSContr())
+                .append(edge.getTypeList())
+                .append(edge.getFilterByCaller());
+        for (int i = 0; i < edge.getCSIntContr().size(); i++) {
+            if (edge.isCasted(i)) key.append('#').append(i);
+        }
+        return key.toString();
     }
 
     private boolean filterEdge(List<Edge> edgeList) {
@@ -169,7 +499,7 @@ public class GCCollector implements Plugin {
                             CSCallSite csCallSite = (CSCallSite) fromEdge.getCallSite();
                             CSMethod csCallee = csCallGraph.getCSMethod(gadget);
                             Edge replaceEdge = new Edge<>(fromEdge.getKind(), csCallSite, csCallee, fromEdge.getCSContr(), fromEdge.getLineNo(), fromEdge.getTypeList());
-                            csCallGraph.addEdge(replaceEdge);
+                            addSimplifiedEdge(replaceEdge);
                             simplyGC.add(replaceEdge);
                         }
                     }
@@ -181,6 +511,48 @@ public class GCCollector implements Plugin {
         return simplyGC;
     }
 
+    /**
+     * Adds an edge which shortcuts a simplified chain to the call graph,
+     * and invalidates the dead states it may revive, i.e., the states of
+     * the methods reachable from its callee.
+     *
+     * @return true if the edge is new.
+     */
+    boolean addSimplifiedEdge(Edge edge) {
+        if (!csCallGraph.addEdge(edge)) return false;
+        graphVersion.incrementAndGet();
+        Set<JMethod> cone = getCalleeCone(CSCallGraph.getCallee(edge));
+        deadStates.keySet().removeIf(state -> cone.contains(state.method()));
+        return true;
+    }
+
+    /**
+     * @return the methods reachable from given method within
+     * {@link #MAX_LEN} calls (if it is positive), from which a backward
+     * search may reach it.
+     */
+    private Set<JMethod> getCalleeCone(JMethod method) {
+        Map<JMethod, Integer> depths = Maps.newMap();
+        Deque<JMethod> queue = new ArrayDeque<>();
+        depths.put(method, 0);
+        queue.add(method);
+        while (!queue.isEmpty()) {
+            JMethod caller = queue.poll();
+            int depth = depths.get(caller);
+            if (MAX_LEN > 0 && depth == MAX_LEN) continue;
+            csCallGraph.callSitesIn(csCallGraph.getCSMethod(caller))
+                    .flatMap(csCallGraph::edgesOutOf)
+                    .map(CSCallGraph::getCallee)
+                    .forEach(callee -> {
+                        if (!depths.containsKey(callee)) {
+                            depths.put(callee, depth + 1);
+                            queue.add(callee);
+                        }
+                    });
+        }
+        return depths.keySet();
+    }
+
     private List<Integer> getNewTCList(List<Integer> tcList, List<Integer> csIntContr) {
         List<Integer> tempTC = new ArrayList<>();
         for (int i = 0; i < tcList.size(); i++) {
@@ -209,59 +581,79 @@ public class GCCollector implements Plugin {
     }
 
     private boolean filterByCaller(Edge edge, List<Edge> callers) { // filter invoke
+        if (callers.isEmpty() && edge.getFilterByCaller().contains("name")) {
+            return true;
+        }
+        int idx = getFilterIndex(edge);
+        for (Edge caller : callers) {
+            idx = filterByCaller(edge, caller, idx);
+            if (idx == FILTERED) return true;
+            if (idx == PASSED) return false;
+        }
+        return false;
+    }
+
+    /**
+     * @return the index of the argument checked by the first caller
+     * of the edge to be filtered by callers.
+     */
+    private static int getFilterIndex(Edge edge) {
+        String value = edge.getFilterByCaller().split(":")[1];
+        if (edge.getFilterByCaller().contains("name")) {
+            return Strings.extractParamIndex(value.split("#")[1]) + 1;
+        } else {
+            return Strings.extractParamIndex(value) + 1;
+        }
+    }
+
+    /**
+     * Checks a caller of the edge to be filtered by callers.
+     *
+     * @param idx the index of the argument checked by the caller.
+     * @return {@link #FILTERED} or {@link #PASSED} if the filter is decided
+     * by the caller, otherwise the index of the argument checked by the
+     * next caller.
+     */
+    private static int filterByCaller(Edge edge, Edge caller, int idx) {
         String filter = edge.getFilterByCaller();
-        String value = filter.split(":")[1];
+        ContrValue edgeValue = (ContrValue) caller.getCSContr().get(idx);
         if (filter.contains("name")) {
-            if (callers.size() == 0) {
-                return true;
-            } else {
-                String name = value.split("#")[0];
-                int idx = Strings.extractParamIndex(value.split("#")[1]) + 1;
-                for (int i = 0; i < callers.size(); i++) {
-                    Edge caller = callers.get(i);
-                    String edgeValue = (String) caller.getCSContr().get(idx);
-                    if (ContrUtil.isControllableParam(edgeValue)) {
-                        idx = Strings.extractParamIndex(edgeValue) + 1;
-                    } else if (!ContrUtil.isControllable(edgeValue)) {
-                        String invokeTarget = ((CSCallSite) caller.getCallSite()).getCallSite().getInvokeExp().getMethodRef().getName();
-                        return !invokeTarget.equals(name);
-                    }
-                }
+            if (ContrUtil.isControllableParam(edgeValue)) {
+                return edgeValue.code() + 1;
+            } else if (!ContrUtil.isControllable(edgeValue)) {
+                String name = filter.split(":")[1].split("#")[0];
+                String invokeTarget = ((CSCallSite) caller.getCallSite()).getCallSite().getInvokeExp().getMethodRef().getName();
+                return invokeTarget.equals(name) ? PASSED : FILTERED;
             }
+            return idx;
         } else {
-            int idx = Strings.extractParamIndex(value) + 1;
-            for (int i = 0; i < callers.size(); i++) {
-                Edge caller = callers.get(i);
-                String edgeValue = (String) caller.getCSContr().get(idx);
-                if (ContrUtil.hasCS(edgeValue) || ContrUtil.isThis(edgeValue)) {
-                    String nameReg = ContrUtil.convert2Reg(edgeValue);
-                    boolean hasStar = nameReg.contains("*");
-                    Pattern pattern = Pattern.compile(nameReg);
-                    String callee = CSCallGraph.getCallee(edge).getName();
-                    boolean match = hasStar ? pattern.matcher(callee).find() : callee.equals(nameReg);
-                    if (!match) return true;
-                    break;
-                } else if (ContrUtil.isControllableParam(edgeValue)) {
-                    idx = Strings.extractParamIndex(edgeValue) + 1;
-                } else {
-                    return true;
-                }
+            if (ContrUtil.hasCS(edgeValue) || ContrUtil.isThis(edgeValue)) {
+                String nameReg = ContrUtil.convert2Reg(edgeValue);
+                boolean hasStar = nameReg.contains("*");
+                String callee = CSCallGraph.getCallee(edge).getName();
+                boolean match = hasStar ? edgeValue.toPattern().matcher(callee).find() : callee.equals(nameReg);
+                return match ? PASSED : FILTERED;
+            } else if (ContrUtil.isControllableParam(edgeValue)) {
+                return edgeValue.code() + 1;
+            } else {
+                return FILTERED;
             }
         }
-        return false;
     }
 
+    /**
+     * Checks the types passed along the chain from the source,
+     * i.e., from the end of the edge list.
+     */
     private boolean typeCheck(List<Edge> edgeList) {
-        List<Edge> gcEdgeList = new ArrayList<>(edgeList);
-        Collections.reverse(gcEdgeList);
-
         List<Type> passType = null;
-        for (int i = 0; i < gcEdgeList.size(); i++) {
-            Edge edge = gcEdgeList.get(i);
-            JMethod invokeRef = CSCallGraph.getInvokeRef(edge);
+        for (int i = edgeList.size() - 1; i >= 0; i--) {
+            Edge edge = edgeList.get(i);
+            if (endsTypeCheck(edge)) {
+                return CSCallGraph.getInvokeRef(edge).hasImitatedBehavior()
+                        || filterCast(edgeList, i);
+            }
             JMethod callee = CSCallGraph.getCallee(edge);
-            if (invokeRef.hasImitatedBehavior()) return true;
-            if (callee.isInvoke()) return filterCast(gcEdgeList, i + 1);
             List<Type> paramsType = getParamsType(callee);
             List<Integer> edgeContr = edge.getCSIntContr();
             passType = getNewPassType(edgeContr, edge.getTypeList(), passType, paramsType);
@@ -273,12 +665,23 @@ public class GCCollector implements Plugin {
         return true;
     }
 
-    private boolean filterCast(List<Edge> gcEdgeList, int i) { // no cast in dynamic proxy
-        List<Edge> tempEdgeList = gcEdgeList.subList(0, i);
-        Collections.reverse(tempEdgeList);
+    /**
+     * @return true if the types of the chain are not checked from the edge,
+     * i.e., the edge calls an imitated or an invocation handler method.
+     */
+    static boolean endsTypeCheck(Edge edge) {
+        return CSCallGraph.getInvokeRef(edge).hasImitatedBehavior()
+                || CSCallGraph.getCallee(edge).isInvoke();
+    }
+
+    /**
+     * Checks the edges from the i-th edge of the list to the source.
+     */
+    private boolean filterCast(List<Edge> edgeList, int i) { // no cast in dynamic proxy
         List<Integer> tc = new ArrayList<>();
         tc.add(-1);
-        for (Edge tmp : tempEdgeList) {
+        for (int j = i; j < edgeList.size(); j++) {
+            Edge tmp = edgeList.get(j);
             if (tmp.isCasted(tc.get(0) + 1)) return false;
             tc = getNewTCList(tc, tmp.getCSIntContr());
         }
@@ -321,4 +724,210 @@ public class GCCollector implements Plugin {
         }
         return ret;
     }
+
+    /**
+     * Checks of {@link #filterEdge(List)} and {@link #typeCheck(List)}
+     * evaluated as the edges are pushed in {@link #backDFS}, i.e., from the
+     * sink to the source, so that the paths which must be rejected are
+     * pruned before they reach a source. A check is immutable, and
+     * {@link #push(Edge)} returns the check of the extended path.
+     * <p>
+     * The types are passed from the source to the sink, thus the parameter
+     * of an edge whose argument is a parameter of the caller is checked
+     * when the edge of the caller is pushed. As {@link #typeCheck(List)}
+     * skips the edges after the last edge which {@link #endsTypeCheck(Edge)}
+     * (counting from the sink), the mismatched types only reject the path
+     * if no such edge can be pushed later. The complete chains are still
+     * verified by {@link #verifyAndSimplyGC}.
+     */
+    private final class PathCheck {
+
+        /**
+         * The edge closest to the sink which needs to be filtered by callers,
+         * or null if there is none.
+         */
+        private final Edge filterEdge;
+
+        /**
+         * The index of the argument checked by the next caller of
+         * {@link #filterEdge}, or {@link #FILTERED} or {@link #PASSED}.
+         */
+        private final int filterIdx;
+
+        /**
+         * The checks of the parameters whose arguments are passed from
+         * the caller of the last pushed edge.
+         */
+        private final List<PendingType> pendingTypes;
+
+        /**
+         * The taint positions to check the casts of the edges from the
+         * last edge of an invocation handler method, or null if there is none.
+         */
+        private final List<Integer> castTC;
+
+        private final boolean typeMismatched;
+
+        private PathCheck() {
+            this(null, 0, List.of(), null, false);
+        }
+
+        private PathCheck(Edge filterEdge, int filterIdx, List<PendingType> pendingTypes,
+                          List<Integer> castTC, boolean typeMismatched) {
+            this.filterEdge = filterEdge;
+            this.filterIdx = filterIdx;
+            this.pendingTypes = pendingTypes;
+            this.castTC = castTC;
+            this.typeMismatched = typeMismatched;
+        }
+
+        private PathCheck push(Edge edge) {
+            Edge newFilterEdge = filterEdge;
+            int newFilterIdx = filterIdx;
+            if (filterEdge == null) {
+                if (edge.needFilterByCaller()) {
+                    newFilterEdge = edge;
+                    newFilterIdx = getFilterIndex(edge);
+                }
+            } else if (filterIdx != FILTERED && filterIdx != PASSED) {
+                newFilterIdx = filterByCaller(filterEdge, edge, filterIdx);
+            }
+            List<PendingType> newPendingTypes;
+            List<Integer> newCastTC = castTC;
+            boolean newMismatched = typeMismatched;
+            if (endsTypeCheck(edge)) {
+                // the checks of the edges closer to the sink are skipped
+                newPendingTypes = List.of();
+                newCastTC = CSCallGraph.getInvokeRef(edge).hasImitatedBehavior()
+                        ? null : List.of(-1);
+                newMismatched = false;
+            } else if (typeMismatched) {
+                newPendingTypes = List.of();
+            } else {
+                newPendingTypes = new ArrayList<>();
+                List<Type> paramsType = getParamsType(CSCallGraph.getCallee(edge));
+                if (paramsType.size() != edge.getCSIntContr().size()) {
+                    newMismatched = true;
+                }
+                for (PendingType pending : pendingTypes) {
+                    newMismatched |= !checkType(pending.param(), pending.pos(),
+                            edge, paramsType, newPendingTypes);
+                }
+                for (int i = 0; i < paramsType.size(); i++) {
+                    newMismatched |= !checkType(paramsType.get(i), i,
+                            edge, paramsType, newPendingTypes);
+                }
+            }
+            if (newCastTC != null) {
+                if (edge.isCasted(newCastTC.get(0) + 1)) {
+                    newMismatched = true;
+                }
+                newCastTC = getNewTCList(newCastTC, edge.getCSIntContr());
+            }
+            return new PathCheck(newFilterEdge, newFilterIdx,
+                    newPendingTypes, newCastTC, newMismatched);
+        }
+
+        /**
+         * Checks the type of a parameter against the type passed by the edge
+         * at given position, or adds a pending check if the passed type is
+         * given by the caller.
+         *
+         * @return false if the types have no subtype relation.
+         */
+        private boolean checkType(Type param, int pos, Edge edge, List<Type> paramsType,
+                                  List<PendingType> pending) {
+            List<Integer> edgeContr = edge.getCSIntContr();
+            if (pos >= edgeContr.size()) return true;
+            int c = edgeContr.get(pos);
+            Type passType;
+            if (c > ContrUtil.iTHIS) {
+                pending.add(new PendingType(param, c + 1));
+                return true;
+            } else if (c == ContrUtil.iTHIS) {
+                passType = (Type) edge.getTypeList().get(pos);
+            } else {
+                passType = pos < paramsType.size() ? paramsType.get(pos) : null;
+            }
+            return param == null || passType == null ||
+                    typeSystem.isSubtype(param, passType) || typeSystem.isSubtype(passType, param);
+        }
+
+        /**
+         * @param caller the caller of the last pushed edge.
+         * @return true if the path is rejected whatever edges are pushed later.
+         */
+        private boolean isRejected(JMethod caller) {
+            return filterIdx == FILTERED
+                    || (typeMismatched && !specialReachable.contains(caller));
+        }
+    }
+
+    private record PendingType(Type param, int pos) {
+    }
+
+    /**
+     * Key of {@link #deadStates}: a caller, the taint vector and whether
+     * the keywords are matched when the caller is reached. It is mapped to
+     * the max depth searched from it without reaching a source.
+     */
+    private record DeadState(JMethod method, List<Integer> tcList,
+                             boolean matched) {
+    }
+
+    /**
+     * Statistics and budgets of the search from a sink.
+     * Each sink is searched by one thread.
+     */
+    static class SinkStats {
+
+        private final JMethod sink;
+
+        private final long start = System.currentTimeMillis();
+
+        private final long deadline;
+
+        private long elapsed;
+
+        long explored;
+
+        long pruned;
+
+        private long rejected;
+
+        long emitted;
+
+        long reused;
+
+        private boolean timedOut;
+
+        /**
+         * Texts of the emitted chains, which are only kept for the store.
+         */
+        private final List<String> chains = new ArrayList<>();
+
+        /**
+         * Sources of the emitted chains.
+         */
+        private final Set<JMethod> sources = new HashSet<>();
+
+        private SinkStats(JMethod sink, long deadline) {
+            this.sink = sink;
+            this.deadline = deadline;
+        }
+
+        private boolean isExhausted() {
+            if (timedOut) return true;
+            if (MAX_PATHS_PER_SINK > 0 && explored >= MAX_PATHS_PER_SINK) return true;
+            if (System.currentTimeMillis() > deadline) timedOut = true;
+            return timedOut;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("finish %s in %.2fs : explored %d, pruned %d, reused %d, rejected %d, emitted %d%s",
+                    sink, elapsed / 1000.0, explored, pruned, reused, rejected, emitted,
+                    timedOut ? ", timed out" : (MAX_PATHS_PER_SINK > 0 && explored >= MAX_PATHS_PER_SINK ? ", path budget used up" : ""));
+        }
+    }
 }
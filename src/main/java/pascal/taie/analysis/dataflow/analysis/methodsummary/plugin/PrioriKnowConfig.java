@@ -12,6 +12,7 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.methodsummary.ContrValue;
 import pascal.taie.analysis.dataflow.analysis.methodsummary.Utils.ContrUtil;
 import pascal.taie.config.ConfigException;
 import pascal.taie.language.classes.ClassHierarchy;
@@ -199,7 +200,7 @@ public record PrioriKnowConfig(List<JMethod> sinks,
                                     boolean isRet = v[1].contains("result");
                                     String to = isRet ? "return" : ContrUtil.int2String(InvokeUtils.toInt(v[1]));
                                     from = from + (isRet ? "+" + (v[1].contains("\\+") ? v[1].split("\\+")[1] : "null") : "");
-                                    method.setSummary(to, from);
+                                    method.setSummary(ContrValue.of(to), ContrValue.of(from));
                                 });
                             }
                         }
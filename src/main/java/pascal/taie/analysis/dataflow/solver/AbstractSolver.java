@@ -48,7 +48,7 @@ abstract class AbstractSolver<Node, Fact> implements Solver<Node, Fact> {
      *
      * @return the initialized data-flow result
      */
-    private DataflowResult<Node, Fact> initialize(DataflowAnalysis<Node, Fact> analysis) {
+    DataflowResult<Node, Fact> initialize(DataflowAnalysis<Node, Fact> analysis) {
         CFG<Node> cfg = analysis.getCFG();
         var indexer = new CFGNodeIndexer<>(cfg);
         DataflowResult<Node, Fact> result = new DataflowResult<>(
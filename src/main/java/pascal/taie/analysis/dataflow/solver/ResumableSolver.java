@@ -0,0 +1,167 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.CollectionUtils;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Work-list solver for one forward analysis problem whose solving can be
+ * suspended and resumed. Solving is suspended by a node transfer which
+ * completes abruptly (e.g., to wait for some other analysis), and the
+ * node is transferred again when {@link #solve()} is called next time.
+ * Thus, the node transfer must be safe to be re-applied to the same facts.
+ * <p>
+ * If a predicate of relevant nodes is given, the solver is sparse: it only
+ * transfers the relevant nodes, and propagates facts directly from a
+ * relevant node to the relevant nodes reachable from it via irrelevant
+ * ones. The transfer function of irrelevant nodes must be identity, and
+ * their facts in the result are not computed.
+ *
+ * @param <Node> type of control-flow graph nodes
+ * @param <Fact> type of data facts
+ */
+public class ResumableSolver<Node, Fact> {
+
+    private final WorkListSolver<Node, Fact> solver = new WorkListSolver<>();
+
+    private final DataflowAnalysis<Node, Fact> analysis;
+
+    private final DataflowResult<Node, Fact> result;
+
+    private final NavigableSet<Node> workList;
+
+    /**
+     * Relevant successors and predecessors of relevant nodes,
+     * null if this solver is not sparse.
+     */
+    private final MultiMap<Node, Node> succs, preds;
+
+    public ResumableSolver(DataflowAnalysis<Node, Fact> analysis) {
+        this(analysis, null);
+    }
+
+    public ResumableSolver(DataflowAnalysis<Node, Fact> analysis,
+                           @Nullable Predicate<Node> isRelevant) {
+        if (!analysis.isForward()) {
+            throw new UnsupportedOperationException(
+                    "ResumableSolver only supports forward analyses");
+        }
+        this.analysis = analysis;
+        this.result = solver.initialize(analysis);
+        this.workList = solver.newForwardWorkList(analysis.getCFG());
+        if (isRelevant != null) {
+            succs = Maps.newMultiMap();
+            preds = Maps.newMultiMap();
+            initializeSparse(isRelevant);
+        } else {
+            succs = preds = null;
+        }
+    }
+
+    private void initializeSparse(Predicate<Node> isRelevant) {
+        CFG<Node> cfg = analysis.getCFG();
+        Predicate<Node> relevant = node -> cfg.isEntry(node)
+                || cfg.isExit(node) || isRelevant.test(node);
+        workList.removeIf(relevant.negate());
+        for (Node node : cfg) {
+            if (!relevant.test(node) || cfg.isExit(node)) {
+                continue;
+            }
+            // collects the relevant nodes reachable via irrelevant nodes
+            Set<Node> visited = Sets.newHybridSet();
+            Deque<Node> stack = new ArrayDeque<>(cfg.getSuccsOf(node));
+            while (!stack.isEmpty()) {
+                Node succ = stack.pop();
+                if (!visited.add(succ)) {
+                    continue;
+                }
+                if (relevant.test(succ)) {
+                    succs.put(node, succ);
+                    preds.put(succ, node);
+                } else {
+                    stack.addAll(cfg.getSuccsOf(succ));
+                }
+            }
+        }
+        for (Node node : workList) {
+            Set<Node> relevantPreds = preds.get(node);
+            result.setInFact(node, relevantPreds.size() == 1
+                    ? result.getOutFact(CollectionUtils.getOne(relevantPreds))
+                    : analysis.newInitialFact());
+        }
+    }
+
+    /**
+     * Solves the analysis problem, from where it is suspended last time.
+     *
+     * @return the data-flow analysis result
+     */
+    public DataflowResult<Node, Fact> solve() {
+        if (succs == null) {
+            solver.solveForward(analysis, result, workList);
+        } else {
+            solveSparse();
+        }
+        return result;
+    }
+
+    private void solveSparse() {
+        while (!workList.isEmpty()) {
+            Node node = workList.pollFirst();
+            Fact in = result.getInFact(node);
+            Set<Node> relevantPreds = preds.get(node);
+            if (relevantPreds.size() > 1) {
+                relevantPreds.forEach(pred ->
+                        analysis.meetInto(result.getOutFact(pred), in));
+            }
+            Fact out = result.getOutFact(node);
+            boolean changed = false;
+            boolean completed = false;
+            try {
+                changed = analysis.transferNode(node, in, out);
+                completed = true;
+            } finally {
+                if (!completed) {
+                    workList.add(node);
+                }
+            }
+            if (changed) {
+                workList.addAll(succs.get(node));
+            }
+        }
+    }
+}
@@ -81,7 +81,10 @@ class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
     @Override
     protected void doSolveForward(DataflowAnalysis<Node, Fact> analysis,
                                   DataflowResult<Node, Fact> result) {
-        CFG<Node> cfg = analysis.getCFG();
+        solveForward(analysis, result, newForwardWorkList(analysis.getCFG()));
+    }
+
+    NavigableSet<Node> newForwardWorkList(CFG<Node> cfg) {
         NavigableSet<Node> workList = Sets.newOrderedSet(
                 Comparator.comparingInt(cfg::getIndex));
         cfg.forEach(node -> {
@@ -89,6 +92,18 @@ class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
                 workList.add(node);
             }
         });
+        return workList;
+    }
+
+    /**
+     * Solves the forward problem until the work list is empty. If a node
+     * transfer completes abruptly, the node is put back to the work list,
+     * so that solving can be resumed later with the same work list.
+     */
+    void solveForward(DataflowAnalysis<Node, Fact> analysis,
+                      DataflowResult<Node, Fact> result,
+                      NavigableSet<Node> workList) {
+        CFG<Node> cfg = analysis.getCFG();
         while (!workList.isEmpty()) {
             Node node = workList.pollFirst();
             // meet incoming facts
@@ -117,7 +132,16 @@ class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
             }
             // apply node transfer function
             Fact out = result.getOutFact(node);
-            boolean changed = analysis.transferNode(node, in, out);
+            boolean changed = false;
+            boolean completed = false;
+            try {
+                changed = analysis.transferNode(node, in, out);
+                completed = true;
+            } finally {
+                if (!completed) {
+                    workList.add(node);
+                }
+            }
             if (changed) {
                 workList.addAll(cfg.getSuccsOf(node));
             }
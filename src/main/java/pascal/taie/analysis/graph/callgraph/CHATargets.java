@@ -0,0 +1,147 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.World;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Targets of a call site resolved by CHA, indexed for filtering by
+ * the receiver type and serializability. The non-private targets are kept
+ * in an array in which the targets declared in serializable classes come
+ * first, so that the targets of either kind are a prefix of the array.
+ * The filtered targets are cached per receiver type, as the targets of
+ * megamorphic calls (e.g., {@code Object.equals}) are filtered by
+ * the same types at many call sites.
+ * <p>
+ * If the classes are loaded lazily, more classes are marked as serializable
+ * as they are loaded, thus the serializability of the targets declared
+ * in non-serializable classes at construction is checked when filtering.
+ * <p>
+ * This class is thread-safe.
+ */
+public class CHATargets {
+
+    private final Set<JMethod> methods;
+
+    /**
+     * Whether the classes are loaded lazily.
+     */
+    private final boolean lazy;
+
+    /**
+     * Non-private targets, serializable ones first.
+     */
+    private final JMethod[] targets;
+
+    /**
+     * Number of the targets declared in serializable classes.
+     */
+    private final int nSerializable;
+
+    private final Set<JMethod> serializableTargets;
+
+    private final Set<JMethod> allTargets;
+
+    private final ConcurrentMap<Type, Set<JMethod>> serializableOfType
+            = Maps.newConcurrentMap();
+
+    private final ConcurrentMap<Type, Set<JMethod>> allOfType
+            = Maps.newConcurrentMap();
+
+    CHATargets(Set<JMethod> methods, boolean lazy) {
+        this.methods = methods;
+        this.lazy = lazy;
+        JMethod[] nonPrivate = methods.stream()
+                .filter(m -> !m.isPrivate())
+                .toArray(JMethod[]::new);
+        targets = new JMethod[nonPrivate.length];
+        int i = 0;
+        for (JMethod m : nonPrivate) {
+            if (m.getDeclaringClass().isSerializable()) {
+                targets[i++] = m;
+            }
+        }
+        nSerializable = i;
+        for (JMethod m : nonPrivate) {
+            if (!m.getDeclaringClass().isSerializable()) {
+                targets[i++] = m;
+            }
+        }
+        serializableTargets = Set.of(Arrays.copyOf(targets, nSerializable));
+        allTargets = Set.of(targets);
+    }
+
+    /**
+     * @return all the targets resolved by CHA.
+     */
+    public Set<JMethod> getMethods() {
+        return methods;
+    }
+
+    /**
+     * @param type                   if not null, only the targets declared
+     *                               in the subtypes of the type are returned.
+     * @param includeNonSerializable whether the targets declared in
+     *                               non-serializable classes are returned.
+     * @return the non-private targets which satisfy given conditions.
+     */
+    public Set<JMethod> filter(@Nullable Type type, boolean includeNonSerializable) {
+        if (lazy && !includeNonSerializable && nSerializable < targets.length) {
+            // classes are never unmarked, so the non-serializable targets
+            // at construction are the only ones to check again
+            return filter(type, true)
+                    .stream()
+                    .filter(m -> m.getDeclaringClass().isSerializable())
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+        if (type == null) {
+            return includeNonSerializable ? allTargets : serializableTargets;
+        }
+        ConcurrentMap<Type, Set<JMethod>> cache =
+                includeNonSerializable ? allOfType : serializableOfType;
+        Set<JMethod> result = cache.get(type);
+        if (result == null) {
+            TypeSystem typeSystem = World.get().getTypeSystem();
+            int end = includeNonSerializable ? targets.length : nSerializable;
+            result = Set.of(Arrays.stream(targets, 0, end)
+                    .filter(m -> typeSystem.isSubtype(type, m.getDeclaringClass().getType()))
+                    .toArray(JMethod[]::new));
+            Set<JMethod> prev = cache.putIfAbsent(type, result);
+            if (prev != null) {
+                result = prev;
+            }
+        }
+        return result;
+    }
+}
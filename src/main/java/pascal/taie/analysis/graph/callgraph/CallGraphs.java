@@ -32,6 +32,7 @@ import pascal.taie.ir.proginfo.MethodRef;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JClassLoader;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.AnalysisException;
@@ -59,7 +60,8 @@ public final class CallGraphs {
 
     private static final Logger logger = LogManager.getLogger(CallGraphs.class);
 
-    private static TwoKeyMap<JClass, MemberRef, Set<JMethod>> resolveTable = Maps.newTwoKeyMap();
+    private static final TwoKeyMap<JClass, MemberRef, CHATargets> resolveTable
+            = Maps.newTwoKeyMap(Maps.newConcurrentMap(), Maps::newConcurrentMap);
 
     private CallGraphs() {
     }
@@ -97,11 +99,20 @@ public final class CallGraphs {
     }
 
     public static Set<JMethod> resolveCalleesOf(Invoke callSite) {
+        return resolveCHATargetsOf(callSite).getMethods();
+    }
+
+    /**
+     * @return the callees of given call site resolved by CHA, which are
+     * cached per (declaring class, method reference) and shared by threads.
+     */
+    public static CHATargets resolveCHATargetsOf(Invoke callSite) {
         MethodRef methodRef = callSite.getMethodRef();
         ClassHierarchy hierarchy = World.get().getClassHierarchy();
         JClass cls = methodRef.getDeclaringClass();
-        Set<JMethod> callees = resolveTable.get(cls, methodRef);
-        if (callees == null) {
+        CHATargets targets = resolveTable.get(cls, methodRef);
+        if (targets == null) {
+            Set<JMethod> callees = null;
             boolean byCHA = true; // 处理this调用
             if (callSite.getInvokeExp() instanceof InvokeInstanceExp instanceExp
                     && instanceExp.getBase().getName().equals("%this")) {
@@ -119,9 +130,11 @@ public final class CallGraphs {
                         .filter(Objects::nonNull) // filter out null callees
                         .collect(Collectors.toUnmodifiableSet());
             }
-            resolveTable.put(cls, methodRef, callees);
+            JClassLoader loader = hierarchy.getDefaultClassLoader();
+            targets = new CHATargets(callees, loader != null && loader.isLazy());
+            resolveTable.put(cls, methodRef, targets);
         }
-        return callees;
+        return targets;
     }
 
     public static JMethod resolveCalleesOf(JClass cls, String methodsubsig) {
@@ -22,10 +22,12 @@
 
 package pascal.taie.analysis.graph.callgraph;
 
+import pascal.taie.analysis.dataflow.analysis.methodsummary.ContrValue;
 import pascal.taie.analysis.dataflow.analysis.methodsummary.Utils.ContrUtil;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.Hashes;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -47,7 +49,13 @@ public class Edge<CallSite, Method> {
 
     private final int hashCode;
 
-    private final List<String> csContr;
+    private final List<ContrValue> csContr;
+
+    /**
+     * Int codes of {@link #csContr}, computed once as they are used
+     * in hashing, comparison and gadget chain search.
+     */
+    private final List<Integer> csIntContr;
 
     private final Integer lineNumber;
 
@@ -57,16 +65,19 @@ public class Edge<CallSite, Method> {
 
     private Set<Integer> casted;
 
-    public Edge(CallKind kind, CallSite callSite, Method callee, List<String> csContr, Integer lineNumber, List<Type> typeList) {
+    public Edge(CallKind kind, CallSite callSite, Method callee, List<ContrValue> csContr, Integer lineNumber, List<Type> typeList) {
         this.kind = kind;
         this.callSite = callSite;
         this.callee = callee;
         this.csContr = csContr;
+        this.csIntContr = csContr != null
+                ? Collections.unmodifiableList(ContrUtil.string2Int(csContr))
+                : List.of();
         this.lineNumber = lineNumber;
         this.filterByCaller = "";
         this.typeList = typeList;
         this.casted = new HashSet<>();
-        hashCode = Hashes.hash(kind, callSite, callee, getCSIntContr());
+        hashCode = Hashes.hash(kind, callSite, callee, csIntContr);
     }
 
     /**
@@ -111,7 +122,7 @@ public class Edge<CallSite, Method> {
         return Objects.equals(kind, edge.kind)
                 && Objects.equals(callSite, edge.callSite)
                 && Objects.equals(callee, edge.callee)
-                && Objects.equals(getCSIntContr(), edge.getCSIntContr());
+                && csIntContr.equals(edge.csIntContr);
     }
 
     @Override
@@ -121,14 +132,14 @@ public class Edge<CallSite, Method> {
 
     @Override
     public String toString() {
-        return "[" + getInfo() + "]" + callSite + "-" + getCSIntContr() + "->" + callee;
+        return "[" + getInfo() + "]" + callSite + "-" + csIntContr + "->" + callee;
     }
 
     public List<Integer> getCSIntContr() {
-        return ContrUtil.string2Int(csContr);
+        return csIntContr;
     }
 
-    public List<String> getCSContr() {
+    public List<ContrValue> getCSContr() {
         return csContr;
     }
 
@@ -33,10 +33,12 @@ import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.collection.ArraySet;
+import pascal.taie.util.collection.Sets;
 import pascal.taie.util.collection.Views;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -50,9 +52,17 @@ public class CSCallGraph extends AbstractCallGraph<CSCallSite, CSMethod> {
 
     private Context emptyContext;
 
+    /**
+     * Keys of the added edges. Edges into the same callee from the same
+     * caller with the same contr are regarded as duplicates.
+     */
+    private final Set<EdgeKey> edgeKeys = Sets.newSet();
+
     public CSCallGraph(CSManager csManager, Context context) {
         this.csManager = csManager;
         this.emptyContext = context;
+        // summaries may be built by several threads
+        this.reachableMethods = Sets.newConcurrentSet();
     }
 
     /**
@@ -91,26 +101,23 @@ public class CSCallGraph extends AbstractCallGraph<CSCallSite, CSMethod> {
      * @return true if the call graph changed as a result of the call,
      * otherwise false.
      */
-    public boolean addEdge(Edge<CSCallSite, CSMethod> edge) {
-        if (Objects.equals(getCaller(edge), edge.getCallee().getMethod())) return false; // 对于gc检测应该是没有影响的
-        Set<Edge<CSCallSite, CSMethod>> edges = edge.getCallee().getEdges();
-
-        if (!edges.isEmpty()) {
-            for (Edge<CSCallSite, CSMethod> eEdge : edges) {
-                if (Objects.equals(eEdge.getCSIntContr(), edge.getCSIntContr())
-                        && Objects.equals(getCaller(eEdge), getCaller(edge))) {
-                    return false;
-                }
-            }
-        }
+    public synchronized boolean addEdge(Edge<CSCallSite, CSMethod> edge) {
+        JMethod caller = getCaller(edge);
+        if (Objects.equals(caller, edge.getCallee().getMethod())) return false; // 对于gc检测应该是没有影响的
+        EdgeKey key = new EdgeKey(caller, edge.getCallee(), edge.getCSIntContr());
+        if (!edgeKeys.add(key)) return false;
         if (edge.getCallSite().addEdge(edge)) {
             edge.getCallee().addEdge(edge);
             return true;
         } else {
+            edgeKeys.remove(key);
             return false;
         }
     }
 
+    private record EdgeKey(JMethod caller, CSMethod callee, List<Integer> csIntContr) {
+    }
+
     @Override
     public Set<CSCallSite> getCallersOf(CSMethod callee) {
         return Views.toMappedSet(callee.getEdges(), Edge::getCallSite);
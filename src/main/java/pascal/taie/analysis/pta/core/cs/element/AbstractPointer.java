@@ -24,31 +24,45 @@ package pascal.taie.analysis.pta.core.cs.element;
 
 import pascal.taie.analysis.graph.flowgraph.FlowKind;
 import pascal.taie.analysis.pta.core.solver.PointerFlowEdge;
+import pascal.taie.analysis.pta.core.solver.PointerFlowEdges;
 import pascal.taie.analysis.pta.pts.PointsToSet;
-import pascal.taie.util.collection.ArraySet;
 import pascal.taie.util.collection.HybridIndexableSet;
 import pascal.taie.util.collection.Sets;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 abstract class AbstractPointer implements Pointer {
 
+    private static final PointerFlowEdge[] NO_EDGES = new PointerFlowEdge[0];
+
     private PointsToSet pointsToSet;
 
     private final int index;
 
-    private final Set<Pointer> predecessors = new HybridIndexableSet<>(true);
+    /**
+     * Sources of the in edges, which are created on demand
+     * as many pointers have no pointer (or object) sources.
+     */
+    private Set<Pointer> predecessors = Set.of();
+
+    private Set<CSObj> newObjs = Set.of();
+
+    private PointerFlowEdge[] outEdges = NO_EDGES;
+
+    private int outSize = 0;
+
+    private PointerFlowEdges outSnapshot = null;
+
+    private PointerFlowEdge[] inEdges = NO_EDGES;
 
-    private final Set<CSObj> newObjs = new HybridIndexableSet<>(true);
+    private int inSize = 0;
 
-    private final ArrayList<PointerFlowEdge> outEdges = new ArrayList<>(4);
+    private PointerFlowEdges inSnapshot = null;
 
-    private final ArrayList<PointerFlowEdge> inEdges = new ArrayList<>(4);
+    private int inEdgeVersion = 0;
 
     private Set<Predicate<CSObj>> filters = Set.of();
 
@@ -95,56 +109,120 @@ abstract class AbstractPointer implements Pointer {
         return getObjects().stream();
     }
 
+    /**
+     * Pointers of different methods may be connected by threads building
+     * summaries in parallel. The out-edge is added to the source after
+     * releasing the lock of this pointer, so that two threads never hold
+     * locks of two pointers at the same time.
+     */
     @Override
     public PointerFlowEdge addEdge(PointerFlowEdge edge) {
         assert edge.target() == this;
         Pointer source = edge.source();
         CSObj sourceObj = edge.sourceObj();
-        if (source != null && predecessors.add(source)) {
-            inEdges.add(edge);
-            source.addOutEdge(edge);
-            return edge;
-        } else if (sourceObj != null && newObjs.add(sourceObj)) {
-            inEdges.add(edge);
-            return edge;
-        } else if (edge.kind() == FlowKind.OTHER) {
-            for (PointerFlowEdge inEdge : inEdges) {
-                if (inEdge.equals(edge)) {
-                    return inEdge;
+        synchronized (this) {
+            if (source != null && addPredecessor(source)) {
+                addInEdge(edge);
+            } else if (sourceObj != null && addNewObj(sourceObj)) {
+                addInEdge(edge);
+                return edge;
+            } else if (edge.kind() == FlowKind.OTHER) {
+                for (int i = 0; i < inSize; ++i) {
+                    if (inEdges[i].equals(edge)) {
+                        return inEdges[i];
+                    }
                 }
+                return edge;
+            } else {
+                return null;
             }
-            return edge;
         }
-        return null;
+        source.addOutEdge(edge);
+        return edge;
+    }
+
+    private boolean addPredecessor(Pointer source) {
+        if (predecessors.isEmpty()) {
+            predecessors = new HybridIndexableSet<>(true);
+        }
+        return predecessors.add(source);
+    }
+
+    private boolean addNewObj(CSObj sourceObj) {
+        if (newObjs.isEmpty()) {
+            newObjs = new HybridIndexableSet<>(true);
+        }
+        return newObjs.add(sourceObj);
+    }
+
+    private void addInEdge(PointerFlowEdge edge) {
+        inEdges = append(inEdges, inSize, edge);
+        ++inSize;
+        inSnapshot = null;
+        ++inEdgeVersion;
     }
 
     @Override
-    public void addOutEdge(PointerFlowEdge edge) {
-        outEdges.add(edge);
+    public synchronized void addOutEdge(PointerFlowEdge edge) {
+        outEdges = append(outEdges, outSize, edge);
+        ++outSize;
+        outSnapshot = null;
+    }
+
+    /**
+     * Appends an edge after the first {@code size} edges of the array.
+     * The prefix is never modified, as it may be viewed by snapshots.
+     */
+    private static PointerFlowEdge[] append(
+            PointerFlowEdge[] edges, int size, PointerFlowEdge edge) {
+        if (size == edges.length) {
+            edges = Arrays.copyOf(edges, Math.max(4, size + (size >> 1)));
+        }
+        edges[size] = edge;
+        return edges;
     }
 
     @Override
-    public Set<PointerFlowEdge> getOutEdges() {
-        return Collections.unmodifiableSet(new ArraySet<>(outEdges, true));
+    public synchronized PointerFlowEdges getOutEdges() {
+        if (outSnapshot == null) {
+            outSnapshot = PointerFlowEdges.of(outEdges, outSize);
+        }
+        return outSnapshot;
     }
 
     @Override
-    public Set<PointerFlowEdge> getInEdges() {
-        return Collections.unmodifiableSet(new ArraySet<>(inEdges, true));
+    public synchronized PointerFlowEdges getInEdges() {
+        if (inSnapshot == null) {
+            inSnapshot = PointerFlowEdges.of(inEdges, inSize);
+        }
+        return inSnapshot;
     }
 
     @Override
-    public int getOutDegree() {
-        return outEdges.size();
+    public synchronized int getInEdgeVersion() {
+        return inEdgeVersion;
     }
 
-    public void removePFG(FlowKind kind) {
-        Iterator<PointerFlowEdge> iterator = inEdges.iterator();
-        while (iterator.hasNext()) {
-            PointerFlowEdge pfg = iterator.next();
-            if (pfg.kind().equals(kind)) {
-                iterator.remove();
+    @Override
+    public synchronized int getOutDegree() {
+        return outSize;
+    }
+
+    public synchronized void removePFG(FlowKind kind) {
+        // copies the remaining edges, as the array may be viewed by snapshots
+        PointerFlowEdge[] remaining = new PointerFlowEdge[inEdges.length];
+        int size = 0;
+        for (int i = 0; i < inSize; ++i) {
+            if (inEdges[i].kind().equals(kind)) {
+                ++inEdgeVersion;
+            } else {
+                remaining[size++] = inEdges[i];
             }
         }
+        if (size != inSize) {
+            inEdges = remaining;
+            inSize = size;
+            inSnapshot = null;
+        }
     }
 }
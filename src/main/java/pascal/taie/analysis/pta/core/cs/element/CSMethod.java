@@ -61,17 +61,21 @@ public class CSMethod extends AbstractCSElement {
         return method;
     }
 
-    public boolean containsEdge(Edge<CSCallSite, CSMethod> edge) {
+    public synchronized boolean containsEdge(Edge<CSCallSite, CSMethod> edge) {
         return edges.contains(edge);
     }
 
-    public void addEdge(Edge<CSCallSite, CSMethod> edge) {
+    public synchronized void addEdge(Edge<CSCallSite, CSMethod> edge) {
         // The caller has ensured that each edge added to CSMethod is unique
         edges.add(edge);
     }
 
-    public Set<Edge<CSCallSite, CSMethod>> getEdges() {
-        return Collections.unmodifiableSet(new ArraySet<>(edges, true));
+    /**
+     * @return a snapshot of the call edges to this CS method, as edges
+     * may be added by other threads during gadget chain search.
+     */
+    public synchronized Set<Edge<CSCallSite, CSMethod>> getEdges() {
+        return Collections.unmodifiableSet(new ArraySet<>(new ArrayList<>(edges), true));
     }
 
     public <R> R getResult(String id, Supplier<R> supplier) {
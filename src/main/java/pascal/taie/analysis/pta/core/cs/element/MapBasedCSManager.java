@@ -32,17 +32,33 @@ import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
 import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.Indexable;
 import pascal.taie.util.Indexer;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
 import pascal.taie.util.collection.Streams;
 import pascal.taie.util.collection.TwoKeyMap;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
  * Manages data by maintaining the data and their context-sensitive
  * counterparts by maps.
+ * <br>
+ * Method summaries may be built by several threads, thus all elements
+ * are created through concurrent maps.
+ * <br>
+ * Elements of the empty context, i.e., all elements of the context-insensitive
+ * analysis, are held in arrays indexed by the indexes of their variables and
+ * objects, and the fields are held in open-addressing tables, which avoid
+ * a nested map for each variable or base.
  */
 public class MapBasedCSManager implements CSManager {
 
@@ -50,9 +66,9 @@ public class MapBasedCSManager implements CSManager {
 
     private final CSObjManager objManager = new CSObjManager();
 
-    private final TwoKeyMap<Invoke, Context, CSCallSite> callSites = Maps.newTwoKeyMap();
+    private final ConcurrentMap<Invoke, ConcurrentMap<Context, CSCallSite>> callSites = Maps.newConcurrentMap();
 
-    private final TwoKeyMap<JMethod, Context, CSMethod> methods = Maps.newTwoKeyMap();
+    private final ConcurrentMap<JMethod, ConcurrentMap<Context, CSMethod>> methods = Maps.newConcurrentMap();
 
     @Override
     public CSVar getCSVar(Context context, Var var) {
@@ -141,7 +157,7 @@ public class MapBasedCSManager implements CSManager {
 
     @Override
     public CSCallSite getCSCallSite(Context context, Invoke callSite) {
-        return callSites.computeIfAbsent(callSite, context, (cs, ctx) -> {
+        return getOrCreate(callSites, callSite, context, (cs, ctx) -> {
             CSMethod container = getCSMethod(ctx, cs.getContainer());
             return new CSCallSite(cs, ctx, container);
         });
@@ -149,69 +165,123 @@ public class MapBasedCSManager implements CSManager {
 
     @Override
     public CSMethod getCSMethod(Context context, JMethod method) {
-        return methods.computeIfAbsent(method, context, CSMethod::new);
+        return getOrCreate(methods, method, context, CSMethod::new);
+    }
+
+    private static <K1, K2, V> V getOrCreate(
+            ConcurrentMap<K1, ConcurrentMap<K2, V>> map, K1 key1, K2 key2,
+            BiFunction<K1, K2, V> creator) {
+        ConcurrentMap<K2, V> inner = map.get(key1);
+        if (inner == null) {
+            inner = map.computeIfAbsent(key1, __ -> Maps.newConcurrentMap(4));
+        }
+        V v = inner.get(key2);
+        if (v == null) {
+            v = inner.computeIfAbsent(key2, k2 -> creator.apply(key1, k2));
+        }
+        return v;
     }
 
     private static class PointerManager {
 
-        private final TwoKeyMap<Var, Context, CSVar> vars = Maps.newTwoKeyMap();
+        private final ConcurrentMap<Var, ConcurrentMap<Context, CSVar>> vars = Maps.newConcurrentMap(4096);
 
-        private final Map<JField, StaticField> staticFields = Maps.newMap();
+        /**
+         * CSVars of the empty context, which are all the CSVars in
+         * context-insensitive analysis, e.g., method summaries.
+         */
+        private final ConcurrentMap<JMethod, VarTable> ciVars = Maps.newConcurrentMap(4096);
+
+        private final ConcurrentMap<JField, StaticField> staticFields = Maps.newConcurrentMap();
 
-        private final TwoKeyMap<CSObj, JField, InstanceField> instanceObjFields = Maps.newTwoKeyMap();
+        private final PointerTable<CSObj, InstanceField> instanceObjFields =
+                new PointerTable<>(InstanceField::getBase, InstanceField::getField);
 
-        private final TwoKeyMap<CSVar, JField, InstanceField> instanceVarFields = Maps.newTwoKeyMap();
+        private final PointerTable<CSVar, InstanceField> instanceVarFields =
+                new PointerTable<>(InstanceField::getBaseVar, InstanceField::getField);
 
-        private final Map<CSObj, ArrayIndex> arrayObjIndexes = Maps.newMap();
+        private final PointerTable<CSObj, ArrayIndex> arrayObjIndexes =
+                new PointerTable<>(ArrayIndex::getArray, a -> null);
 
-        private final Map<CSVar, ArrayIndex> arrayVarIndexes = Maps.newMap();
+        private final PointerTable<CSVar, ArrayIndex> arrayVarIndexes =
+                new PointerTable<>(ArrayIndex::getArrayVar, a -> null);
 
         /**
          * Counter for assigning unique indexes to Pointers.
          */
-        private int counter = 0;
+        private final AtomicInteger counter = new AtomicInteger();
 
         private CSVar getCSVar(Context context, Var var) {
-            return vars.computeIfAbsent(var, context,
-                    (v, c) -> new CSVar(v, c, counter++));
+            if (context.getLength() == 0) {
+                VarTable table = ciVars.get(var.getMethod());
+                if (table == null) {
+                    table = ciVars.computeIfAbsent(var.getMethod(), __ -> new VarTable());
+                }
+                CSVar csVar = table.getOrCreate(var, context, counter);
+                if (csVar != null) {
+                    return csVar;
+                }
+                // the index of var is taken by a var of another IR of the method
+            }
+            return getOrCreate(vars, var, context,
+                    (v, c) -> new CSVar(v, c, counter.getAndIncrement()));
         }
 
         private StaticField getStaticField(JField field) {
             return staticFields.computeIfAbsent(field,
-                    f -> new StaticField(f, counter++));
+                    f -> new StaticField(f, counter.getAndIncrement()));
         }
 
         private InstanceField getInstanceField(CSObj base, JField field) {
-            return instanceObjFields.computeIfAbsent(base, field,
-                    (b, f) -> new InstanceField(b, f, counter++));
+            return instanceObjFields.getOrCreate(base, field,
+                    (b, f) -> new InstanceField(b, f, counter.getAndIncrement()));
         }
 
         private InstanceField getInstanceField(CSVar base, JField field) {
-            return instanceVarFields.computeIfAbsent(base, field,
-                    (b, f) -> new InstanceField(b, f, counter++));
+            return instanceVarFields.getOrCreate(base, field,
+                    (b, f) -> new InstanceField(b, f, counter.getAndIncrement()));
         }
 
         private ArrayIndex getArrayIndex(CSObj array) {
-            return arrayObjIndexes.computeIfAbsent(array,
-                    a -> new ArrayIndex(a, counter++));
+            return arrayObjIndexes.getOrCreate(array, null,
+                    (a, __) -> new ArrayIndex(a, counter.getAndIncrement()));
         }
 
         private ArrayIndex getArrayIndex(CSVar array) {
-            return arrayVarIndexes.computeIfAbsent(array,
-                    a -> new ArrayIndex(a, counter++));
+            return arrayVarIndexes.getOrCreate(array, null,
+                    (a, __) -> new ArrayIndex(a, counter.getAndIncrement()));
         }
 
         private Collection<Var> getVars() {
-            return vars.keySet();
+            Set<Var> result = Sets.newSet(vars.keySet());
+            ciVars.values().forEach(t -> t.forEach(v -> result.add(v.getVar())));
+            return Collections.unmodifiableSet(result);
         }
 
         private Collection<CSVar> getCSVars() {
-            return vars.values();
+            List<CSVar> result = new ArrayList<>();
+            ciVars.values().forEach(t -> t.forEach(result::add));
+            vars.values().forEach(m -> result.addAll(m.values()));
+            return Collections.unmodifiableList(result);
         }
 
         private Collection<CSVar> getCSVarsOf(Var var) {
             var csVars = vars.get(var);
-            return csVars != null ? csVars.values() : Set.of();
+            VarTable table = ciVars.get(var.getMethod());
+            CSVar ciVar = table != null ? table.get(var) : null;
+            if (ciVar != null && ciVar.getVar() != var) {
+                // the index is taken by a var of another IR of the method
+                ciVar = null;
+            }
+            if (ciVar == null) {
+                return csVars != null ? Collections.unmodifiableCollection(csVars.values()) : Set.of();
+            } else if (csVars == null) {
+                return Set.of(ciVar);
+            } else {
+                List<CSVar> result = new ArrayList<>(csVars.values());
+                result.add(ciVar);
+                return Collections.unmodifiableList(result);
+            }
         }
 
         private Collection<StaticField> getStaticFields() {
@@ -223,7 +293,7 @@ public class MapBasedCSManager implements CSManager {
         }
 
         private Collection<ArrayIndex> getArrayIndexes() {
-            return Collections.unmodifiableCollection(arrayObjIndexes.values());
+            return arrayObjIndexes.values();
         }
 
         private Stream<Pointer> pointers() {
@@ -235,10 +305,168 @@ public class MapBasedCSManager implements CSManager {
         }
     }
 
+    /**
+     * CSVars of the empty context in a method, indexed by {@link Var#getIndex()}.
+     * Lookups are lock-free, and creations are synchronized on the table.
+     */
+    private static class VarTable {
+
+        private volatile AtomicReferenceArray<CSVar> csVars = new AtomicReferenceArray<>(8);
+
+        /**
+         * @return the CSVar of var, or {@code null} if its index is taken
+         * by a var of another IR of the same method.
+         */
+        private CSVar getOrCreate(Var var, Context context, AtomicInteger counter) {
+            CSVar csVar = get(var);
+            if (csVar == null) {
+                synchronized (this) {
+                    int index = var.getIndex();
+                    AtomicReferenceArray<CSVar> array = csVars;
+                    if (index >= array.length()) {
+                        int newLength = Math.max(index + 1, array.length() * 2);
+                        AtomicReferenceArray<CSVar> newArray = new AtomicReferenceArray<>(newLength);
+                        for (int i = 0; i < array.length(); ++i) {
+                            newArray.set(i, array.get(i));
+                        }
+                        csVars = array = newArray;
+                    }
+                    csVar = array.get(index);
+                    if (csVar == null) {
+                        csVar = new CSVar(var, context, counter.getAndIncrement());
+                        array.set(index, csVar);
+                    }
+                }
+            }
+            return csVar.getVar() == var ? csVar : null;
+        }
+
+        /**
+         * @return the CSVar at the index of var, which may belong to
+         * a var of another IR of the same method.
+         */
+        private CSVar get(Var var) {
+            AtomicReferenceArray<CSVar> array = csVars;
+            int index = var.getIndex();
+            return index < array.length() ? array.get(index) : null;
+        }
+
+        private void forEach(Consumer<CSVar> action) {
+            AtomicReferenceArray<CSVar> array = csVars;
+            for (int i = 0; i < array.length(); ++i) {
+                CSVar csVar = array.get(i);
+                if (csVar != null) {
+                    action.accept(csVar);
+                }
+            }
+        }
+    }
+
+    /**
+     * Open-addressing hash table of pointers keyed by the indexes of their
+     * bases and their fields ({@code null} for array indexes), which avoids
+     * a nested map for each base. Lookups are lock-free, and a missed lookup
+     * is repeated under the lock of the table before creating the pointer.
+     *
+     * @param <B> type of the bases
+     * @param <P> type of the pointers
+     */
+    private static class PointerTable<B extends Indexable, P extends Pointer> {
+
+        private final Function<P, B> getBase;
+
+        private final Function<P, JField> getField;
+
+        private volatile AtomicReferenceArray<P> slots = new AtomicReferenceArray<>(1024);
+
+        private int size = 0;
+
+        private PointerTable(Function<P, B> getBase, Function<P, JField> getField) {
+            this.getBase = getBase;
+            this.getField = getField;
+        }
+
+        private P getOrCreate(B base, JField field, BiFunction<B, JField, P> creator) {
+            P p = find(slots, base, field);
+            if (p == null) {
+                synchronized (this) {
+                    p = find(slots, base, field);
+                    if (p == null) {
+                        if ((size + 1) * 2 > slots.length()) {
+                            resize();
+                        }
+                        p = creator.apply(base, field);
+                        insert(slots, p);
+                        ++size;
+                    }
+                }
+            }
+            return p;
+        }
+
+        private P find(AtomicReferenceArray<P> array, B base, JField field) {
+            int mask = array.length() - 1;
+            for (int i = hash(base, field) & mask; ; i = (i + 1) & mask) {
+                P p = array.get(i);
+                if (p == null) {
+                    return null;
+                }
+                if (getBase.apply(p) == base && getField.apply(p) == field) {
+                    return p;
+                }
+            }
+        }
+
+        private void insert(AtomicReferenceArray<P> array, P p) {
+            int mask = array.length() - 1;
+            int i = hash(getBase.apply(p), getField.apply(p)) & mask;
+            while (array.get(i) != null) {
+                i = (i + 1) & mask;
+            }
+            array.set(i, p);
+        }
+
+        private void resize() {
+            AtomicReferenceArray<P> array = slots;
+            AtomicReferenceArray<P> newArray = new AtomicReferenceArray<>(array.length() * 2);
+            for (int i = 0; i < array.length(); ++i) {
+                P p = array.get(i);
+                if (p != null) {
+                    insert(newArray, p);
+                }
+            }
+            slots = newArray;
+        }
+
+        private static int hash(Indexable base, JField field) {
+            long key = ((long) base.getIndex() << 32)
+                    | (field == null ? 0 : System.identityHashCode(field) & 0xFFFFFFFFL);
+            key *= 0x9E3779B97F4A7C15L;
+            return (int) (key ^ (key >>> 32));
+        }
+
+        private Collection<P> values() {
+            AtomicReferenceArray<P> array = slots;
+            List<P> result = new ArrayList<>(size);
+            for (int i = 0; i < array.length(); ++i) {
+                P p = array.get(i);
+                if (p != null) {
+                    result.add(p);
+                }
+            }
+            return Collections.unmodifiableList(result);
+        }
+    }
+
     private static class CSObjManager implements Indexer<CSObj> {
 
         private final TwoKeyMap<Obj, Context, CSObj> objMap = Maps.newTwoKeyMap();
 
+        /**
+         * CSObjs of the empty heap context, indexed by {@link Obj#getIndex()}.
+         */
+        private volatile AtomicReferenceArray<CSObj> ciObjs = new AtomicReferenceArray<>(65536);
+
         private final TypeSystem typeSystem = World.get().getTypeSystem();
 
         private final Type throwable = typeSystem.getClassType(ClassNames.THROWABLE);
@@ -278,12 +506,45 @@ public class MapBasedCSManager implements CSManager {
         private CSObj[] objs = new CSObj[65536];
 
         CSObj getCSObj(Context heapContext, Obj obj) {
-            return objMap.computeIfAbsent(obj, heapContext, (o, c) -> {
-                int index = getCSObjIndex(o);
-                CSObj csObj = new CSObj(o, c, index);
-                storeCSObj(csObj, index);
-                return csObj;
-            });
+            if (heapContext.getLength() == 0 && obj.getIndex() >= 0) {
+                CSObj csObj = getCIObj(obj);
+                return csObj != null ? csObj : createCIObj(heapContext, obj);
+            }
+            synchronized (this) {
+                return objMap.computeIfAbsent(obj, heapContext, this::createCSObj);
+            }
+        }
+
+        private CSObj getCIObj(Obj obj) {
+            AtomicReferenceArray<CSObj> array = ciObjs;
+            int index = obj.getIndex();
+            return index < array.length() ? array.get(index) : null;
+        }
+
+        private synchronized CSObj createCIObj(Context heapContext, Obj obj) {
+            CSObj csObj = getCIObj(obj);
+            if (csObj == null) {
+                AtomicReferenceArray<CSObj> array = ciObjs;
+                int index = obj.getIndex();
+                if (index >= array.length()) {
+                    int newLength = Math.max(index + 1, (int) (array.length() * 1.5));
+                    AtomicReferenceArray<CSObj> newArray = new AtomicReferenceArray<>(newLength);
+                    for (int i = 0; i < array.length(); ++i) {
+                        newArray.set(i, array.get(i));
+                    }
+                    ciObjs = array = newArray;
+                }
+                csObj = createCSObj(obj, heapContext);
+                array.set(index, csObj);
+            }
+            return csObj;
+        }
+
+        private CSObj createCSObj(Obj obj, Context heapContext) {
+            int index = getCSObjIndex(obj);
+            CSObj csObj = new CSObj(obj, heapContext, index);
+            storeCSObj(csObj, index);
+            return csObj;
         }
 
         private int getCSObjIndex(Obj obj) {
@@ -310,13 +571,30 @@ public class MapBasedCSManager implements CSManager {
             objs[index] = csObj;
         }
 
-        Collection<CSObj> getObjects() {
-            return objMap.values();
+        synchronized Collection<CSObj> getObjects() {
+            List<CSObj> result = new ArrayList<>(objMap.values());
+            AtomicReferenceArray<CSObj> array = ciObjs;
+            for (int i = 0; i < array.length(); ++i) {
+                CSObj csObj = array.get(i);
+                if (csObj != null) {
+                    result.add(csObj);
+                }
+            }
+            return Collections.unmodifiableList(result);
         }
 
-        Collection<CSObj> getCSObjsOf(Obj obj) {
+        synchronized Collection<CSObj> getCSObjsOf(Obj obj) {
             var csObjs = objMap.get(obj);
-            return csObjs != null ? csObjs.values() : Set.of();
+            CSObj ciObj = obj.getIndex() >= 0 ? getCIObj(obj) : null;
+            if (ciObj == null) {
+                return csObjs != null ? csObjs.values() : Set.of();
+            } else if (csObjs == null) {
+                return Set.of(ciObj);
+            } else {
+                List<CSObj> result = new ArrayList<>(csObjs.values());
+                result.add(ciObj);
+                return Collections.unmodifiableList(result);
+            }
         }
 
         @Override
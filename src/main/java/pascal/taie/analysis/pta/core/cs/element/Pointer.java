@@ -24,6 +24,7 @@ package pascal.taie.analysis.pta.core.cs.element;
 
 import pascal.taie.analysis.graph.flowgraph.FlowKind;
 import pascal.taie.analysis.pta.core.solver.PointerFlowEdge;
+import pascal.taie.analysis.pta.core.solver.PointerFlowEdges;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.Indexable;
@@ -102,9 +103,18 @@ public interface Pointer extends Indexable {
     /**
      * @return out edges of this pointer in pointer flow graph.
      */
-    Set<PointerFlowEdge> getOutEdges();
+    PointerFlowEdges getOutEdges();
 
-    Set<PointerFlowEdge> getInEdges();
+    /**
+     * @return in edges of this pointer in pointer flow graph.
+     */
+    PointerFlowEdges getInEdges();
+
+    /**
+     * @return version of the in edges of this pointer, which increases
+     * whenever an in edge is added or removed.
+     */
+    int getInEdgeVersion();
 
     /**
      * @return out degree of this pointer in pointer flow graph.
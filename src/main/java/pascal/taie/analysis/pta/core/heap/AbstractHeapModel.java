@@ -46,6 +46,9 @@ import static pascal.taie.language.classes.ClassNames.*;
 /**
  * All heap models should inherit this class, and we can define
  * some uniform behaviors of heap modeling here.
+ * <br>
+ * Objects may be requested by several threads (e.g., when method summaries
+ * are built in parallel), so the methods creating objects are synchronized.
  */
 public abstract class AbstractHeapModel implements HeapModel {
 
@@ -133,7 +136,7 @@ public abstract class AbstractHeapModel implements HeapModel {
     }
 
     @Override
-    public Obj getObj(New allocSite) {
+    public synchronized Obj getObj(New allocSite) {
         Type type = allocSite.getRValue().getType();
         if (isMergeStringObjects && type.equals(string)) {
             return getMergedObj(allocSite);
@@ -173,7 +176,7 @@ public abstract class AbstractHeapModel implements HeapModel {
     protected abstract Obj doGetObj(New allocSite);
 
     @Override
-    public Obj getConstantObj(ReferenceLiteral value) {
+    public synchronized Obj getConstantObj(ReferenceLiteral value) {
         Obj obj = doGetConstantObj(value);
         if (value instanceof StringLiteral stringLiteral
                 && !isDistinguishedSC.test(stringLiteral.getString())) {
@@ -195,7 +198,7 @@ public abstract class AbstractHeapModel implements HeapModel {
     }
 
     @Override
-    public Obj getMockObj(Descriptor desc, Object alloc, Type type,
+    public synchronized Obj getMockObj(Descriptor desc, Object alloc, Type type,
                           JMethod container, boolean isFunctional) {
         MockObj mockObj = new MockObj(desc, alloc, type, container, isFunctional);
         return mockObjs.computeIfAbsent(mockObj, this::add);
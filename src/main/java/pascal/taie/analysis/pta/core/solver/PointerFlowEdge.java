@@ -43,7 +43,10 @@ public class PointerFlowEdge implements Edge<Pointer> {
 
     private int lineNumber;
 
-    private final Set<Transfer> transfers = Sets.newHybridSet();
+    /**
+     * Created on demand, as most edges have no transfers.
+     */
+    private Set<Transfer> transfers = Set.of();
 
     public PointerFlowEdge(FlowKind kind, Pointer source, Pointer target) {
         this.kind = kind;
@@ -120,7 +123,10 @@ public class PointerFlowEdge implements Edge<Pointer> {
         return this.lineNumber;
     }
 
-    public boolean addTransfer(Transfer transfer) {
+    public synchronized boolean addTransfer(Transfer transfer) {
+        if (transfers.isEmpty()) {
+            transfers = Sets.newHybridSet();
+        }
         return transfers.add(transfer);
     }
 
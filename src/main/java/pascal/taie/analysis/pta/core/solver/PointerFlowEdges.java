@@ -0,0 +1,102 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable snapshot of the in (or out) edges of a pointer, which is a view
+ * of the prefix of the edge array of the pointer. The pointer only appends
+ * edges after the prefix, and replaces its array for other modifications,
+ * so the snapshot is shared by all queries until the edges change.
+ * <br>
+ * Besides iteration, the edges can be visited by index via
+ * {@link #size()} and {@link #get(int)} without allocation.
+ */
+public final class PointerFlowEdges extends AbstractSet<PointerFlowEdge> {
+
+    private static final PointerFlowEdges EMPTY =
+            new PointerFlowEdges(new PointerFlowEdge[0], 0);
+
+    private final PointerFlowEdge[] edges;
+
+    private final int size;
+
+    private PointerFlowEdges(PointerFlowEdge[] edges, int size) {
+        this.edges = edges;
+        this.size = size;
+    }
+
+    /**
+     * @return snapshot of the first {@code size} edges in given array,
+     * which must not be modified afterwards.
+     */
+    public static PointerFlowEdges of(PointerFlowEdge[] edges, int size) {
+        return size == 0 ? EMPTY : new PointerFlowEdges(edges, size);
+    }
+
+    public PointerFlowEdge get(int i) {
+        if (i >= size) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        return edges[i];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        for (int i = 0; i < size; ++i) {
+            if (edges[i].equals(o)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<PointerFlowEdge> iterator() {
+        return new Iterator<>() {
+
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < size;
+            }
+
+            @Override
+            public PointerFlowEdge next() {
+                if (i >= size) {
+                    throw new NoSuchElementException();
+                }
+                return edges[i++];
+            }
+        };
+    }
+}
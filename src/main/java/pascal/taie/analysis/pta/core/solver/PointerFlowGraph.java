@@ -24,19 +24,19 @@ package pascal.taie.analysis.pta.core.solver;
 
 import pascal.taie.analysis.graph.flowgraph.FlowKind;
 import pascal.taie.analysis.pta.core.cs.element.*;
-import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
 import pascal.taie.util.collection.TwoKeyMap;
 import pascal.taie.util.collection.Views;
 import pascal.taie.util.graph.Edge;
 import pascal.taie.util.graph.Graph;
 
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -47,20 +47,34 @@ public class PointerFlowGraph implements Graph<Pointer> {
 
     private final CSManager csManager;
 
-    private Map<JField, Set<PointerFlowEdge>> fieldMatchEdges;
+    /**
+     * INSTANCE_STORE edges to instance fields, indexed by the field
+     * and then the alias key of the base variable.
+     */
+    private TwoKeyMap<JField, Object, Set<PointerFlowEdge>> fieldMatchEdges;
 
-    private TwoKeyMap<JClass, Type, Set<PointerFlowEdge>> arrayMatchEdges;
+    /**
+     * INSTANCE_STORE edges to array indexes, indexed by the alias key
+     * of the array variable.
+     */
+    private Map<Object, Set<PointerFlowEdge>> arrayMatchEdges;
 
-    private Map<PointerFlowEdge, String> ifRangeMap;
+    /**
+     * If ranges packed by {@link #packIfRange(int, int)}.
+     */
+    private Map<PointerFlowEdge, Long> ifRangeMap;
 
     private Map<PointerFlowEdge, JMethod> ifContainer;
 
+    private final AtomicInteger ifRangeVersion = new AtomicInteger();
+
     public PointerFlowGraph(CSManager csManager) {
         this.csManager = csManager;
-        this.fieldMatchEdges = Maps.newMap();
-        this.arrayMatchEdges = Maps.newTwoKeyMap();
-        this.ifRangeMap = Maps.newMap();
-        this.ifContainer = Maps.newMap();
+        // edges may be added by several threads building summaries
+        this.fieldMatchEdges = Maps.newTwoKeyMap(Maps.newConcurrentMap(), Maps::newConcurrentMap);
+        this.arrayMatchEdges = Maps.newConcurrentMap();
+        this.ifRangeMap = Maps.newConcurrentMap();
+        this.ifContainer = Maps.newConcurrentMap();
     }
 
     /**
@@ -76,19 +90,15 @@ public class PointerFlowGraph implements Graph<Pointer> {
     public PointerFlowEdge addEdge(PointerFlowEdge edge) {
         if (edge.kind() == FlowKind.INSTANCE_STORE) {
             if (edge.target() instanceof InstanceField iField) {
-                JField field = iField.getField();
-                fieldMatchEdges.computeIfAbsent(field, f -> new HashSet<>()).add(edge);
-            } else if (edge.target() instanceof ArrayIndex varArray) {
-                CSVar base = varArray.getArrayVar();
-                Type type = base.getType();
-                JClass jClass = base.getVar().getMethod().getDeclaringClass();
-                if (arrayMatchEdges.containsKey(jClass, type)) {
-                    arrayMatchEdges.get(jClass, type).add(edge);
-                } else {
-                    Set<PointerFlowEdge> set = new HashSet<>();
-                    set.add(edge);
-                    arrayMatchEdges.put(jClass, type, set);
+                Object key = aliasKey(iField.getBaseVar());
+                Set<PointerFlowEdge> set;
+                synchronized (fieldMatchEdges) {
+                    set = fieldMatchEdges.computeIfAbsent(iField.getField(), key, (f, k) -> Sets.newConcurrentSet());
                 }
+                set.add(edge);
+            } else if (edge.target() instanceof ArrayIndex varArray) {
+                Object key = aliasKey(varArray.getArrayVar());
+                arrayMatchEdges.computeIfAbsent(key, k -> Sets.newConcurrentSet()).add(edge);
             }
         }
         return edge.target().addEdge(edge);
@@ -124,24 +134,76 @@ public class PointerFlowGraph implements Graph<Pointer> {
         return pointers().collect(Collectors.toUnmodifiableSet());
     }
 
-    public Set<PointerFlowEdge> getMatchEdges(JField field) {
-        return fieldMatchEdges.getOrDefault(field, Set.of());
+    /**
+     * @return the INSTANCE_STORE edges whose targets may alias the given
+     * instance field or array index, i.e., they access the same field
+     * of the same base variable, or of {@code this} variables of the same type.
+     */
+    public Set<PointerFlowEdge> getMatchEdges(Pointer pointer) {
+        if (pointer instanceof InstanceField iField) {
+            return fieldMatchEdges.getOrDefault(iField.getField(),
+                    aliasKey(iField.getBaseVar()), Set.of());
+        } else if (pointer instanceof ArrayIndex arrayIndex) {
+            return arrayMatchEdges.getOrDefault(
+                    aliasKey(arrayIndex.getArrayVar()), Set.of());
+        } else {
+            return Set.of();
+        }
     }
 
-    public Set<PointerFlowEdge> getMatchEdges(JClass jClass, Type type) {
-        return arrayMatchEdges.getOrDefault(jClass, type, Set.of());
+    /**
+     * @return the key of a base variable, such that the bases of two
+     * aliased accesses have equal keys.
+     */
+    private static Object aliasKey(CSVar base) {
+        return base.getVar().getName().equals("%this")
+                ? new ThisKey(base.getType()) : base;
+    }
+
+    /**
+     * Alias key of all {@code this} variables of the same type.
+     */
+    private record ThisKey(Type type) {
     }
 
     public void addIfRange(PointerFlowEdge edge, int ifStart, int ifEnd, JMethod method) {
         if (ifStart != -1 && ifEnd != -1) {
-            String ifRange = ifStart + "->" + ifEnd;
-            ifRangeMap.put(edge, ifRange);
-            ifContainer.put(edge, method);
+            long ifRange = packIfRange(ifStart, ifEnd);
+            Long oldRange = ifRangeMap.put(edge, ifRange);
+            JMethod oldContainer = ifContainer.put(edge, method);
+            if ((oldRange != null && oldRange != ifRange)
+                    || (oldContainer != null && !oldContainer.equals(method))) {
+                ifRangeVersion.incrementAndGet();
+            }
         }
     }
 
-    public String getIfRange(PointerFlowEdge edge) {
-        return ifRangeMap.getOrDefault(edge, "-1");
+    /**
+     * @return version of the if ranges, which increases whenever the
+     * if range of an existing edge changes.
+     */
+    public int getIfRangeVersion() {
+        return ifRangeVersion.get();
+    }
+
+    /**
+     * @return the if range of given edge packed by {@link #packIfRange(int, int)},
+     * or {@code -1} if the edge is not in any if range.
+     */
+    public long getIfRange(PointerFlowEdge edge) {
+        return ifRangeMap.getOrDefault(edge, -1L);
+    }
+
+    public static long packIfRange(int ifStart, int ifEnd) {
+        return ((long) ifStart << 32) | (ifEnd & 0xFFFFFFFFL);
+    }
+
+    public static int getIfStart(long ifRange) {
+        return (int) (ifRange >> 32);
+    }
+
+    public static int getIfEnd(long ifRange) {
+        return (int) ifRange;
     }
 
     public JMethod getIfContainer(PointerFlowEdge edge) {
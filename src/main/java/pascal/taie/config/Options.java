@@ -222,6 +222,18 @@ public class Options implements Serializable {
         return worldCacheMode;
     }
 
+    @JsonProperty
+    @Option(names = {"-lw", "--lazy-world"},
+            description = "Build only the classes of the sources at first,"
+                    + " and build other classes when they are referenced"
+                    + " (default: ${DEFAULT-VALUE})",
+            defaultValue = "false")
+    private boolean lazyWorld;
+
+    public boolean isLazyWorld() {
+        return lazyWorld;
+    }
+
     @JsonProperty
     @Option(names = "-scope",
             description = "Scope for method/class analyses (default: ${DEFAULT-VALUE}," +
@@ -272,6 +284,48 @@ public class Options implements Serializable {
         return GC_OUT;
     }
 
+    @JsonProperty
+    @Option(names = {"-gf", "--GC_FORMAT"},
+            description = "format of gadget chains output, text or jsonl" +
+                    " (default: ${DEFAULT-VALUE})",
+            defaultValue = "text")
+    private String GC_FORMAT;
+
+    public String getGC_FORMAT() {
+        return GC_FORMAT != null ? GC_FORMAT : "text";
+    }
+
+    @JsonProperty
+    @Option(names = {"-gus", "--GC_UNIQUE_SOURCE_SINK"},
+            description = "only output the first gadget chain of each" +
+                    " (source, sink) pair",
+            defaultValue = "false")
+    private boolean GC_UNIQUE_SOURCE_SINK;
+
+    public boolean isGC_UNIQUE_SOURCE_SINK() {
+        return GC_UNIQUE_SOURCE_SINK;
+    }
+
+    @JsonProperty
+    @Option(names = {"-gk", "--GC_KEYWORDS"},
+            description = "only output the gadget chains containing a method" +
+                    " whose signature contains any of the keywords")
+    private List<String> GC_KEYWORDS;
+
+    public List<String> getGC_KEYWORDS() {
+        return GC_KEYWORDS != null ? GC_KEYWORDS : List.of();
+    }
+
+    @JsonProperty
+    @Option(names = {"-gs", "--GC_SINKS"},
+            description = "signatures of the sinks whose gadget chains are" +
+                    " searched, all sinks are searched if not given")
+    private List<String> GC_SINKS;
+
+    public List<String> getGC_SINKS() {
+        return GC_SINKS != null ? GC_SINKS : List.of();
+    }
+
     @JsonProperty
     @Option(names = {"-fns", "--filterNonSerializable"},
             description = "filter method by isSerializable")
@@ -299,6 +353,15 @@ public class Options implements Serializable {
         return MAX_PER_SINK;
     }
 
+    @JsonProperty
+    @Option(names = {"-mpp", "--GC_MAX_PATHS_PER_SINK"},
+            description = "the max count of paths explored per sink, 0 for no limit")
+    private int GC_MAX_PATHS_PER_SINK;
+
+    public int getGC_MAX_PATHS_PER_SINK() {
+        return GC_MAX_PATHS_PER_SINK;
+    }
+
     @JsonProperty
     @Option(names = {"-pct", "--PATH_COLLECT_TIME"},
             description = "the max time of collecting paths")
@@ -562,14 +625,20 @@ public class Options implements Serializable {
                 ", outputDir='" + outputDir + '\'' +
                 ", preBuildIR=" + preBuildIR +
                 ", worldCacheMode=" + worldCacheMode +
+                ", lazyWorld=" + lazyWorld +
                 ", scope=" + scope +
                 ", nativeModel=" + nativeModel +
                 ", planFile=" + planFile +
                 ", sources=" + sources +
                 ", GC_OUT=" + GC_OUT +
+                ", GC_FORMAT=" + GC_FORMAT +
+                ", GC_UNIQUE_SOURCE_SINK=" + GC_UNIQUE_SOURCE_SINK +
+                ", GC_KEYWORDS=" + GC_KEYWORDS +
+                ", GC_SINKS=" + GC_SINKS +
                 ", filterNonSerializable=" + filterNonSerializable +
                 ", GC_MAX_LEN=" + GC_MAX_LEN +
                 ", GC_MAX_PER_SINK=" + MAX_PER_SINK +
+                ", GC_MAX_PATHS_PER_SINK=" + GC_MAX_PATHS_PER_SINK +
                 ", PATH_COLLECT_TIME=" + PATH_COLLECT_TIME +
                 ", analyses=" + analyses +
                 ", onlyGenPlan=" + onlyGenPlan +
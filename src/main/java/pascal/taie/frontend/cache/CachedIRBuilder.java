@@ -0,0 +1,80 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.IRBuildHelper;
+import pascal.taie.ir.IRBuilder;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+
+/**
+ * IR builder which holds the prebuilt IR of all concrete methods.
+ * It is serialized together with the world, so that the IR of a cached
+ * world is available without running the frontend.
+ *
+ * @see CachedWorldBuilder
+ */
+public class CachedIRBuilder implements IRBuilder {
+
+    private static final Logger logger = LogManager.getLogger(CachedIRBuilder.class);
+
+    /**
+     * Method signature -> IR.
+     */
+    private final Map<String, IR> methodSig2IR;
+
+    public CachedIRBuilder(IRBuilder irBuilder, ClassHierarchy hierarchy) {
+        if (irBuilder instanceof CachedIRBuilder cached) {
+            methodSig2IR = cached.methodSig2IR;
+            return;
+        }
+        irBuilder.buildAll(hierarchy);
+        methodSig2IR = Maps.newMap();
+        hierarchy.allClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .forEach(m -> methodSig2IR.put(m.getSignature(), m.getIR()));
+    }
+
+    @Override
+    public IR buildIR(JMethod method) {
+        IR ir = methodSig2IR.get(method.getSignature());
+        if (ir == null) {
+            logger.warn("IR of {} is not in the world cache," +
+                    " constructs an empty IR instead", method);
+            ir = new IRBuildHelper(method).buildEmpty();
+        }
+        return ir;
+    }
+
+    @Override
+    public void buildAll(ClassHierarchy hierarchy) {
+        // all IR has been built
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.AbstractWorldBuilder;
+import pascal.taie.World;
+import pascal.taie.WorldBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.Options;
+import pascal.taie.util.Timer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static pascal.taie.util.Hashes.FNV64_OFFSET;
+import static pascal.taie.util.Hashes.fnv64;
+
+/**
+ * World builder which caches the built world (including the class hierarchy,
+ * type system and IR of all methods) to the disk, and loads the world from
+ * the cache in later runs instead of running the delegate builder.
+ * <p>
+ * The cache is keyed by the content of the class path (the CRC of the jar
+ * entries and of the files in class directories) and the options used to
+ * build the world, so a change of any input class results in a new cache.
+ */
+public class CachedWorldBuilder implements WorldBuilder {
+
+    private static final Logger logger = LogManager.getLogger(CachedWorldBuilder.class);
+
+    private static final String CACHE_DIR = "cache";
+
+    private final WorldBuilder delegate;
+
+    public CachedWorldBuilder(WorldBuilder delegate) {
+        this.delegate = delegate;
+        logger.info("World cache mode is enabled");
+    }
+
+    @Override
+    public void build(Options options, List<AnalysisConfig> analyses) {
+        File cacheFile = getWorldCacheFile(getWorldCacheHash(options));
+        if (loadCache(options, cacheFile)) {
+            return;
+        }
+        runWorldBuilder(options, analyses);
+        saveCache(cacheFile);
+    }
+
+    private boolean loadCache(Options options, File cacheFile) {
+        if (!cacheFile.exists()) {
+            logger.info("World cache not found in {}", cacheFile);
+            return false;
+        }
+        logger.info("Loading the world cache from {}", cacheFile);
+        Timer timer = new Timer("Load the world cache");
+        timer.start();
+        try (ObjectInputStream ois = new ObjectInputStream(
+                new BufferedInputStream(Files.newInputStream(cacheFile.toPath()), 1 << 16))) {
+            World.reset();
+            World world = (World) ois.readObject();
+            World.set(world);
+            world.setOptions(options);
+            return true;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            logger.error("Failed to load the world cache from {} due to {}", cacheFile, e);
+            World.reset();
+            return false;
+        } finally {
+            timer.stop();
+            logger.info(timer);
+        }
+    }
+
+    private void runWorldBuilder(Options options, List<AnalysisConfig> analyses) {
+        logger.info("Running the {} ...", delegate.getClass().getName());
+        Timer timer = new Timer("Run the " + delegate.getClass().getSimpleName());
+        timer.start();
+        delegate.build(options, analyses);
+        timer.stop();
+        logger.info(timer);
+    }
+
+    private void saveCache(File cacheFile) {
+        logger.info("Saving the world cache to {}", cacheFile);
+        Timer timer = new Timer("Save the world cache");
+        timer.start();
+        // write to a temporary file first, so that an interrupted run
+        // does not leave a broken cache
+        Path tmp = cacheFile.toPath().resolveSibling(cacheFile.getName() + ".tmp");
+        try (ObjectOutputStream oos = new ObjectOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            oos.writeObject(World.get());
+        } catch (IOException e) {
+            logger.error("Failed to save the world cache to {} due to {}", cacheFile, e);
+            tmp.toFile().delete();
+            return;
+        } finally {
+            timer.stop();
+            logger.info(timer);
+        }
+        try {
+            Files.move(tmp, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.error("Failed to save the world cache to {} due to {}", cacheFile, e);
+        }
+    }
+
+    /**
+     * @return hash of the class path content and the options which
+     * affect the built world.
+     */
+    private static long getWorldCacheHash(Options options) {
+        Timer timer = new Timer("Hash the class path");
+        timer.start();
+        long hash = FNV64_OFFSET;
+        hash = fnv64(hash, options.getWorldBuilderClass().getName());
+        hash = fnv64(hash, String.valueOf(options.getJavaVersion()));
+        hash = fnv64(hash, String.valueOf(options.isPrependJVM()));
+        hash = fnv64(hash, String.valueOf(options.isAllowPhantom()));
+        hash = fnv64(hash, String.valueOf(options.enableNativeModel()));
+        hash = fnv64(hash, String.valueOf(options.getMainClass()));
+        hash = fnv64(hash, String.valueOf(options.getSources()));
+        for (String inputClass : options.getInputClasses()) {
+            hash = fnv64(hash, inputClass);
+            if (inputClass.endsWith(".txt")) {
+                hash = hashFile(hash, Path.of(inputClass));
+            }
+        }
+        for (String entry : AbstractWorldBuilder.getClassPath(options).split(File.pathSeparator)) {
+            if (entry.isBlank()) continue;
+            Path path = Path.of(entry);
+            hash = fnv64(hash, entry);
+            if (Files.isDirectory(path)) {
+                hash = hashDirectory(hash, path);
+            } else if (Files.isRegularFile(path)) {
+                hash = hashJar(hash, path);
+            }
+        }
+        timer.stop();
+        logger.info(timer);
+        return hash;
+    }
+
+    /**
+     * Hashes the names and CRCs of the entries in the jar, which are
+     * stored in its central directory, so the entries are not read.
+     */
+    private static long hashJar(long hash, Path jar) {
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                hash = fnv64(hash, entry.getName());
+                hash = fnv64(hash, entry.getCrc());
+            }
+        } catch (IOException e) {
+            // not a jar, e.g., a single class file
+            hash = hashFile(hash, jar);
+        }
+        return hash;
+    }
+
+    private static long hashDirectory(long hash, Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path file : paths.filter(Files::isRegularFile).sorted().toList()) {
+                hash = fnv64(hash, dir.relativize(file).toString());
+                hash = hashFile(hash, file);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to hash {} due to {}", dir, e);
+        }
+        return hash;
+    }
+
+    private static long hashFile(long hash, Path file) {
+        CRC32 crc = new CRC32();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[1 << 16];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                crc.update(buffer, 0, n);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to hash {} due to {}", file, e);
+        }
+        return fnv64(hash, crc.getValue());
+    }
+
+    private static File getWorldCacheFile(long hash) {
+        File dir = new File(CACHE_DIR);
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        return new File(dir, "world-cache-" + Long.toHexString(hash) + ".bin")
+                .getAbsoluteFile();
+    }
+}
@@ -27,10 +27,15 @@ import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JClassLoader;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
 import soot.Scene;
 import soot.SootClass;
+import soot.SootMethod;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 public class SootClassLoader implements JClassLoader {
 
@@ -40,9 +45,58 @@ public class SootClassLoader implements JClassLoader {
 
     private final boolean allowPhantom;
 
+    /**
+     * Whether the classes are loaded when they are referenced.
+     */
+    private final boolean lazy;
+
     private transient Converter converter;
 
-    private final Map<String, JClass> classes = Maps.newMap(1024);
+    private final Map<String, JClass> classes = Maps.newConcurrentMap(1024);
+
+    /**
+     * Classes built by {@link #loadClasses(List)} which are not registered
+     * yet, mapped to whether they implement InvocationHandler, or null if
+     * the classes are registered as soon as they are built.
+     */
+    private volatile Map<JClass, Boolean> unregistered;
+
+    /**
+     * Classes which are being built in lazy mode. They are moved to
+     * {@link #classes} after they are registered, so that other threads
+     * do not see them before they are complete.
+     */
+    private final Map<String, JClass> building = Maps.newMap();
+
+    /**
+     * Names of the direct subclasses, subinterfaces and implementors
+     * of each class which are not loaded yet in lazy mode.
+     */
+    private transient Map<String, List<String>> unloadedSubclasses;
+
+    /**
+     * Name -> classes declaring non-abstract and non-private methods of
+     * the name, of the classes which are not loaded yet in lazy mode.
+     * It is built under its own lock, as it is queried by the index of
+     * reflective call targets, which may be built while this loader
+     * registers a class.
+     */
+    private transient volatile Map<String, List<String>> unloadedMethods;
+
+    private final transient Object unloadedMethodsLock = new Object();
+
+    /**
+     * Classes which are serializable as subtypes of the classes implementing
+     * java.io.Serializable in lazy mode.
+     */
+    private final Set<JClass> serializableSubtypes = Sets.newSet();
+
+    /**
+     * Supertypes which are not registered yet -> their registered direct
+     * subtypes in lazy mode. A class may be registered before its supertypes
+     * if it is loaded while building them.
+     */
+    private final MultiMap<JClass, JClass> unregisteredSupertypes = Maps.newMultiMap();
 
     private List<String> sources;
 
@@ -52,12 +106,16 @@ public class SootClassLoader implements JClassLoader {
             "java.lang.Object readSolve()"
             );
 
+    private static final String SERIALIZABLE = "java.io.Serializable";
+
     private static String invokeSubSig = "java.lang.Object invoke(java.lang.Object,java.lang.reflect.Method,java.lang.Object[])";
 
-    SootClassLoader(Scene scene, ClassHierarchy hierarchy, boolean allowPhantom, List<String> sources) {
+    SootClassLoader(Scene scene, ClassHierarchy hierarchy, boolean allowPhantom,
+                    boolean lazy, List<String> sources) {
         this.scene = scene;
         this.hierarchy = hierarchy;
         this.allowPhantom = allowPhantom;
+        this.lazy = lazy;
         this.sources = sources;
     }
 
@@ -65,35 +123,288 @@ public class SootClassLoader implements JClassLoader {
     public JClass loadClass(String name) {
         JClass jclass = classes.get(name);
         if (jclass == null && scene != null) {
-            SootClass sootClass = scene.getSootClassUnsafe(name, false);
-            if (sootClass != null && (!sootClass.isPhantom() || allowPhantom)) {
-                // TODO: handle phantom class more comprehensively
-                jclass = new JClass(this, sootClass.getName(),
-                        sootClass.moduleName);
-                // New class must be put into classes map at first,
-                // at build(jclass) may also trigger the loading of
-                // the new created class. Not putting the class into classes
-                // may cause infinite recursion.
-                classes.put(name, jclass);
-                new SootClassBuilder(converter, sootClass).build(jclass);
-                hierarchy.addClass(jclass);
+            if (lazy) {
+                // classes are loaded during the analysis in lazy mode,
+                // thus they are built one at a time
+                synchronized (this) {
+                    jclass = classes.get(name);
+                    if (jclass == null) {
+                        jclass = building.get(name);
+                    }
+                    if (jclass == null) {
+                        jclass = newClass(name, building);
+                    }
+                }
+            } else {
+                jclass = newClass(name, classes);
+            }
+        }
+        // TODO: add warning for missing classes
+        return jclass;
+    }
 
-                boolean isSerImpl = sootClass.implementsInterface("java.io.Serializable");
+    private JClass newClass(String name, Map<String, JClass> loading) {
+        JClass jclass = null;
+        SootClass sootClass = scene.getSootClassUnsafe(name, false);
+        if (sootClass != null && (!sootClass.isPhantom() || allowPhantom)) {
+            // TODO: handle phantom class more comprehensively
+            JClass newClass = new JClass(this, sootClass.getName(),
+                    sootClass.moduleName);
+            // New class must be put into classes map at first,
+            // at build(jclass) may also trigger the loading of
+            // the new created class. Not putting the class into classes
+            // may cause infinite recursion.
+            // When classes are loaded in parallel, the class that is
+            // put first wins, and the other threads may see it before
+            // it is built, which is fine as the builder only refers to
+            // other classes by themselves.
+            jclass = loading.putIfAbsent(name, newClass);
+            if (jclass == null) {
+                jclass = newClass;
+                new SootClassBuilder(converter, sootClass).build(jclass);
+                boolean isSerImpl = sootClass.implementsInterface(SERIALIZABLE);
                 if (isSerImpl) jclass.setSerializable();
                 boolean isInvokeImpl = sootClass.implementsInterface("java.lang.reflect.InvocationHandler");
-                jclass.getDeclaredMethods().forEach(m -> {
-                    if (sources.contains(m.getSignature()) ||
-                            (sources.contains("serializable") && readSubSigList.contains(m.getSubsignature().toString()))) {
-                        World.get().addGCEntry(m);
+                Map<JClass, Boolean> pending = unregistered;
+                if (pending != null) {
+                    pending.put(jclass, isInvokeImpl);
+                } else {
+                    register(jclass, isInvokeImpl);
+                }
+                if (loading != classes) {
+                    classes.put(name, jclass);
+                    loading.remove(name);
+                }
+            }
+        }
+        return jclass;
+    }
+
+    /**
+     * Loads given classes in parallel. The loaded classes are added to
+     * the class hierarchy and the world after all of them are built,
+     * in the order of given names (followed by the classes loaded on demand,
+     * sorted by name), so that the indexes of the classes and the order of
+     * GC entries do not depend on the scheduling of the threads.
+     * In lazy mode, the classes are loaded one by one.
+     */
+    void loadClasses(List<String> names) {
+        if (lazy) {
+            names.forEach(this::loadClass);
+            return;
+        }
+        Map<JClass, Boolean> pending = Maps.newConcurrentMap(names.size());
+        unregistered = pending;
+        ForkJoinPool pool = new ForkJoinPool(
+                Runtime.getRuntime().availableProcessors());
+        try {
+            pool.submit(() -> names.parallelStream().forEach(this::loadClass))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re
+                    ? re : new RuntimeException(e.getCause());
+        } finally {
+            unregistered = null;
+            pool.shutdown();
+        }
+        for (String name : names) {
+            JClass jclass = classes.get(name);
+            Boolean isInvokeImpl = jclass == null ? null : pending.remove(jclass);
+            if (isInvokeImpl != null) {
+                register(jclass, isInvokeImpl);
+            }
+        }
+        pending.keySet()
+                .stream()
+                .sorted(Comparator.comparing(JClass::getName))
+                .forEach(jclass -> register(jclass, pending.get(jclass)));
+    }
+
+    /**
+     * Adds a built class to the class hierarchy, and its entries and
+     * invocation handlers to the world.
+     */
+    private void register(JClass jclass, boolean isInvokeImpl) {
+        if (lazy) {
+            updateSerializable(jclass);
+        }
+        hierarchy.addClass(jclass);
+        if (lazy) {
+            World.get().indexClass(jclass);
+        }
+        jclass.getDeclaredMethods().forEach(m -> {
+            if (sources.contains(m.getSignature()) ||
+                    (sources.contains("serializable") && readSubSigList.contains(m.getSubsignature().toString()))) {
+                World.get().addGCEntry(m);
+            }
+            if (m.getSubsignature().toString().equals(invokeSubSig) && isInvokeImpl) {
+                World.get().addInvocationHandlerMethod(m);
+            }
+        });
+    }
+
+    /**
+     * Marks the classes like Main.setSerializable, which is done after
+     * all classes are loaded in eager mode: the subtypes of the classes
+     * implementing java.io.Serializable are serializable, and so are
+     * their superclasses and the direct interfaces of them.
+     * The supertypes marked in this way do not make their subtypes
+     * serializable. In eager mode, they do so only if they are visited
+     * later than the marking class, which depends on the loading order,
+     * e.g., java.lang.Object is marked as the superclass of any
+     * serializable interface, and all classes would be serializable.
+     * The subtypes registered before their supertypes are marked
+     * when the supertypes are registered.
+     */
+    private void updateSerializable(JClass jclass) {
+        List<JClass> supertypes = new ArrayList<>(jclass.getInterfaces());
+        supertypes.add(jclass.getSuperClass());
+        supertypes.removeIf(Objects::isNull);
+        boolean serializable = false;
+        for (JClass supertype : supertypes) {
+            if (supertype.getName().equals(SERIALIZABLE)
+                    || serializableSubtypes.contains(supertype)) {
+                serializable = true;
+            }
+            if (classes.get(supertype.getName()) != supertype) {
+                unregisteredSupertypes.put(supertype, jclass);
+            }
+        }
+        if (serializable) {
+            Deque<JClass> workList = new ArrayDeque<>();
+            workList.add(jclass);
+            while (!workList.isEmpty()) {
+                JClass c = workList.poll();
+                if (serializableSubtypes.add(c)) {
+                    c.setSerializable();
+                    setSuperSerializable(c);
+                    workList.addAll(unregisteredSupertypes.get(c));
+                }
+            }
+        }
+        unregisteredSupertypes.removeAll(jclass);
+    }
+
+    /**
+     * Same as Main.setSuperSerializable.
+     */
+    private static void setSuperSerializable(JClass c) {
+        JClass superClass = c.getSuperClass();
+        if (superClass != null && !superClass.isSerializable()) {
+            superClass.setSerializable();
+            setSuperSerializable(superClass);
+        }
+        c.getInterfaces()
+                .stream()
+                .filter(Objects::nonNull)
+                .forEach(JClass::setSerializable);
+    }
+
+    /**
+     * @return true if given class declares an entry of the gadget chains
+     * or an invocation handler, which are loaded at first in lazy mode.
+     */
+    boolean isEntryClass(SootClass sootClass) {
+        if (sootClass.isPhantom() && !allowPhantom) {
+            return false;
+        }
+        boolean isInvokeImpl = sootClass.implementsInterface("java.lang.reflect.InvocationHandler");
+        for (SootMethod m : sootClass.getMethods()) {
+            String subsig = m.getSubSignature();
+            if (sources.contains(m.getSignature()) ||
+                    (sources.contains("serializable") && readSubSigList.contains(subsig)) ||
+                    (isInvokeImpl && subsig.equals(invokeSubSig))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    @Override
+    public void loadDirectSubclassesOf(JClass jclass) {
+        if (lazy && scene != null) {
+            synchronized (this) {
+                if (unloadedSubclasses == null) {
+                    unloadedSubclasses = Maps.newMap(scene.getClasses().size());
+                    for (SootClass c : scene.getClasses()) {
+                        if (c.hasSuperclass()) {
+                            unloadedSubclasses.computeIfAbsent(c.getSuperclass().getName(),
+                                    __ -> new ArrayList<>()).add(c.getName());
+                        }
+                        c.getInterfaces().forEach(i -> unloadedSubclasses
+                                .computeIfAbsent(i.getName(), __ -> new ArrayList<>())
+                                .add(c.getName()));
                     }
-                    if (m.getSubsignature().toString().equals(invokeSubSig) && isInvokeImpl) {
-                        World.get().addInvocationHandlerMethod(m);
+                }
+                List<String> names = unloadedSubclasses.remove(jclass.getName());
+                if (names != null) {
+                    names.forEach(this::loadClass);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Collection<String> getUnloadedClassNames() {
+        if (!lazy || scene == null) {
+            return List.of();
+        }
+        return scene.getClasses()
+                .stream()
+                .map(SootClass::getName)
+                .filter(name -> !classes.containsKey(name))
+                .toList();
+    }
+
+    @Override
+    public Collection<String> getUnloadedMethodNames() {
+        return lazy && scene != null ? getUnloadedMethods().keySet() : List.of();
+    }
+
+    @Override
+    public void loadClassesDeclaring(String methodName) {
+        if (lazy && scene != null) {
+            List<String> names = getUnloadedMethods().remove(methodName);
+            if (names != null) {
+                names.forEach(this::loadClass);
+            }
+        }
+    }
+
+    private Map<String, List<String>> getUnloadedMethods() {
+        Map<String, List<String>> result = unloadedMethods;
+        if (result == null) {
+            synchronized (unloadedMethodsLock) {
+                result = unloadedMethods;
+                if (result == null) {
+                    result = Maps.newConcurrentMap();
+                    for (SootClass c : scene.getClasses()) {
+                        if (classes.containsKey(c.getName())) {
+                            continue;
+                        }
+                        for (SootMethod m : c.getMethods()) {
+                            if (!m.isAbstract() && !m.isPrivate()) {
+                                List<String> names = result.computeIfAbsent(
+                                        m.getName(), __ -> new ArrayList<>());
+                                if (names.isEmpty() || !names.get(names.size() - 1).equals(c.getName())) {
+                                    names.add(c.getName());
+                                }
+                            }
+                        }
                     }
-                });
+                    unloadedMethods = result;
+                }
             }
         }
-        // TODO: add warning for missing classes
-        return jclass;
+        return result;
     }
 
     @Override
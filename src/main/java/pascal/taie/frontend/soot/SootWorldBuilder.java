@@ -43,6 +43,7 @@ import soot.G;
 import soot.PackManager;
 import soot.Scene;
 import soot.SceneTransformer;
+import soot.SootClass;
 import soot.SootResolver;
 import soot.Transform;
 
@@ -169,7 +170,8 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
         // initialize class hierarchy
         ClassHierarchy hierarchy = new ClassHierarchyImpl();
         SootClassLoader loader = new SootClassLoader(
-                scene, hierarchy, options.isAllowPhantom(), options.getSources());
+                scene, hierarchy, options.isAllowPhantom(),
+                options.isLazyWorld(), options.getSources());
         hierarchy.setDefaultClassLoader(loader);
         hierarchy.setBootstrapClassLoader(loader);
         world.setClassHierarchy(hierarchy);
@@ -211,9 +213,13 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
     }
 
     protected static void buildClasses(ClassHierarchy hierarchy, Scene scene) {
-        // TODO: parallelize?
-        new ArrayList<>(scene.getClasses()).forEach(c ->
-                hierarchy.getDefaultClassLoader().loadClass(c.getName()));
+        SootClassLoader loader = (SootClassLoader) hierarchy.getDefaultClassLoader();
+        Stream<SootClass> classes = scene.getClasses().stream();
+        if (loader.isLazy()) {
+            // other classes are loaded when they are referenced
+            classes = classes.filter(loader::isEntryClass);
+        }
+        loader.loadClasses(classes.map(SootClass::getName).toList());
     }
 
     private static void runSoot(String[] args) {
@@ -84,13 +84,26 @@ public class ClassHierarchyImpl implements ClassHierarchy {
     /**
      * Cache results of method dispatch.
      */
-    private final TwoKeyMap<JClass, Subsignature, JMethod> dispatchTable = Maps.newTwoKeyMap();
+    private final TwoKeyMap<JClass, Subsignature, JMethod> dispatchTable
+            = Maps.newTwoKeyMap(Maps.newConcurrentMap(), Maps::newConcurrentMap);
 
     /**
      * Cache results of {@link #getAllSubclassesOf(JClass)}.
      */
     private final Map<JClass, Set<JClass>> allSubclasses = Maps.newConcurrentMap();
 
+    /**
+     * Number of changes of this hierarchy, which is used to avoid caching
+     * the subclasses computed before a class is added.
+     */
+    private int version;
+
+    /**
+     * Encoding for subclass checks, which is built on demand after
+     * the classes are added.
+     */
+    private transient volatile HierarchyEncoding encoding;
+
     @Override
     public void setDefaultClassLoader(JClassLoader loader) {
         this.defaultLoader = loader;
@@ -122,7 +135,7 @@ public class ClassHierarchyImpl implements ClassHierarchy {
     }
 
     @Override
-    public void addClass(JClass jclass) {
+    public synchronized void addClass(JClass jclass) {
         // Add direct subinterface
         if (jclass.isInterface()) {
             jclass.getInterfaces().forEach(iface ->
@@ -149,7 +162,9 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         classes.add(jclass);
         // invalidate global hierarchy information
         // TODO - make this elegant
+        ++version;
         allSubclasses.clear();
+        encoding = null;
     }
 
     @Override
@@ -164,7 +179,11 @@ public class ClassHierarchyImpl implements ClassHierarchy {
 
     @Override
     public Stream<JClass> allClasses() {
-        return classes.stream();
+        // returns a snapshot, as lazy class loaders may add classes
+        // while the stream is consumed
+        synchronized (this) {
+            return List.copyOf(classes).stream();
+        }
     }
 
     @Override
@@ -414,10 +433,35 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         } else if (superclass == getObjectClass()) {
             return true;
         } else {
-            return getAllSubclassesOf(superclass).contains(subclass);
+            HierarchyEncoding encoding = getEncoding();
+            if (encoding != null && encoding.contains(superclass)
+                    && encoding.contains(subclass)) {
+                return encoding.isSubclass(superclass, subclass);
+            }
+            return isSubclass0(superclass, subclass);
         }
     }
 
+    /**
+     * @return the encoding of current hierarchy, or null if the classes
+     * are loaded lazily, in which case the hierarchy is traversed upwards
+     * for subclass checks, so that no subclasses have to be loaded.
+     */
+    @Nullable
+    private HierarchyEncoding getEncoding() {
+        HierarchyEncoding result = encoding;
+        if (result == null && (defaultLoader == null || !defaultLoader.isLazy())) {
+            synchronized (this) {
+                result = encoding;
+                if (result == null) {
+                    result = new HierarchyEncoding(classes, directSubclasses);
+                    encoding = result;
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Obtains JClass representing java.lang.Object.
      * Since the creation of JClass requires TypeSystem, which may
@@ -453,7 +497,6 @@ public class ClassHierarchyImpl implements ClassHierarchy {
 
     /**
      * Traverses class hierarchy to check if subclass is a subclass of superclass.
-     * TODO: optimize performance
      */
     private boolean isSubclass0(JClass superclass, JClass subclass) {
         boolean isToInterface = superclass.isInterface();
@@ -478,11 +521,28 @@ public class ClassHierarchyImpl implements ClassHierarchy {
 
     @Override
     public Collection<JClass> getAllSubclassesOf(JClass jclass) {
-        return allSubclasses.computeIfAbsent(jclass, c -> {
-            Set<JClass> subclasses = new HybridBitSet<>(this, true);
-            getAllSubclassesOf0(c, subclasses);
-            return subclasses;
-        });
+        Set<JClass> subclasses = allSubclasses.get(jclass);
+        if (subclasses == null) {
+            // computes out of allSubclasses, as lazy class loaders
+            // may add classes during the computation, which clears it;
+            // the result is cached only if no class is added meanwhile
+            int startVersion;
+            synchronized (this) {
+                startVersion = version;
+            }
+            Set<JClass> result = new HybridBitSet<>(this, true);
+            getAllSubclassesOf0(jclass, result);
+            synchronized (this) {
+                if (startVersion != version) {
+                    return result;
+                }
+                subclasses = allSubclasses.putIfAbsent(jclass, result);
+            }
+            if (subclasses == null) {
+                subclasses = result;
+            }
+        }
+        return subclasses;
     }
 
     private void getAllSubclassesOf0(JClass jclass, Set<JClass> result) {
@@ -500,17 +560,34 @@ public class ClassHierarchyImpl implements ClassHierarchy {
 
     @Override
     public Collection<JClass> getDirectSubinterfacesOf(JClass jclass) {
-        return directSubinterfaces.get(jclass);
+        return getDirectSubtypes(directSubinterfaces, jclass);
     }
 
     @Override
     public Collection<JClass> getDirectImplementorsOf(JClass jclass) {
-        return directImplementors.get(jclass);
+        return getDirectSubtypes(directImplementors, jclass);
     }
 
     @Override
     public Collection<JClass> getDirectSubclassesOf(JClass jclass) {
-        return directSubclasses.get(jclass);
+        return getDirectSubtypes(directSubclasses, jclass);
+    }
+
+    /**
+     * For lazy class loaders, loads the direct subtypes of given class
+     * before looking them up, and returns a copy of them, as the classes
+     * may be added by other threads.
+     */
+    private Collection<JClass> getDirectSubtypes(
+            MultiMap<JClass, JClass> subtypes, JClass jclass) {
+        JClassLoader loader = jclass.getClassLoader();
+        if (loader == null || !loader.isLazy()) {
+            return subtypes.get(jclass);
+        }
+        loader.loadDirectSubclassesOf(jclass);
+        synchronized (this) {
+            return List.copyOf(subtypes.get(jclass));
+        }
     }
 
     @Override
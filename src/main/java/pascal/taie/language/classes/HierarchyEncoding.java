@@ -0,0 +1,197 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.language.classes;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encoding of a class hierarchy for constant-time subclass checks.
+ * <ul>
+ *     <li>Classes (not interfaces) are numbered in pre- and post-order
+ *     of the class tree, so that a class is a subclass of another class
+ *     iff its interval is nested in the interval of the other class.</li>
+ *     <li>Each class and interface has a bit vector of all its
+ *     superinterfaces. The vectors are shared by the classes which
+ *     implement the same interfaces, e.g., the subclasses which
+ *     do not implement new interfaces.</li>
+ * </ul>
+ * The encoding is immutable, and covers the classes which are
+ * added to the hierarchy before it is built.
+ */
+class HierarchyEncoding {
+
+    private static final long[] NO_INTERFACES = new long[0];
+
+    /**
+     * Number of the encoded classes.
+     */
+    private final int size;
+
+    /**
+     * Pre-order number of each class, or -1 for interfaces.
+     */
+    private final int[] pre;
+
+    /**
+     * Post-order number of each class, or -1 for interfaces.
+     */
+    private final int[] post;
+
+    /**
+     * Bit of each interface in {@link #superinterfaces}, or -1 for classes.
+     */
+    private final int[] interfaceBits;
+
+    /**
+     * Bit vector of the superinterfaces of each class and interface,
+     * including the interface itself.
+     */
+    private final long[][] superinterfaces;
+
+    /**
+     * @param classes          the classes in the hierarchy, whose indexes
+     *                         are their positions in the list.
+     * @param directSubclasses the direct subclasses of each class.
+     */
+    HierarchyEncoding(List<JClass> classes, MultiMap<JClass, JClass> directSubclasses) {
+        size = classes.size();
+        pre = new int[size];
+        post = new int[size];
+        interfaceBits = new int[size];
+        Arrays.fill(pre, -1);
+        Arrays.fill(post, -1);
+        Arrays.fill(interfaceBits, -1);
+        int nInterfaces = 0;
+        for (JClass jclass : classes) {
+            if (jclass.isInterface()) {
+                interfaceBits[jclass.getIndex()] = nInterfaces++;
+            }
+        }
+        numberClassTree(classes, directSubclasses);
+        superinterfaces = new long[size][];
+        Map<BitSet, long[]> vectors = Maps.newMap();
+        BitSet[] sets = new BitSet[size];
+        for (JClass jclass : classes) {
+            BitSet set = getSuperinterfaces(jclass, sets);
+            superinterfaces[jclass.getIndex()] = set.isEmpty() ? NO_INTERFACES :
+                    vectors.computeIfAbsent(set, BitSet::toLongArray);
+        }
+    }
+
+    /**
+     * Numbers the classes in pre- and post-order of the class tree,
+     * without recursion as the tree may be deep.
+     */
+    private void numberClassTree(List<JClass> classes,
+                                 MultiMap<JClass, JClass> directSubclasses) {
+        int preCounter = 0;
+        int postCounter = 0;
+        Deque<JClass> nodes = new ArrayDeque<>();
+        Deque<Iterator<JClass>> children = new ArrayDeque<>();
+        for (JClass root : classes) {
+            JClass superClass = root.getSuperClass();
+            if (root.isInterface() || (superClass != null && contains(superClass))) {
+                continue;
+            }
+            pre[root.getIndex()] = preCounter++;
+            nodes.push(root);
+            children.push(directSubclasses.get(root).iterator());
+            while (!nodes.isEmpty()) {
+                Iterator<JClass> it = children.peek();
+                if (it.hasNext()) {
+                    JClass child = it.next();
+                    if (contains(child) && pre[child.getIndex()] == -1) {
+                        pre[child.getIndex()] = preCounter++;
+                        nodes.push(child);
+                        children.push(directSubclasses.get(child).iterator());
+                    }
+                } else {
+                    post[nodes.pop().getIndex()] = postCounter++;
+                    children.pop();
+                }
+            }
+        }
+    }
+
+    private BitSet getSuperinterfaces(JClass jclass, BitSet[] sets) {
+        int index = jclass.getIndex();
+        BitSet set = sets[index];
+        if (set == null) {
+            set = new BitSet();
+            // guards against cycles in malformed hierarchies
+            sets[index] = set;
+            JClass superClass = jclass.getSuperClass();
+            if (!jclass.isInterface() && superClass != null && contains(superClass)) {
+                set.or(getSuperinterfaces(superClass, sets));
+            }
+            for (JClass iface : jclass.getInterfaces()) {
+                if (iface != null && contains(iface)) {
+                    set.or(getSuperinterfaces(iface, sets));
+                }
+            }
+            if (jclass.isInterface()) {
+                set.set(interfaceBits[index]);
+            }
+        }
+        return set;
+    }
+
+    /**
+     * @return true if given class is covered by this encoding.
+     */
+    boolean contains(JClass jclass) {
+        int index = jclass.getIndex();
+        return 0 <= index && index < size;
+    }
+
+    /**
+     * @return true if subclass is a subclass of superclass. Both classes
+     * must be covered by this encoding.
+     */
+    boolean isSubclass(JClass superclass, JClass subclass) {
+        int superIndex = superclass.getIndex();
+        int subIndex = subclass.getIndex();
+        int bit = interfaceBits[superIndex];
+        if (bit != -1) {
+            long[] vector = superinterfaces[subIndex];
+            int word = bit >>> 6;
+            return word < vector.length && (vector[word] & (1L << bit)) != 0;
+        } else {
+            // interfaces are not in the class tree, and they are only
+            // subclasses of java.lang.Object, which is checked by callers
+            return pre[subIndex] != -1 &&
+                    pre[superIndex] <= pre[subIndex] &&
+                    post[subIndex] <= post[superIndex];
+        }
+    }
+}
@@ -24,10 +24,50 @@ package pascal.taie.language.classes;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.List;
 
 public interface JClassLoader extends Serializable {
 
     JClass loadClass(String name);
 
     Collection<JClass> getLoadedClasses();
+
+    /**
+     * @return true if this loader loads classes only when they are
+     * referenced, in which case the subclasses of a class may be unloaded
+     * until {@link #loadDirectSubclassesOf(JClass)} is called.
+     */
+    default boolean isLazy() {
+        return false;
+    }
+
+    /**
+     * Loads the direct subclasses, subinterfaces and implementors of
+     * given class which are not loaded yet.
+     */
+    default void loadDirectSubclassesOf(JClass jclass) {
+    }
+
+    /**
+     * @return names of the classes which are not loaded yet,
+     * but can be loaded on demand by this loader.
+     */
+    default Collection<String> getUnloadedClassNames() {
+        return List.of();
+    }
+
+    /**
+     * @return names of the non-abstract and non-private methods
+     * declared in the classes which are not loaded yet.
+     */
+    default Collection<String> getUnloadedMethodNames() {
+        return List.of();
+    }
+
+    /**
+     * Loads the classes which are not loaded yet and declare
+     * non-abstract and non-private methods of given name.
+     */
+    default void loadClassesDeclaring(String methodName) {
+    }
 }
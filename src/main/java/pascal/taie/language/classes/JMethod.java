@@ -23,6 +23,7 @@
 package pascal.taie.language.classes;
 
 import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.methodsummary.ContrValue;
 import pascal.taie.analysis.dataflow.analysis.methodsummary.Utils.ContrUtil;
 import pascal.taie.analysis.dataflow.analysis.methodsummary.plugin.TaintTransfer;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
@@ -78,7 +79,7 @@ public class JMethod extends ClassMember {
      *
      * @see CachedIRBuilder
      */
-    private transient IR ir;
+    private transient volatile IR ir;
 
     private boolean isSource;
 
@@ -90,7 +91,7 @@ public class JMethod extends ClassMember {
 
     private Map<String, String> imitatedBehavior;
 
-    private Map<String, String> summary;
+    private Map<ContrValue, ContrValue> summary;
 
     private boolean isInvoke;
 
@@ -207,17 +208,26 @@ public class JMethod extends ClassMember {
     }
 
     public IR getIR() {
-        if (ir == null) {
+        IR result = ir;
+        if (result == null) {
             if (isAbstract()) {
                 return new IRBuildHelper(this).buildEmpty();
             }
-            if (isNative()) {
-                ir = World.get().getNativeModel().buildNativeIR(this);
-            } else {
-                ir = World.get().getIRBuilder().buildIR(this);
+            // summaries may be built by several threads, and each method
+            // must have exactly one IR, so the IR is built under a lock
+            synchronized (this) {
+                result = ir;
+                if (result == null) {
+                    if (isNative()) {
+                        result = World.get().getNativeModel().buildNativeIR(this);
+                    } else {
+                        result = World.get().getIRBuilder().buildIR(this);
+                    }
+                    ir = result;
+                }
             }
         }
-        return ir;
+        return result;
     }
 
     /**
@@ -280,19 +290,19 @@ public class JMethod extends ClassMember {
         return imitatedBehavior;
     }
 
-    public void setSummary(String key, String value) {
+    public void setSummary(ContrValue key, ContrValue value) {
         if (key != null && value != null
-                && !key.equals(value) && !key.contains("+") && !value.equals(ContrUtil.sNOT_POLLUTED)
-                && (key.startsWith(ContrUtil.sParam) || key.startsWith(ContrUtil.sTHIS) || key.equals("return"))) {
+                && key != value && !key.isConcat() && !value.isNull()
+                && (key.startsWith(ContrUtil.sParam) || key.startsWith(ContrUtil.sTHIS) || key == ContrValue.RETURN)) {
             summary.put(key, value);
         }
     }
 
-    public String getSummary(String key) {
+    public ContrValue getSummary(ContrValue key) {
         return summary.getOrDefault(key, null);
     }
 
-    public Map<String,String> getSummaryMap() {
+    public Map<ContrValue, ContrValue> getSummaryMap() {
         return summary;
     }
 
@@ -316,4 +326,8 @@ public class JMethod extends ClassMember {
         return invokeDispatch.getOrDefault(var, null);
     }
 
+    public Map<CSVar, String> getInvokeDispatchMap() {
+        return invokeDispatch;
+    }
+
 }
@@ -0,0 +1,312 @@
+package pascal.taie.language.classes;
+
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Index of the non-abstract and non-private methods in the class hierarchy,
+ * which are the possible targets of reflective calls.
+ * Methods are indexed by name and arity. Names of methods and classes are
+ * also indexed by trigrams, so that the name patterns of reflective calls
+ * (literal parts joined by ".*", see
+ * {@link pascal.taie.analysis.dataflow.analysis.methodsummary.ContrValue#toRegex()})
+ * are only matched against the names containing their literal parts.
+ * <p>
+ * If the classes are loaded lazily, the names of the classes and methods
+ * which are not loaded yet are also indexed, and the classes matching
+ * a query are loaded before it is answered. The classes loaded later are
+ * added by {@link #addClass(JClass)}.
+ */
+public class MethodIndex {
+
+    private final ClassHierarchy hierarchy;
+
+    private final JClassLoader loader;
+
+    private final boolean lazy;
+
+    private final Set<JClass> indexed = Sets.newSet();
+
+    /**
+     * Method name -> arity -> methods.
+     */
+    private final Map<String, Map<Integer, List<JMethod>>> methods = Maps.newMap();
+
+    private final Map<String, Integer> methodCounts = Maps.newMap();
+
+    private final Map<String, List<JClass>> classes = Maps.newMap();
+
+    private final NameIndex methodNames;
+
+    private final NameIndex classNames;
+
+    public MethodIndex(ClassHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+        this.loader = hierarchy.getDefaultClassLoader();
+        this.lazy = loader != null && loader.isLazy();
+        hierarchy.allClasses().forEach(this::index);
+        Set<String> allMethodNames = Sets.newSet(methods.keySet());
+        Set<String> allClassNames = Sets.newSet(classes.keySet());
+        if (lazy) {
+            allMethodNames.addAll(loader.getUnloadedMethodNames());
+            allClassNames.addAll(loader.getUnloadedClassNames());
+        }
+        methodNames = new NameIndex(allMethodNames);
+        classNames = new NameIndex(allClassNames);
+    }
+
+    /**
+     * Adds a class loaded after this index is built. The names of the class
+     * and its methods are already in the name indexes as unloaded names.
+     */
+    public synchronized void addClass(JClass jclass) {
+        index(jclass);
+    }
+
+    private void index(JClass c) {
+        if (!indexed.add(c)) return;
+        classes.computeIfAbsent(c.getName(), n -> new ArrayList<>(1)).add(c);
+        for (JMethod m : c.getDeclaredMethods()) {
+            if (isIndexed(m)) {
+                methods.computeIfAbsent(m.getName(), n -> Maps.newSmallMap())
+                        .computeIfAbsent(m.getParamCount(), n -> new ArrayList<>())
+                        .add(m);
+                methodCounts.merge(m.getName(), 1, Integer::sum);
+            }
+        }
+    }
+
+    private static boolean isIndexed(JMethod method) {
+        return !method.isAbstract() && !method.isPrivate();
+    }
+
+    /**
+     * @return names of the methods which contain a match of the regex.
+     */
+    public Set<String> getMethodNames(String regex) {
+        return methodNames.match(regex);
+    }
+
+    /**
+     * @param names names of the methods
+     * @param type  if not null, only the methods declared in the subtypes of
+     *              this type are returned. Callers still need to check the
+     *              declaring classes of the returned methods, as this index
+     *              only uses the type to reduce the candidates.
+     * @param arity number of parameters of the methods, or -1 for any number
+     * @return the indexed methods with the given names and arity.
+     */
+    public List<JMethod> getMethods(Set<String> names, Type type, int arity) {
+        List<JMethod> result = new ArrayList<>();
+        if (type instanceof ClassType ct && ct.getJClass() != null
+                && !ct.getName().equals(ClassNames.OBJECT)) {
+            // the subclasses are loaded by the hierarchy in lazy mode
+            Collection<JClass> subclasses = hierarchy.getAllSubclassesOf(ct.getJClass());
+            if (lazy || subclasses.size() < countMethods(names)) {
+                for (JClass c : subclasses) {
+                    for (JMethod m : c.getDeclaredMethods()) {
+                        if (isIndexed(m) && (arity < 0 || m.getParamCount() == arity)
+                                && names.contains(m.getName())) {
+                            result.add(m);
+                        }
+                    }
+                }
+                return result;
+            }
+        }
+        if (lazy) {
+            // loading is done without holding the lock of this index,
+            // as the loaded classes are added to this index
+            names.forEach(loader::loadClassesDeclaring);
+        }
+        synchronized (this) {
+            for (String name : names) {
+                Map<Integer, List<JMethod>> byArity = methods.get(name);
+                if (byArity == null) continue;
+                if (arity < 0) {
+                    byArity.values().forEach(result::addAll);
+                } else {
+                    result.addAll(byArity.getOrDefault(arity, List.of()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the indexed methods with the given name and arity declared in
+     * the classes whose names contain a match of the regex.
+     */
+    public List<JMethod> getMethodsOfClasses(String classRegex, String name, int arity) {
+        List<JMethod> result = new ArrayList<>();
+        Set<String> matched = classNames.match(classRegex);
+        if (lazy) {
+            matched.forEach(hierarchy::getClass);
+        }
+        for (String className : matched) {
+            List<JClass> matchedClasses;
+            synchronized (this) {
+                matchedClasses = classes.get(className);
+                if (matchedClasses == null) continue;
+                matchedClasses = List.copyOf(matchedClasses);
+            }
+            for (JClass c : matchedClasses) {
+                for (JMethod m : c.getDeclaredMethods()) {
+                    if (isIndexed(m) && m.getName().equals(name)
+                            && (arity < 0 || m.getParamCount() == arity)) {
+                        result.add(m);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private synchronized int countMethods(Set<String> names) {
+        int count = 0;
+        for (String name : names) {
+            count += methodCounts.getOrDefault(name, 0);
+        }
+        return count;
+    }
+
+    /**
+     * Trigram index of names. Matches of a regex are cached as the same
+     * patterns are queried at many call sites.
+     */
+    static class NameIndex {
+
+        private static final String META_CHARS = "\\^$|?*+()[]{}";
+
+        private final String[] names;
+
+        private final Map<Long, int[]> trigrams;
+
+        private final Map<String, Set<String>> matches = Maps.newConcurrentMap();
+
+        NameIndex(Collection<String> names) {
+            this.names = names.toArray(new String[0]);
+            Map<Long, Postings> postings = Maps.newMap();
+            for (int id = 0; id < this.names.length; id++) {
+                String name = this.names[id];
+                for (int i = 0; i + 3 <= name.length(); i++) {
+                    postings.computeIfAbsent(trigram(name, i), k -> new Postings()).add(id);
+                }
+            }
+            trigrams = Maps.newMap(postings.size());
+            postings.forEach((k, v) -> trigrams.put(k, v.toArray()));
+        }
+
+        Set<String> match(String regex) {
+            Set<String> result = matches.get(regex);
+            if (result == null) {
+                Pattern pattern = Pattern.compile(regex);
+                Set<String> matched = Sets.newSet();
+                int[] candidates = getCandidates(regex);
+                if (candidates == null) {
+                    for (String name : names) {
+                        if (pattern.matcher(name).find()) matched.add(name);
+                    }
+                } else {
+                    for (int id : candidates) {
+                        if (pattern.matcher(names[id]).find()) matched.add(names[id]);
+                    }
+                }
+                result = Collections.unmodifiableSet(matched);
+                matches.put(regex, result);
+            }
+            return result;
+        }
+
+        /**
+         * @return ids of the names containing all literals required by
+         * the regex, or null if all names are candidates.
+         */
+        private int[] getCandidates(String regex) {
+            List<String> literals = getRequiredLiterals(regex);
+            if (literals == null || literals.isEmpty()) return null;
+            int[] result = null;
+            for (String literal : literals) {
+                for (int i = 0; i + 3 <= literal.length(); i++) {
+                    int[] ids = trigrams.get(trigram(literal, i));
+                    if (ids == null) return new int[0];
+                    result = result == null ? ids : intersect(result, ids);
+                    if (result.length == 0) return result;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Splits the regex into literals which must occur in every match,
+         * which is only supported for literals joined by "." and ".*".
+         *
+         * @return the required literals of at least three characters,
+         * or null if the regex contains other constructs.
+         */
+        private static List<String> getRequiredLiterals(String regex) {
+            List<String> literals = new ArrayList<>();
+            for (String segment : regex.split("\\.\\*", -1)) {
+                for (int i = 0; i < segment.length(); i++) {
+                    if (META_CHARS.indexOf(segment.charAt(i)) >= 0) return null;
+                }
+                for (String literal : segment.split("\\.", -1)) {
+                    if (literal.length() >= 3) literals.add(literal);
+                }
+            }
+            return literals;
+        }
+
+        private static long trigram(String s, int i) {
+            return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+        }
+
+        private static int[] intersect(int[] a, int[] b) {
+            int[] result = new int[Math.min(a.length, b.length)];
+            int i = 0, j = 0, k = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    result[k++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return k == result.length ? result : Arrays.copyOf(result, k);
+        }
+    }
+
+    /**
+     * Sorted ids of the names containing a trigram.
+     */
+    private static class Postings {
+
+        private int[] ids = new int[4];
+
+        private int size = 0;
+
+        private void add(int id) {
+            if (size > 0 && ids[size - 1] == id) return;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -34,15 +34,18 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 import static pascal.taie.util.collection.Maps.newConcurrentMap;
-import static pascal.taie.util.collection.Maps.newMap;
-import static pascal.taie.util.collection.Maps.newSmallMap;
 
 // TODO: optimize maps (classTypes and arrayTypes)
 public class TypeSystemImpl implements TypeSystem {
 
     private final ClassHierarchy hierarchy;
 
-    private final Map<JClassLoader, Map<String, ClassType>> classTypes = newSmallMap();
+    /**
+     * This map may be concurrently written when building method summaries,
+     * thus we use concurrent map to ensure its thread-safety.
+     */
+    private final ConcurrentMap<JClassLoader, ConcurrentMap<String, ClassType>> classTypes
+            = newConcurrentMap(4);
 
     /**
      * This map may be concurrently written during IR construction,
@@ -132,7 +135,7 @@ public class TypeSystemImpl implements TypeSystem {
     public ClassType getClassType(JClassLoader loader, String className) {
         // FIXME: given a non-exist class name, this method will still return
         //  a ClassType with null JClass. This case should return null.
-        return classTypes.computeIfAbsent(loader, l -> newMap())
+        return classTypes.computeIfAbsent(loader, l -> newConcurrentMap(4096))
                 .computeIfAbsent(className, name -> new ClassType(loader, name));
     }
 
@@ -22,6 +22,7 @@
 
 package pascal.taie.util;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 /**
@@ -91,4 +92,37 @@ public final class Hashes {
         result = 31 * result + Objects.hashCode(o4);
         return result;
     }
+
+    /**
+     * Initial value of the 64-bit FNV-1a hashes computed by
+     * {@link #fnv64(long, String)} and {@link #fnv64(long, long)}.
+     * These hashes are stable across runs, and are used to detect
+     * changes of persisted data.
+     */
+    public static final long FNV64_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV64_PRIME = 0x100000001b3L;
+
+    /**
+     * @return 64-bit FNV-1a hash of the UTF-8 bytes of the string,
+     * continued from the given hash.
+     */
+    public static long fnv64(long hash, String s) {
+        for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV64_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * @return 64-bit FNV-1a hash of the bytes of the value,
+     * continued from the given hash.
+     */
+    public static long fnv64(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash = (hash ^ (value & 0xff)) * FNV64_PRIME;
+            value >>>= 8;
+        }
+        return hash;
+    }
 }
@@ -24,14 +24,13 @@ package pascal.taie.util;
 
 import pascal.taie.analysis.dataflow.analysis.methodsummary.Utils.ContrUtil;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Static utility methods for {@link String}.
  */
 public final class Strings {
 
+    private static final String PARAM_PREFIX = ContrUtil.sParam + "-";
+
     private Strings() {
     }
 
@@ -66,17 +65,25 @@ public final class Strings {
         return true;
     }
 
+    /**
+     * @return the index of the first "param-N" in the string,
+     * or {@link ContrUtil#iNOT_POLLUTED} if there is no such part.
+     */
     public static int extractParamIndex(String s) {
-        String regex = "param-(\\d+)";
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(s);
-
-        if (matcher.find()) {
-            int value = Integer.parseInt(matcher.group(1));
-            return value;
-        } else {
-            return ContrUtil.iNOT_POLLUTED;
+        int from = 0;
+        int start;
+        while ((start = s.indexOf(PARAM_PREFIX, from)) >= 0) {
+            int begin = start + PARAM_PREFIX.length();
+            int end = begin;
+            while (end < s.length() && s.charAt(end) >= '0' && s.charAt(end) <= '9') {
+                end++;
+            }
+            if (end > begin) {
+                return Integer.parseInt(s, begin, end, 10);
+            }
+            from = start + 1;
         }
+        return ContrUtil.iNOT_POLLUTED;
     }
 
     public static String extractFieldName(String s) {
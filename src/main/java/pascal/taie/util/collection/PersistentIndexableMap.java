@@ -0,0 +1,355 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import pascal.taie.util.Indexable;
+
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.function.BiConsumer;
+
+/**
+ * Persistent map from {@link Indexable} keys to values. A map is never
+ * modified: {@link #put(Indexable, Object)} and {@link #remove(Indexable)}
+ * return new maps which share the unchanged parts with the original map,
+ * so copying a map takes O(1) and updating it takes O(log n).
+ * <p>
+ * The map is a bitmapped trie over the indexes of the keys, thus the keys
+ * put in the same map must have distinct indexes. Keys and values cannot
+ * be null.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public final class PersistentIndexableMap<K extends Indexable, V> {
+
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentIndexableMap<?, ?> EMPTY =
+            new PersistentIndexableMap<>(Node.EMPTY, 0);
+
+    private final Node root;
+
+    private final int size;
+
+    private PersistentIndexableMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return the empty map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K extends Indexable, V> PersistentIndexableMap<K, V> empty() {
+        return (PersistentIndexableMap<K, V>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        return (V) root.get(key.getIndex(), 0);
+    }
+
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return a map with the mappings of this map and given mapping,
+     * or this map if it already maps the key to the same value object.
+     */
+    public PersistentIndexableMap<K, V> put(K key, V value) {
+        Objects.requireNonNull(value);
+        V old = get(key);
+        if (old == value) {
+            return this;
+        }
+        Node newRoot = root.put(key, value, key.getIndex(), 0);
+        return new PersistentIndexableMap<>(newRoot, old == null ? size + 1 : size);
+    }
+
+    /**
+     * @return a map with the mappings of this map except the one of
+     * given key, or this map if it does not contain the key.
+     */
+    public PersistentIndexableMap<K, V> remove(K key) {
+        if (get(key) == null) {
+            return this;
+        }
+        return size == 1 ? empty() :
+                new PersistentIndexableMap<>(root.remove(key.getIndex(), 0), size - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        root.forEach((BiConsumer<Object, Object>) action);
+    }
+
+    /**
+     * Performs the given action for each mapping of this map which is not
+     * in given map, i.e., the key is absent or mapped to another object
+     * in given map. The parts of the trie shared by the two maps are
+     * skipped without being traversed.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachChanged(PersistentIndexableMap<K, V> other,
+                               BiConsumer<? super K, ? super V> action) {
+        Node.forEachChanged(root, other.root, 0, (BiConsumer<Object, Object>) action);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PersistentIndexableMap<?, ?> that = (PersistentIndexableMap<?, ?>) o;
+        return size == that.size && root.equalsTo(that.root);
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = {0};
+        root.forEach((k, v) -> hash[0] += k.hashCode() ^ Objects.hashCode(v));
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        root.forEach((k, v) -> joiner.add(k + "=" + v));
+        return joiner.toString();
+    }
+
+    private static int bit(int index, int shift) {
+        return 1 << ((index >>> shift) & MASK);
+    }
+
+    private static int indexOf(Object key) {
+        return ((Indexable) key).getIndex();
+    }
+
+    /**
+     * Node of the trie. A node exists (except the root) only if at least
+     * two keys share the index bits leading to it, so equal maps have
+     * tries of the same shape.
+     */
+    private static final class Node {
+
+        private static final Node EMPTY = new Node(0, new Object[0]);
+
+        private final int bitmap;
+
+        /**
+         * A key and its value for each bit in {@link #bitmap}.
+         * The key is null if the value is a child node.
+         */
+        private final Object[] slots;
+
+        private Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        private int slotOf(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1)) * 2;
+        }
+
+        private Object get(int index, int shift) {
+            Node node = this;
+            while (true) {
+                int bit = bit(index, shift);
+                if ((node.bitmap & bit) == 0) {
+                    return null;
+                }
+                int i = node.slotOf(bit);
+                Object key = node.slots[i];
+                Object value = node.slots[i + 1];
+                if (key != null) {
+                    return indexOf(key) == index ? value : null;
+                }
+                node = (Node) value;
+                shift += BITS;
+            }
+        }
+
+        private Node put(Object key, Object value, int index, int shift) {
+            int bit = bit(index, shift);
+            int i = slotOf(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] newSlots = new Object[slots.length + 2];
+                System.arraycopy(slots, 0, newSlots, 0, i);
+                newSlots[i] = key;
+                newSlots[i + 1] = value;
+                System.arraycopy(slots, i, newSlots, i + 2, slots.length - i);
+                return new Node(bitmap | bit, newSlots);
+            }
+            Object oldKey = slots[i];
+            Object oldValue = slots[i + 1];
+            if (oldKey == null) {
+                Node child = ((Node) oldValue).put(key, value, index, shift + BITS);
+                return with(i, null, child);
+            }
+            int oldIndex = indexOf(oldKey);
+            if (oldIndex == index) {
+                return with(i, key, value);
+            }
+            return with(i, null, pair(oldKey, oldValue, oldIndex,
+                    key, value, index, shift + BITS));
+        }
+
+        private static Node pair(Object key1, Object value1, int index1,
+                                 Object key2, Object value2, int index2, int shift) {
+            int pos1 = (index1 >>> shift) & MASK;
+            int pos2 = (index2 >>> shift) & MASK;
+            if (pos1 == pos2) {
+                return new Node(1 << pos1, new Object[]{null,
+                        pair(key1, value1, index1, key2, value2, index2, shift + BITS)});
+            }
+            Object[] slots = pos1 < pos2
+                    ? new Object[]{key1, value1, key2, value2}
+                    : new Object[]{key2, value2, key1, value1};
+            return new Node((1 << pos1) | (1 << pos2), slots);
+        }
+
+        private Node remove(int index, int shift) {
+            int bit = bit(index, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int i = slotOf(bit);
+            Object key = slots[i];
+            Object value = slots[i + 1];
+            if (key != null) {
+                return indexOf(key) == index ? without(bit, i) : this;
+            }
+            Node child = ((Node) value).remove(index, shift + BITS);
+            if (child == value) {
+                return this;
+            }
+            if (child.slots.length == 2 && child.slots[0] != null) {
+                // inlines the only mapping left in the child
+                return with(i, child.slots[0], child.slots[1]);
+            }
+            return with(i, null, child);
+        }
+
+        private Node with(int i, Object key, Object value) {
+            Object[] newSlots = slots.clone();
+            newSlots[i] = key;
+            newSlots[i + 1] = value;
+            return new Node(bitmap, newSlots);
+        }
+
+        private Node without(int bit, int i) {
+            Object[] newSlots = new Object[slots.length - 2];
+            System.arraycopy(slots, 0, newSlots, 0, i);
+            System.arraycopy(slots, i + 2, newSlots, i, slots.length - i - 2);
+            return new Node(bitmap & ~bit, newSlots);
+        }
+
+        private void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < slots.length; i += 2) {
+                if (slots[i] != null) {
+                    action.accept(slots[i], slots[i + 1]);
+                } else {
+                    ((Node) slots[i + 1]).forEach(action);
+                }
+            }
+        }
+
+        private static void forEachChanged(Node node, Node other, int shift,
+                                           BiConsumer<Object, Object> action) {
+            if (node == other) {
+                return;
+            }
+            for (int bits = node.bitmap; bits != 0; bits &= bits - 1) {
+                int bit = bits & -bits;
+                int i = node.slotOf(bit);
+                Object key = node.slots[i];
+                Object value = node.slots[i + 1];
+                if ((other.bitmap & bit) == 0) {
+                    if (key != null) {
+                        action.accept(key, value);
+                    } else {
+                        ((Node) value).forEach(action);
+                    }
+                    continue;
+                }
+                int j = other.slotOf(bit);
+                Object otherKey = other.slots[j];
+                Object otherValue = other.slots[j + 1];
+                if (key == null && otherKey == null) {
+                    forEachChanged((Node) value, (Node) otherValue, shift + BITS, action);
+                } else if (key == null) {
+                    int otherIndex = indexOf(otherKey);
+                    ((Node) value).forEach((k, v) -> {
+                        if (indexOf(k) != otherIndex || v != otherValue) {
+                            action.accept(k, v);
+                        }
+                    });
+                } else if (otherKey == null) {
+                    if (((Node) otherValue).get(indexOf(key), shift + BITS) != value) {
+                        action.accept(key, value);
+                    }
+                } else if (indexOf(key) != indexOf(otherKey) || value != otherValue) {
+                    action.accept(key, value);
+                }
+            }
+        }
+
+        private boolean equalsTo(Node other) {
+            if (this == other) {
+                return true;
+            }
+            if (bitmap != other.bitmap) {
+                return false;
+            }
+            for (int i = 0; i < slots.length; i += 2) {
+                Object key = slots[i];
+                Object otherKey = other.slots[i];
+                if (key == null && otherKey == null) {
+                    if (!((Node) slots[i + 1]).equalsTo((Node) other.slots[i + 1])) {
+                        return false;
+                    }
+                } else if (key == null || !key.equals(otherKey)
+                        || !Objects.equals(slots[i + 1], other.slots[i + 1])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
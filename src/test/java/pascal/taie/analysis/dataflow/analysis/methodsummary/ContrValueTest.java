@@ -0,0 +1,267 @@
+package pascal.taie.analysis.dataflow.analysis.methodsummary;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.analysis.dataflow.analysis.methodsummary.Utils.ContrUtil;
+import pascal.taie.util.Strings;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests that {@link ContrValue} behaves as the controllability strings
+ * which it replaces. The string functions are copied from ContrUtil
+ * before the values are interned.
+ */
+public class ContrValueTest {
+
+    private static final List<String> PARTS = List.of(
+            "param-0", "param-1", "param-12", "param-0-name", "param-1-f-g",
+            "this", "this-f", "this-next-value", "polluted", "null",
+            "new java.lang.Object", "new java.util.HashMap",
+            "exec", "getRuntime", "java.lang.Runtime", "get", "-");
+
+    private static final int VALUES = 5000;
+
+    /**
+     * @return random values made of at most three parts, some of which
+     * have action prefixes as the values given by priori knowledge.
+     */
+    private static List<String> randomValues() {
+        Random random = new Random(0);
+        List<String> values = new ArrayList<>(PARTS);
+        for (int i = 0; i < VALUES; ++i) {
+            StringBuilder value = new StringBuilder();
+            if (random.nextInt(8) == 0) {
+                value.append(random.nextBoolean() ? "assign:" : "append:");
+            }
+            int nParts = 1 + random.nextInt(3);
+            for (int j = 0; j < nParts; ++j) {
+                if (j > 0) value.append('+');
+                value.append(PARTS.get(random.nextInt(PARTS.size())));
+            }
+            values.add(value.toString());
+        }
+        return values;
+    }
+
+    @Test
+    void testParse() {
+        for (String s : randomValues()) {
+            ContrValue v = ContrValue.of(s);
+            assertEquals(s, v.toString());
+            assertSame(v, ContrValue.of(new String(s)));
+            assertEquals(ContrUtil.string2Int(s), v.code(), s);
+            assertEquals(Legacy.isControllable(s), v.isControllable(), s);
+            assertEquals(Legacy.isControllableParam(s), v.isControllableParam(), s);
+            assertEquals(Legacy.isCallSite(s), v.isCallSite(), s);
+            assertEquals(Legacy.isThis(s), v.isThis(), s);
+            assertEquals(Legacy.hasCS(s), v.hasCS(), s);
+            assertEquals(Legacy.getCS(s), v.getCS(), s);
+            assertEquals(Legacy.convert2Reg(s), v.toRegex(), s);
+            assertEquals(Strings.isLegalContrValue(s), v.isLegal(), s);
+            assertEquals(s.startsWith("new"), v.isNew(), s);
+            assertEquals(s.contains("new"), v.containsNew(), s);
+            assertEquals(s.equals(ContrUtil.sNOT_POLLUTED), v.isNull(), s);
+            assertEquals(s.contains("+"), v.isConcat(), s);
+        }
+    }
+
+    @Test
+    void testParts() {
+        for (String s : randomValues()) {
+            ContrValue v = ContrValue.of(s);
+            int lastPlus = s.lastIndexOf('+');
+            assertEquals(lastPlus >= 0 ? s.substring(lastPlus + 1) : s,
+                    v.last().toString());
+            assertEquals(lastPlus >= 0 ? s.substring(0, lastPlus) : s,
+                    v.head().toString());
+            int colon = s.indexOf(':');
+            assertEquals(colon >= 0 ? s.substring(0, colon) : null, v.action());
+            assertEquals(colon >= 0 ? s.substring(colon + 1) : s, v.body().toString());
+        }
+    }
+
+    @Test
+    void testDerivedValues() {
+        List<String> values = randomValues();
+        Random random = new Random(1);
+        for (String s : values) {
+            ContrValue v = ContrValue.of(s);
+            String other = values.get(random.nextInt(values.size()));
+            ContrValue o = ContrValue.of(other);
+            assertSame(ContrValue.of(s + "+" + other), v.append(o));
+            // the appended values are cached
+            assertSame(v.append(o), v.append(o));
+            assertSame(ContrValue.of(s + "-f"), v.field("f"));
+            assertSame(v.field("f"), v.field("f"));
+            assertEquals(Strings.extractFieldName(s), v.fieldName(), s);
+            String part = PARTS.get(random.nextInt(PARTS.size()));
+            assertSame(ContrValue.of(s.replace(part, other)),
+                    v.replace(ContrValue.of(part), o));
+            String contr = ContrUtil.int2String(random.nextInt(5) - 3);
+            assertEquals(Legacy.replaceContr(s, contr),
+                    v.replaceContr(ContrValue.of(contr)).toString(), s);
+            assertEquals(Legacy.needUpdateInAppend(s, other),
+                    ContrUtil.needUpdateInAppend(v, o), s + " " + other);
+            assertEquals(Legacy.needUpdateInMerge(s, other),
+                    ContrUtil.needUpdateInMerge(v, o), s + " " + other);
+        }
+        assertEquals(Legacy.needUpdateInMerge(null, "param-0"),
+                ContrUtil.needUpdateInMerge(null, ContrValue.of("param-0")));
+        assertEquals(Legacy.needUpdateInMerge(null, "null"),
+                ContrUtil.needUpdateInMerge(null, ContrValue.NOT_POLLUTED));
+    }
+
+    @Test
+    void testCodes() {
+        for (int code = -3; code < 40; ++code) {
+            ContrValue v = ContrValue.of(code);
+            assertSame(ContrValue.of(ContrUtil.int2String(code)), v);
+            assertEquals(code, v.code());
+        }
+    }
+
+    @Test
+    void testSerialization() throws IOException, ClassNotFoundException {
+        ContrValue v = ContrValue.of("param-0-name+exec");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(v);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertSame(v, in.readObject());
+        }
+    }
+
+    /**
+     * The string functions of ContrUtil before the values are interned.
+     */
+    private static final class Legacy {
+
+        private static boolean isControllable(String value) {
+            return ContrUtil.string2Int(value) >= ContrUtil.iPOLLUTED;
+        }
+
+        private static boolean isControllableParam(String value) {
+            return ContrUtil.string2Int(value) > ContrUtil.iTHIS;
+        }
+
+        private static boolean isCallSite(String value) {
+            return ContrUtil.string2Int(value) >= ContrUtil.iTHIS;
+        }
+
+        private static boolean isThis(String value) {
+            return ContrUtil.string2Int(value) == ContrUtil.iTHIS;
+        }
+
+        private static boolean isConstString(String value) {
+            return !isControllable(value) && !value.equals(ContrUtil.sNOT_POLLUTED);
+        }
+
+        private static boolean needUpdateInMerge(String oldV, String newV) {
+            if (oldV == null) {
+                return !newV.equals(ContrUtil.sNOT_POLLUTED);
+            } else if (newV.startsWith("new") && !oldV.contains("new")) {
+                return true;
+            } else {
+                boolean oldc = isControllable(oldV);
+                boolean newc = isControllable(newV);
+                if (!oldc && !newc) {
+                    return hasCS(newV);
+                } else if (oldc && newc) {
+                    return hasCS(newV) && !hasCS(oldV);
+                } else {
+                    return !oldc && newc;
+                }
+            }
+        }
+
+        private static boolean hasCS(String value) {
+            if (value.contains("+")) {
+                int start = 0;
+                for (int i = 0; i < value.length(); i++) {
+                    if (value.charAt(i) == '+') {
+                        String part = value.substring(start, i);
+                        if (isConstString(part)) {
+                            return true;
+                        }
+                        start = i + 1;
+                    }
+                }
+                String lastPart = value.substring(start);
+                return isConstString(lastPart);
+            } else {
+                return isConstString(value);
+            }
+        }
+
+        private static String getCS(String value) {
+            if (value.contains("+")) {
+                String ret = "";
+                String[] parts = value.split("\\+");
+                for (String part : parts) {
+                    if (isConstString(part)) {
+                        ret = ret + part;
+                    }
+                }
+                return ret;
+            } else {
+                return value;
+            }
+        }
+
+        private static boolean needUpdateInAppend(String left, String right) {
+            return isControllable(left) != isControllable(right)
+                    || (hasCS(right) && !right.equals(left));
+        }
+
+        private static String convert2Reg(String v) {
+            if (v.contains("+")) {
+                StringBuilder ret = new StringBuilder();
+                String[] parts = v.split("\\+");
+                for (String p : parts) {
+                    if (isControllable(p) && !ret.toString().endsWith(".*")) {
+                        ret.append(".*");
+                    } else {
+                        ret.append(p);
+                    }
+                }
+                return ret.toString();
+            } else if (isControllable(v)) {
+                return ".*";
+            } else if (!v.equals(ContrUtil.sNOT_POLLUTED)) {
+                return v;
+            } else {
+                return "";
+            }
+        }
+
+        private static String replaceContr(String old, String contr) {
+            if (hasCS(old)) {
+                String[] parts = old.split("\\+");
+                String replace = parts[0];
+                String left = replace;
+                for (int i = 1; i < parts.length; i++) {
+                    String right = parts[i];
+                    if (needUpdateInAppend(left, right)) {
+                        replace += "+" + (isControllable(right) ? contr : right);
+                        left = right;
+                    }
+                }
+                return replace;
+            } else {
+                return contr;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package pascal.taie.analysis.dataflow.analysis.methodsummary;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import pascal.taie.Main;
+import pascal.taie.World;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the whole analysis with the options of the bundled JDV benchmark,
+ * and collects the gadget chains it finds.
+ */
+final class FlashRuns {
+
+    private static final String OPTIONS_FILE = "java-benchmarks/JDV/test.yml";
+
+    static final String PRIORI_KNOWLEDGE = "java-benchmarks/JDV/priori-knowledge.yml";
+
+    static final String JDV_APP = "java-benchmarks/JDV/target/CC3/commons-collections-3.2.1.jar";
+
+    private FlashRuns() {
+    }
+
+    /**
+     * Runs the analysis on the given application class path.
+     *
+     * @param summaryOptions options of method-summary besides priori knowledge,
+     *                       e.g., {@code "threads:4"}.
+     * @return the gadget chains found by the run.
+     */
+    static Set<String> run(Path workDir, String summaryOptions, String... appClassPath)
+            throws IOException {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> options = mapper.readValue(new File(OPTIONS_FILE), Map.class);
+        Path output = Files.createTempFile(workDir, "chains", ".txt");
+        options.put("appClassPath", List.of(appClassPath));
+        options.put("sources", List.of("serializable"));
+        options.put("outputDir", workDir.resolve("output").toString());
+        options.put("GC_OUT", output.toString());
+        String analysisOptions = "priori-knowledge:" + PRIORI_KNOWLEDGE;
+        if (!summaryOptions.isEmpty()) {
+            analysisOptions += ";" + summaryOptions;
+        }
+        options.put("analyses", Map.of("method-summary", analysisOptions));
+        Path optionsFile = Files.createTempFile(workDir, "options", ".yml");
+        mapper.writeValue(optionsFile.toFile(), options);
+        World.reset();
+        Main.main("--options-file", optionsFile.toString());
+        return readChains(output);
+    }
+
+    /**
+     * @return the chains in the text output, which are split by empty lines.
+     */
+    static Set<String> readChains(Path output) throws IOException {
+        Set<String> chains = new TreeSet<>();
+        for (String chain : Files.readString(output).split("\\R\\R")) {
+            chain = chain.strip();
+            if (!chain.isEmpty() && !chain.startsWith("total gadget chains")) {
+                chains.add(chain);
+            }
+        }
+        return chains;
+    }
+
+    /**
+     * Compiles the Java files in the given test resource directories.
+     *
+     * @return the directory of the class files.
+     */
+    static Path compile(Path workDir, String... sourceDirs) throws IOException {
+        Path classes = Files.createTempDirectory(workDir, "classes");
+        List<String> args = new ArrayList<>(List.of(
+                "--release", "8", "-d", classes.toString()));
+        for (String dir : sourceDirs) {
+            try (Stream<Path> files = Files.list(Path.of("src/test/resources", dir))) {
+                files.filter(f -> f.toString().endsWith(".java"))
+                        .sorted()
+                        .forEach(f -> args.add(f.toString()));
+            }
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, args.toArray(String[]::new)),
+                "failed to compile " + Arrays.toString(sourceDirs));
+        return classes;
+    }
+}
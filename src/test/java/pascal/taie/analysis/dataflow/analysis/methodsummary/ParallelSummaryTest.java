@@ -0,0 +1,32 @@
+package pascal.taie.analysis.dataflow.analysis.methodsummary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ParallelSummaryTest {
+
+    private static final String BASIC_DEPENDENCY = "java-benchmarks/JDV/BasicDependency/";
+
+    @TempDir
+    Path workDir;
+
+    /**
+     * Building summaries with several threads finds the same chains
+     * as building them with one thread on the bundled target. This does
+     * not hold for all targets, see {@link SummaryScheduler}.
+     */
+    @Test
+    void testThreads() throws IOException {
+        Set<String> sequential = FlashRuns.run(workDir, "threads:1",
+                BASIC_DEPENDENCY, FlashRuns.JDV_APP);
+        Set<String> parallel = FlashRuns.run(workDir, "threads:4",
+                BASIC_DEPENDENCY, FlashRuns.JDV_APP);
+        assertEquals(sequential, parallel);
+    }
+}
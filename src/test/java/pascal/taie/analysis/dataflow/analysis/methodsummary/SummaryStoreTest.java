@@ -0,0 +1,151 @@
+package pascal.taie.analysis.dataflow.analysis.methodsummary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.core.cs.CSCallGraph;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelectorFactory;
+import pascal.taie.language.classes.JMethod;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SummaryStoreTest {
+
+    private static final String LAUNCH = "<Launcher: void launch()>";
+
+    private static final String READ_OBJECT = "<Entry: void readObject(java.io.ObjectInputStream)>";
+
+    @TempDir
+    Path workDir;
+
+    /**
+     * A run reusing all summaries finds the same chains as the run
+     * building them.
+     */
+    @Test
+    void testWarmRun() throws IOException {
+        Path app = FlashRuns.compile(workDir, "summary-store/common", "summary-store/v2");
+        String store = "summary-store:" + workDir.resolve("summaries.bin");
+        Set<String> cold = FlashRuns.run(workDir, store,
+                app.toString(), FlashRuns.JDV_APP);
+        assertTrue(Files.exists(workDir.resolve("summaries.bin")));
+        Set<String> warm = FlashRuns.run(workDir, store,
+                app.toString(), FlashRuns.JDV_APP);
+        assertEquals(cold, warm);
+    }
+
+    /**
+     * After a class changes, a run reusing the summaries of the unchanged
+     * classes finds the same chains as a full run. The changed class stores
+     * a static field loaded by a method of an unchanged class.
+     */
+    @Test
+    void testChangedClass() throws IOException {
+        Path v1 = FlashRuns.compile(workDir, "summary-store/common", "summary-store/v1");
+        Path v2 = FlashRuns.compile(workDir, "summary-store/common", "summary-store/v2");
+        String store = "summary-store:" + workDir.resolve("summaries.bin");
+        FlashRuns.run(workDir, store, v1.toString(), FlashRuns.JDV_APP);
+        Set<String> incremental = FlashRuns.run(workDir, store,
+                v2.toString(), FlashRuns.JDV_APP);
+        Set<String> full = FlashRuns.run(workDir, "",
+                v2.toString(), FlashRuns.JDV_APP);
+        assertEquals(full, incremental);
+    }
+
+    /**
+     * An unchanged method is restored, while a method storing a static
+     * field is re-analyzed to rebuild the pointer flow edges of the store.
+     */
+    @Test
+    void testRestore() throws IOException {
+        Path app = FlashRuns.compile(workDir, "summary-store/common", "summary-store/v2");
+        Path file = workDir.resolve("summaries.bin");
+        FlashRuns.run(workDir, "summary-store:" + file, app.toString(), FlashRuns.JDV_APP);
+        SummaryStore store = open(file, FlashRuns.PRIORI_KNOWLEDGE);
+        JMethod launch = getMethod(LAUNCH);
+        assertTrue(store.restore(launch));
+        assertTrue(store.isRestored(launch));
+        assertNotNull(store.getDependencies(launch));
+        JMethod readObject = getMethod(READ_OBJECT);
+        assertFalse(store.restore(readObject));
+        assertFalse(store.isRestored(readObject));
+    }
+
+    /**
+     * A method loading a static field is invalid if a changed class
+     * may store the field, although its own class is unchanged.
+     */
+    @Test
+    void testChangedStoreInvalidatesLoad() throws IOException {
+        Path v1 = FlashRuns.compile(workDir, "summary-store/common", "summary-store/v1");
+        Path v2 = FlashRuns.compile(workDir, "summary-store/common", "summary-store/v2");
+        Path file = workDir.resolve("summaries.bin");
+        FlashRuns.run(workDir, "summary-store:" + file, v1.toString(), FlashRuns.JDV_APP);
+        FlashRuns.run(workDir, "", v2.toString(), FlashRuns.JDV_APP);
+        SummaryStore store = open(file, FlashRuns.PRIORI_KNOWLEDGE);
+        JMethod launch = getMethod(LAUNCH);
+        assertFalse(store.restore(launch));
+        assertFalse(store.isRestored(launch));
+    }
+
+    /**
+     * Nothing is restored from a store written with other priori
+     * knowledge, or from a corrupt store.
+     */
+    @Test
+    void testOutdatedStore() throws IOException {
+        Path app = FlashRuns.compile(workDir, "summary-store/common", "summary-store/v2");
+        Path file = workDir.resolve("summaries.bin");
+        FlashRuns.run(workDir, "summary-store:" + file, app.toString(), FlashRuns.JDV_APP);
+        JMethod launch = getMethod(LAUNCH);
+        assertFalse(open(file, "other-priori-knowledge").restore(launch));
+        Files.write(file, new byte[]{0, 1, 2, 3});
+        assertFalse(open(file, FlashRuns.PRIORI_KNOWLEDGE).restore(launch));
+    }
+
+    /**
+     * Saved gadget chains are reused only for the same cone hash.
+     */
+    @Test
+    void testChains() throws IOException {
+        Path app = FlashRuns.compile(workDir, "summary-store/common", "summary-store/v2");
+        FlashRuns.run(workDir, "", app.toString(), FlashRuns.JDV_APP);
+        Path file = workDir.resolve("chains.bin");
+        JMethod sink = getMethod(LAUNCH);
+        SummaryStore store = open(file, FlashRuns.PRIORI_KNOWLEDGE);
+        assertNull(store.getChains(sink, 42));
+        List<String> chains = List.of("<Entry: void readObject(java.io.ObjectInputStream)>\n"
+                + "<Launcher: void launch()>\n");
+        store.putChains(sink, 42, chains);
+        store.save();
+        SummaryStore reopened = open(file, FlashRuns.PRIORI_KNOWLEDGE);
+        assertEquals(chains, reopened.getChains(sink, 42));
+        assertNull(reopened.getChains(sink, 43));
+    }
+
+    private static SummaryStore open(Path file, String prioriKnowledge) {
+        Context context = ContextSelectorFactory.makeCISelector().getEmptyContext();
+        CSManager csManager = new MapBasedCSManager();
+        return new SummaryStore(file.toString(), prioriKnowledge, csManager,
+                new CSCallGraph(csManager, context), context);
+    }
+
+    private static JMethod getMethod(String signature) {
+        JMethod method = World.get().getClassHierarchy().getMethod(signature);
+        assertNotNull(method, signature);
+        return method;
+    }
+}
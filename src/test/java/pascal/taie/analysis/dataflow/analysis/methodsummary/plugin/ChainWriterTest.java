@@ -0,0 +1,119 @@
+package pascal.taie.analysis.dataflow.analysis.methodsummary.plugin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChainWriterTest {
+
+    private static final String SINK = "<java.lang.Runtime: java.lang.Process exec(java.lang.String)>";
+
+    /**
+     * Chains in the text form of GCCollector, each line of which ends
+     * with a line separator. The second one has the same
+     * (source, sink) pair as the first one, and the third one contains
+     * non-ASCII characters, so that the byte offsets differ from the
+     * char offsets.
+     */
+    private static final List<String> CHAINS = List.of(
+            "<a.A: void readObject(java.io.ObjectInputStream)>->[0]\n"
+                    + "<a.b.B: void run(java.lang.String)>->[1]\n"
+                    + SINK + "\n",
+            "<a.A: void readObject(java.io.ObjectInputStream)>->[0]\n"
+                    + "<c.C: void call()>->[-1]\n"
+                    + SINK + "\n",
+            "<Dé: void readObject(java.io.ObjectInputStream)>->[0]\n"
+                    + "<a.b.B: void run(java.lang.String)>->[1]\n"
+                    + SINK + "\n");
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void testText() throws IOException {
+        Path output = workDir.resolve("chains.txt");
+        ChainWriter writer = ChainWriter.of(output.toString(), "text", false);
+        // the text is written in the default charset, which may not
+        // encode the non-ASCII chain
+        List<String> chains = CHAINS.subList(0, 2);
+        chains.forEach(writer::write);
+        assertEquals(2, writer.getWritten());
+        writer.close(2);
+        // the chains are split by empty lines
+        assertEquals(String.join("\n", chains) + "\ntotal gadget chains : 2\n",
+                Files.readString(output));
+    }
+
+    @Test
+    void testUniqueSourceSink() {
+        ChainWriter writer = ChainWriter.of(
+                workDir.resolve("chains.txt").toString(), "text", true);
+        assertTrue(writer.write(CHAINS.get(0)));
+        assertFalse(writer.write(CHAINS.get(1)));
+        assertTrue(writer.write(CHAINS.get(2)));
+        assertEquals(2, writer.getWritten());
+        writer.close(3);
+    }
+
+    @Test
+    void testJsonLines() throws IOException {
+        Path output = workDir.resolve("chains.jsonl");
+        ChainWriter writer = ChainWriter.of(output.toString(), "jsonl", false);
+        CHAINS.forEach(writer::write);
+        writer.close(4);
+
+        ObjectMapper mapper = new ObjectMapper();
+        byte[] bytes = Files.readAllBytes(output);
+        JsonNode index = mapper.readTree(workDir.resolve("chains.jsonl.idx.json").toFile());
+        assertEquals(4, index.get("total").asInt());
+        assertEquals(3, index.get("written").asInt());
+        JsonNode offsets = index.get("offsets");
+        assertEquals(CHAINS.size(), offsets.size());
+        for (int id = 0; id < CHAINS.size(); ++id) {
+            // each offset is the start of the line of the chain
+            int start = offsets.get(id).asInt();
+            int end = id + 1 < offsets.size() ? offsets.get(id + 1).asInt() : bytes.length;
+            assertEquals('\n', bytes[end - 1]);
+            String line = new String(Arrays.copyOfRange(bytes, start, end - 1),
+                    StandardCharsets.UTF_8);
+            JsonNode chain = mapper.readTree(line);
+            List<String> lines = CHAINS.get(id).lines().toList();
+            List<String> methods = new ArrayList<>();
+            chain.get("methods").forEach(m -> methods.add(m.asText()));
+            List<String> contrs = new ArrayList<>();
+            chain.get("contrs").forEach(c -> contrs.add(c.asText()));
+            assertEquals(lines.size(), methods.size());
+            assertEquals(lines.size() - 1, contrs.size());
+            for (int i = 0; i < contrs.size(); ++i) {
+                assertEquals(lines.get(i), methods.get(i) + "->" + contrs.get(i));
+            }
+            assertEquals(SINK, methods.get(methods.size() - 1));
+            assertEquals(methods.get(0), chain.get("source").asText());
+            assertEquals(SINK, chain.get("sink").asText());
+        }
+        assertEquals("[0,1]", index.get("sources")
+                .get("<a.A: void readObject(java.io.ObjectInputStream)>").toString());
+        assertEquals("[2]", index.get("sources")
+                .get("<Dé: void readObject(java.io.ObjectInputStream)>").toString());
+        assertEquals("[0,1,2]", index.get("sinks").get(SINK).toString());
+        JsonNode packages = index.get("packages");
+        assertEquals("[0,1]", packages.get("a").toString());
+        assertEquals("[0,2]", packages.get("a.b").toString());
+        assertEquals("[1]", packages.get("c").toString());
+        assertEquals("[2]", packages.get("").toString());
+        assertEquals("[0,1,2]", packages.get("java.lang").toString());
+    }
+}
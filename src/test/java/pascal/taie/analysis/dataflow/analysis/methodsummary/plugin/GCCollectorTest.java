@@ -0,0 +1,136 @@
+package pascal.taie.analysis.dataflow.analysis.methodsummary.plugin;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.methodsummary.ContrValue;
+import pascal.taie.analysis.dataflow.analysis.methodsummary.Utils.ContrUtil;
+import pascal.taie.analysis.graph.callgraph.CallGraphs;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.core.cs.CSCallGraph;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelectorFactory;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the backward search of {@link GCCollector} on the call graphs
+ * of the methods in Searches, whose edges pass the first parameter of
+ * the caller to the callee.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class GCCollectorTest {
+
+    private static String output;
+
+    private static JClass searches;
+
+    private CSManager csManager;
+
+    private Context context;
+
+    private CSCallGraph csCallGraph;
+
+    @BeforeAll
+    public static void buildWorld() throws IOException {
+        output = Files.createTempFile("chains", ".txt").toString();
+        Main.buildWorld("-pp", "-cp", "src/test/resources/world",
+                "--input-classes", "Searches", "--GC_OUT", output,
+                "--GC_UNIQUE_SOURCE_SINK");
+        searches = World.get().getClassHierarchy().getClass("Searches");
+        getMethod("sink").setSink(new int[]{0});
+        getMethod("source").setSource();
+        getMethod("source2").setSource();
+    }
+
+    @BeforeEach
+    void newCallGraph() {
+        csManager = new MapBasedCSManager();
+        context = ContextSelectorFactory.makeCISelector().getEmptyContext();
+        csCallGraph = new CSCallGraph(csManager, context);
+    }
+
+    /**
+     * Of the two paths from the same source to the sink, only the first
+     * one is explored and emitted.
+     */
+    @Test
+    void testUniqueSourceSink() {
+        csCallGraph.addEdge(newEdge("first", "sink"));
+        csCallGraph.addEdge(newEdge("second", "sink"));
+        csCallGraph.addEdge(newEdge("source", "first"));
+        csCallGraph.addEdge(newEdge("source", "second"));
+        GCCollector collector = new GCCollector(csCallGraph, output, 1, null);
+        GCCollector.SinkStats stats = collector.searchFrom(getMethod("sink"));
+        assertEquals(1, stats.explored);
+        assertEquals(1, stats.emitted);
+        assertEquals(1, stats.pruned);
+    }
+
+    /**
+     * A dead state is reused after an edge is added by simplifying a chain,
+     * unless the edge may reach it.
+     */
+    @Test
+    void testDeadStateReuse() {
+        csCallGraph.addEdge(newEdge("first", "sink"));
+        csCallGraph.addEdge(newEdge("source", "first"));
+        csCallGraph.addEdge(newEdge("dead", "first"));
+        GCCollector collector = new GCCollector(csCallGraph, output, 1, null);
+        JMethod sink = getMethod("sink");
+        GCCollector.SinkStats stats = collector.searchFrom(sink);
+        assertEquals(1, stats.emitted);
+        assertEquals(0, stats.reused);
+        // no source is reached from dead
+        assertEquals(1, collector.searchFrom(sink).reused);
+        // an existing edge
+        assertFalse(collector.addSimplifiedEdge(newEdge("dead", "first")));
+        assertEquals(1, collector.searchFrom(sink).reused);
+        // an edge which does not reach dead
+        assertTrue(collector.addSimplifiedEdge(newEdge("other", "second")));
+        assertEquals(1, collector.searchFrom(sink).reused);
+        // an edge which revives dead
+        assertTrue(collector.addSimplifiedEdge(newEdge("source2", "dead")));
+        stats = collector.searchFrom(sink);
+        assertEquals(0, stats.reused);
+        assertEquals(1, stats.emitted);
+    }
+
+    private static JMethod getMethod(String name) {
+        return searches.getDeclaredMethod(name);
+    }
+
+    /**
+     * @return the edge of the call in the caller to the callee, which passes
+     * {@code this} as the base and the first parameter as the argument.
+     */
+    private Edge newEdge(String caller, String callee) {
+        JMethod callerMethod = getMethod(caller);
+        JMethod calleeMethod = getMethod(callee);
+        Invoke invoke = callerMethod.getIR()
+                .invokes(false)
+                .filter(i -> i.getMethodRef().getName().equals(callee))
+                .findFirst()
+                .orElseThrow();
+        List<Type> typeList = List.of(searches.getType(), calleeMethod.getParamType(0));
+        return new Edge<>(CallGraphs.getCallKind(invoke),
+                csManager.getCSCallSite(context, invoke),
+                csManager.getCSMethod(context, calleeMethod),
+                List.of(ContrValue.of(ContrUtil.iTHIS), ContrValue.of(0)),
+                invoke.getLineNumber(), typeList);
+    }
+}
@@ -0,0 +1,170 @@
+package pascal.taie.analysis.dataflow.analysis.methodsummary.plugin;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.methodsummary.ContrValue;
+import pascal.taie.analysis.graph.callgraph.CallGraphs;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.core.cs.CSCallGraph;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelectorFactory;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the checks of the paths in the backward search agree with
+ * the checks of the complete chains, on random chains of the calls
+ * in PathChecks.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class PathCheckTest {
+
+    private static final int CHAINS = 5000;
+
+    private static final List<String> FILTER_NAMES = List.of("sink", "objects", "invoke");
+
+    private static GCCollector collector;
+
+    private static CSManager csManager;
+
+    private static Context context;
+
+    /**
+     * Callee -> the call sites calling it.
+     */
+    private static MultiMap<JMethod, Invoke> callSites;
+
+    private static List<JMethod> callees;
+
+    /**
+     * Callees which are also callers in the chains. They have the same
+     * number of parameters, as a caller filter by name may check the
+     * argument at the same index of the next caller.
+     */
+    private static List<JMethod> callers;
+
+    private static List<Type> types;
+
+    @BeforeAll
+    public static void buildWorld() throws IOException {
+        String output = Files.createTempFile("chains", ".txt").toString();
+        Main.buildWorld("-pp", "-cp", "src/test/resources/world",
+                "--input-classes", "PathChecks", "--GC_OUT", output);
+        context = ContextSelectorFactory.makeCISelector().getEmptyContext();
+        csManager = new MapBasedCSManager();
+        collector = new GCCollector(new CSCallGraph(csManager, context), output, 1, null);
+        JClass pathChecks = World.get().getClassHierarchy().getClass("PathChecks");
+        // the imitated behavior also ends the type checks
+        pathChecks.getDeclaredMethod("statics").setImitatedBehavior("statics", "numbers");
+        callSites = Maps.newMultiMap();
+        List.of(pathChecks, World.get().getClassHierarchy().getClass("PathChecks$Handler"))
+                .forEach(c -> c.getDeclaredMethods().forEach(m ->
+                        m.getIR().invokes(false).forEach(invoke -> {
+                            JMethod callee = invoke.getMethodRef().resolveNullable();
+                            if (callee != null && callee.getDeclaringClass().getName()
+                                    .startsWith("PathChecks")) {
+                                callSites.put(callee, invoke);
+                            }
+                        })));
+        callees = callSites.keySet()
+                .stream()
+                .sorted(Comparator.comparing(JMethod::getSignature))
+                .toList();
+        callers = callees.stream()
+                .filter(m -> m.getParamCount() == 2)
+                .toList();
+        types = List.of("java.lang.Object", "java.lang.String", "java.lang.Integer",
+                        "java.lang.Number", "java.util.List", "java.util.ArrayList",
+                        "java.lang.Object[]", "PathChecks")
+                .stream()
+                .map(name -> World.get().getTypeSystem().getType(name))
+                .toList();
+    }
+
+    @Test
+    void testRandomChains() {
+        Random random = new Random(0);
+        int rejected = 0;
+        for (int n = 0; n < CHAINS; ++n) {
+            List<Edge> chain = randomChain(random);
+            boolean isRejected = collector.isRejected(chain);
+            if (isRejected) {
+                ++rejected;
+            }
+            for (int i = 1; i <= chain.size(); ++i) {
+                boolean typesFinal = chain.subList(i, chain.size())
+                        .stream()
+                        .noneMatch(GCCollector::endsTypeCheck);
+                if (collector.isRejectedByPathCheck(chain.subList(0, i), typesFinal)) {
+                    // the paths are only pruned if the chains are rejected
+                    assertTrue(isRejected, "pruned " + chain.subList(0, i));
+                }
+            }
+            // the source passes no parameters, thus all types are checked
+            assertEquals(isRejected, collector.isRejectedByPathCheck(chain, true),
+                    "chain " + chain);
+        }
+        assertTrue(rejected > 0 && rejected < CHAINS);
+    }
+
+    /**
+     * @return a chain of the calls from the sink, whose callers pass
+     * random values and types. The source has no parameters, and the
+     * last edge is not filtered by callers.
+     */
+    private static List<Edge> randomChain(Random random) {
+        int length = 1 + random.nextInt(6);
+        List<JMethod> methods = new ArrayList<>();
+        methods.add(callees.get(random.nextInt(callees.size())));
+        for (int i = 1; i < length; ++i) {
+            methods.add(callers.get(random.nextInt(callers.size())));
+        }
+        List<Edge> chain = new ArrayList<>();
+        for (int i = 0; i < length; ++i) {
+            JMethod callee = methods.get(i);
+            int callerParams = i + 1 < length ? methods.get(i + 1).getParamCount() : 0;
+            List<Invoke> invokes = new ArrayList<>(callSites.get(callee));
+            Invoke invoke = invokes.get(random.nextInt(invokes.size()));
+            List<ContrValue> contr = new ArrayList<>();
+            List<Type> typeList = new ArrayList<>();
+            for (int j = 0; j <= callee.getParamCount(); ++j) {
+                // not polluted, polluted, this, or a parameter of the caller
+                contr.add(ContrValue.of(random.nextInt(callerParams + 3) - 3));
+                typeList.add(types.get(random.nextInt(types.size())));
+            }
+            Edge edge = new Edge<>(CallGraphs.getCallKind(invoke),
+                    csManager.getCSCallSite(context, invoke),
+                    csManager.getCSMethod(context, callee),
+                    contr, invoke.getLineNumber(), typeList);
+            if (random.nextInt(4) == 0) {
+                edge.setCasted(random.nextInt(contr.size()));
+            }
+            if (callerParams > 0 && random.nextInt(4) == 0) {
+                String param = "param-" + random.nextInt(callerParams);
+                edge.setFilterByCaller(random.nextBoolean()
+                        ? "name:" + FILTER_NAMES.get(random.nextInt(FILTER_NAMES.size())) + "#" + param
+                        : "edge:" + param);
+            }
+            chain.add(edge);
+        }
+        return chain;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that {@link CHATargets#filter(Type, boolean)} returns the same
+ * targets as filtering all targets one by one.
+ */
+public class CHATargetsTest {
+
+    private static Set<JMethod> methods;
+
+    private static List<Type> types;
+
+    @BeforeAll
+    public static void buildWorld() {
+        Main.buildWorld("-pp", "-cp", "src/test/resources/world",
+                "--input-classes", "Hierarchy");
+        methods = World.get()
+                .allMethods()
+                .filter(m -> !m.isAbstract()
+                        && m.getSubsignature().toString().equals("java.lang.String toString()"))
+                .collect(Collectors.toUnmodifiableSet());
+        // the receiver types are the supertypes of the declaring classes
+        Set<Type> receivers = new LinkedHashSet<>();
+        methods.stream()
+                .map(JMethod::getDeclaringClass)
+                .sorted(Comparator.comparing(JClass::getName))
+                .limit(100)
+                .forEach(c -> addSupertypes(c, receivers));
+        types = new ArrayList<>(receivers);
+    }
+
+    private static void addSupertypes(JClass c, Set<Type> result) {
+        if (c != null && result.add(c.getType())) {
+            addSupertypes(c.getSuperClass(), result);
+            c.getInterfaces().forEach(i -> addSupertypes(i, result));
+        }
+    }
+
+    /**
+     * Filters the targets as StmtProcessor did before they were indexed.
+     */
+    private static Set<JMethod> filter(@Nullable Type type, boolean includeNonSerializable) {
+        TypeSystem typeSystem = World.get().getTypeSystem();
+        return methods.stream()
+                .filter(m -> includeNonSerializable || m.getDeclaringClass().isSerializable())
+                .filter(m -> type == null || typeSystem.isSubtype(type, m.getDeclaringClass().getType()))
+                .filter(m -> !m.isPrivate())
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    void testFilter() {
+        assertTrue(methods.size() > 100);
+        CHATargets targets = new CHATargets(methods, false);
+        assertEquals(methods, targets.getMethods());
+        for (boolean includeNonSerializable : new boolean[]{ true, false }) {
+            assertEquals(filter(null, includeNonSerializable),
+                    targets.filter(null, includeNonSerializable));
+            for (Type type : types) {
+                Set<JMethod> expected = filter(type, includeNonSerializable);
+                assertEquals(expected, targets.filter(type, includeNonSerializable),
+                        "filter " + type);
+                // the second query hits the cache
+                assertEquals(expected, targets.filter(type, includeNonSerializable),
+                        "cached filter " + type);
+            }
+        }
+    }
+
+    /**
+     * In lazy mode, the classes marked as serializable after the targets
+     * are built are seen by the filter.
+     */
+    @Test
+    void testLazyFilter() {
+        CHATargets targets = new CHATargets(methods, true);
+        types.forEach(type -> targets.filter(type, false));
+        JClass marked = methods.stream()
+                .map(JMethod::getDeclaringClass)
+                .filter(c -> !c.isSerializable())
+                .min(Comparator.comparing(JClass::getName))
+                .orElseThrow();
+        assertFalse(targets.filter(null, false).stream()
+                .anyMatch(m -> m.getDeclaringClass() == marked));
+        marked.setSerializable();
+        assertEquals(filter(null, false), targets.filter(null, false));
+        for (Type type : types) {
+            assertEquals(filter(type, false), targets.filter(type, false),
+                    "filter " + type);
+        }
+    }
+}
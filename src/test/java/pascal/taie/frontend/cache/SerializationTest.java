@@ -0,0 +1,70 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class SerializationTest {
+
+    @Test
+    void testWorldSerialization() throws IOException, ClassNotFoundException {
+        Main.buildWorld("-cp", "src/test/resources/world", "--input-classes", "Hierarchy");
+        World world = World.get();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(world);
+        }
+        World copy;
+        try (ObjectInputStream ois = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (World) ois.readObject();
+        }
+        assertEquals(world.getClassHierarchy().allClasses().count(),
+                copy.getClassHierarchy().allClasses().count());
+        JClass hierarchy = copy.getClassHierarchy().getClass("Hierarchy");
+        assertNotNull(hierarchy);
+        for (JMethod method : hierarchy.getDeclaredMethods()) {
+            IR ir = copy.getIRBuilder().buildIR(method);
+            IR expected = world.getClassHierarchy()
+                    .getClass("Hierarchy")
+                    .getDeclaredMethod(method.getSubsignature())
+                    .getIR();
+            assertEquals(expected.getStmts().size(), ir.getStmts().size());
+            assertEquals(method, ir.getMethod());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.frontend.soot;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.language.classes.ClassHierarchy;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the serializable classes marked in eager mode by Main, and
+ * in lazy mode by {@link SootClassLoader} when the classes are loaded.
+ */
+@SuppressWarnings("ConstantConditions")
+public class SerializableTest {
+
+    private static ClassHierarchy buildWorld(boolean lazy) {
+        World.reset();
+        if (lazy) {
+            Main.buildWorld("-pp", "-cp", "src/test/resources/world",
+                    "--input-classes", "Serializables", "-s", "serializable",
+                    "--lazy-world");
+        } else {
+            Main.buildWorld("-pp", "-cp", "src/test/resources/world",
+                    "--input-classes", "Serializables", "-s", "serializable");
+        }
+        return World.get().getClassHierarchy();
+    }
+
+    @Test
+    void testEager() {
+        testCommon(buildWorld(false));
+    }
+
+    @Test
+    void testLazy() {
+        ClassHierarchy hierarchy = buildWorld(true);
+        testCommon(hierarchy);
+        // superclasses marked as serializable do not mark their subclasses
+        assertFalse(hierarchy.getClass("Serializables$Other").isSerializable());
+    }
+
+    private static void testCommon(ClassHierarchy hierarchy) {
+        // the subtypes of a class implementing Serializable
+        assertTrue(hierarchy.getClass("Serializables$Data").isSerializable());
+        assertTrue(hierarchy.getClass("Serializables$SubData").isSerializable());
+        // the superclasses of a serializable class
+        assertTrue(hierarchy.getClass("Serializables$Base").isSerializable());
+    }
+}
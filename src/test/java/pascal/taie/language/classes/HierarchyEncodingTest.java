@@ -0,0 +1,201 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.language.classes;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.generics.ClassGSignature;
+import pascal.taie.language.type.ClassType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the subclass relation given by {@link HierarchyEncoding}
+ * against traversing the hierarchy upwards, on random hierarchies.
+ */
+public class HierarchyEncodingTest {
+
+    private static final int CLASSES = 400;
+
+    @Test
+    void testRandomHierarchies() {
+        for (long seed = 0; seed < 5; ++seed) {
+            testRandomHierarchy(new Random(seed));
+        }
+    }
+
+    /**
+     * Adds random classes and interfaces to a hierarchy, and checks
+     * all pairs of them. Some pairs are also checked while the classes
+     * are added, so that the encoding is rebuilt after it is invalidated.
+     */
+    private static void testRandomHierarchy(Random random) {
+        ClassHierarchyImpl hierarchy = new ClassHierarchyImpl();
+        JClass object = newClass("java.lang.Object", false, null, List.of());
+        hierarchy.setDefaultClassLoader(new JClassLoader() {
+            @Override
+            public JClass loadClass(String name) {
+                return name.equals(object.getName()) ? object : null;
+            }
+
+            @Override
+            public Collection<JClass> getLoadedClasses() {
+                return List.of(object);
+            }
+        });
+        List<JClass> all = new ArrayList<>();
+        List<JClass> classes = new ArrayList<>();
+        List<JClass> interfaces = new ArrayList<>();
+        hierarchy.addClass(object);
+        all.add(object);
+        classes.add(object);
+        for (int i = 0; i < CLASSES; ++i) {
+            boolean isInterface = random.nextInt(3) == 0;
+            List<JClass> superInterfaces = new ArrayList<>();
+            int nInterfaces = interfaces.isEmpty() ? 0 : random.nextInt(3);
+            for (int k = 0; k < nInterfaces; ++k) {
+                superInterfaces.add(interfaces.get(random.nextInt(interfaces.size())));
+            }
+            JClass superClass = isInterface ? object
+                    : classes.get(random.nextInt(classes.size()));
+            JClass jclass = newClass("C" + i, isInterface, superClass, superInterfaces);
+            hierarchy.addClass(jclass);
+            all.add(jclass);
+            (isInterface ? interfaces : classes).add(jclass);
+            if (i % 50 == 0) {
+                checkSubclasses(hierarchy, all);
+            }
+        }
+        checkSubclasses(hierarchy, all);
+    }
+
+    private static void checkSubclasses(ClassHierarchy hierarchy, List<JClass> all) {
+        for (JClass superclass : all) {
+            for (JClass subclass : all) {
+                assertEquals(isSubclass(superclass, subclass),
+                        hierarchy.isSubclass(superclass, subclass),
+                        superclass + " :> " + subclass);
+            }
+        }
+    }
+
+    /**
+     * @return whether subclass is a subclass of superclass, by traversing
+     * the superclasses and interfaces of subclass.
+     */
+    private static boolean isSubclass(JClass superclass, JClass subclass) {
+        if (superclass == subclass || superclass.getName().equals("java.lang.Object")) {
+            return true;
+        }
+        if (!subclass.isInterface() && subclass.getSuperClass() != null
+                && isSubclass(superclass, subclass.getSuperClass())) {
+            return true;
+        }
+        for (JClass iface : subclass.getInterfaces()) {
+            if (isSubclass(superclass, iface)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static JClass newClass(String name, boolean isInterface,
+                                   JClass superClass, List<JClass> interfaces) {
+        JClass jclass = new JClass(null, name);
+        jclass.build(new JClassBuilder() {
+            @Override
+            public void build(JClass jclass) {
+            }
+
+            @Override
+            public Set<Modifier> getModifiers() {
+                return isInterface
+                        ? Set.of(Modifier.INTERFACE, Modifier.ABSTRACT)
+                        : Set.of();
+            }
+
+            @Override
+            public String getSimpleName() {
+                return name;
+            }
+
+            @Override
+            public ClassType getClassType() {
+                return null;
+            }
+
+            @Override
+            public JClass getSuperClass() {
+                return superClass;
+            }
+
+            @Override
+            public Collection<JClass> getInterfaces() {
+                return interfaces;
+            }
+
+            @Override
+            public JClass getOuterClass() {
+                return null;
+            }
+
+            @Override
+            public Collection<JField> getDeclaredFields() {
+                return List.of();
+            }
+
+            @Override
+            public Collection<JMethod> getDeclaredMethods() {
+                return List.of();
+            }
+
+            @Override
+            public AnnotationHolder getAnnotationHolder() {
+                return null;
+            }
+
+            @Override
+            public boolean isApplication() {
+                return false;
+            }
+
+            @Override
+            public boolean isPhantom() {
+                return false;
+            }
+
+            @Override
+            public ClassGSignature getGSignature() {
+                return null;
+            }
+        });
+        return jclass;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.language.classes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that {@link MethodIndex.NameIndex} matches the same names
+ * as finding the regex in every name.
+ */
+public class NameIndexTest {
+
+    private static final List<String> WORDS = List.of(
+            "get", "set", "is", "exec", "Runtime", "invoke", "Method",
+            "Value", "Property", "Name", "to", "String", "Object", "read",
+            "init", "lookup", "Class", "$", "_", "1");
+
+    private static final List<String> REGEXES = List.of(
+            "", ".*", "get", "get.*", ".*Value", "get.*Value", "exec",
+            "set.*Property", "toString", "to.tring", "ge.Va", "lookup.*Class.*",
+            ".*Method.*invoke", "invokeMethod", "Runtime.exec", "noSuchName",
+            "^get", "Name$", "(get|set)Name", "[a-z]+Class", "is\\w+",
+            "read.*Object", "in", "Va", ".*xyz.*");
+
+    private static List<String> randomNames(Random random, int n) {
+        List<String> names = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            StringBuilder name = new StringBuilder();
+            int nWords = 1 + random.nextInt(4);
+            for (int j = 0; j < nWords; ++j) {
+                name.append(WORDS.get(random.nextInt(WORDS.size())));
+            }
+            names.add(name.toString());
+        }
+        return names;
+    }
+
+    @Test
+    void testMatch() {
+        Random random = new Random(0);
+        List<String> names = randomNames(random, 5000);
+        MethodIndex.NameIndex index = new MethodIndex.NameIndex(Set.copyOf(names));
+        List<String> regexes = new ArrayList<>(REGEXES);
+        // regexes made of the parts of names, as given by controllability
+        // values with const strings
+        for (int i = 0; i < 200; ++i) {
+            String name = names.get(random.nextInt(names.size()));
+            int begin = random.nextInt(name.length());
+            int end = begin + random.nextInt(name.length() - begin + 1);
+            String literal = name.substring(begin, end);
+            regexes.add(random.nextBoolean() ? literal + ".*" : ".*" + literal);
+            regexes.add(Pattern.quote(literal));
+        }
+        for (String regex : regexes) {
+            Pattern pattern = Pattern.compile(regex);
+            Set<String> expected = names.stream()
+                    .filter(name -> pattern.matcher(name).find())
+                    .collect(Collectors.toSet());
+            assertEquals(expected, index.match(regex), regex);
+            // the second query hits the cache
+            assertEquals(expected, index.match(regex), regex);
+        }
+    }
+}
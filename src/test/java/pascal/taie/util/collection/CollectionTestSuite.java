@@ -33,6 +33,7 @@ import org.junit.platform.suite.api.Suite;
         HybridHashMapTest.class,
         HybridHashSetTest.class,
         IndexMapTest.class,
+        PersistentIndexableMapTest.class,
         MultiMapTest.class,
         RegularBitSetTest.class,
         SetQueueTest.class,
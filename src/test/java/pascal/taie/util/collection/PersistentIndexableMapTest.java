@@ -0,0 +1,145 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.util.Indexable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PersistentIndexableMapTest {
+
+    private record Key(int index) implements Indexable {
+
+        @Override
+        public int getIndex() {
+            return index;
+        }
+    }
+
+    private static Key k(int index) {
+        return new Key(index);
+    }
+
+    private static PersistentIndexableMap<Key, String> makeMap() {
+        PersistentIndexableMap<Key, String> m = PersistentIndexableMap.empty();
+        return m.put(k(1), "one")
+                .put(k(33), "thirty-three")
+                .put(k(1025), "1025");
+    }
+
+    @Test
+    void testGet() {
+        var m = makeMap();
+        assertEquals(3, m.size());
+        assertEquals("one", m.get(k(1)));
+        assertEquals("thirty-three", m.get(k(33)));
+        assertEquals("1025", m.get(k(1025)));
+        assertNull(m.get(k(2)));
+        assertFalse(m.containsKey(k(65)));
+    }
+
+    @Test
+    void testPutIsPersistent() {
+        var m1 = makeMap();
+        var m2 = m1.put(k(1), "ONE").put(k(Integer.MAX_VALUE), "max");
+        assertEquals("one", m1.get(k(1)));
+        assertNull(m1.get(k(Integer.MAX_VALUE)));
+        assertEquals("ONE", m2.get(k(1)));
+        assertEquals("max", m2.get(k(Integer.MAX_VALUE)));
+        assertEquals(3, m1.size());
+        assertEquals(4, m2.size());
+        assertSame(m2, m2.put(k(1), m2.get(k(1))));
+    }
+
+    @Test
+    void testRemove() {
+        var m1 = makeMap();
+        var m2 = m1.remove(k(33));
+        assertEquals(2, m2.size());
+        assertNull(m2.get(k(33)));
+        assertEquals("1025", m2.get(k(1025)));
+        assertEquals("thirty-three", m1.get(k(33)));
+        assertSame(m2, m2.remove(k(33)));
+        assertTrue(m2.remove(k(1)).remove(k(1025)).isEmpty());
+    }
+
+    @Test
+    void testEquals() {
+        var m1 = makeMap().put(k(65), "65").remove(k(33));
+        PersistentIndexableMap<Key, String> m2 = PersistentIndexableMap.empty();
+        m2 = m2.put(k(65), "65").put(k(1025), "1025").put(k(1), "one");
+        assertEquals(m1, m2);
+        assertEquals(m1.hashCode(), m2.hashCode());
+    }
+
+    @Test
+    void testForEachChanged() {
+        var m1 = makeMap();
+        var m2 = m1.put(k(33), "33").put(k(7), "seven").remove(k(1));
+        Set<Integer> changed = new HashSet<>();
+        m2.forEachChanged(m1, (key, v) -> changed.add(key.index()));
+        assertEquals(Set.of(7, 33), changed);
+        changed.clear();
+        m1.forEachChanged(m1, (key, v) -> changed.add(key.index()));
+        assertTrue(changed.isEmpty());
+    }
+
+    @Test
+    void testRandomOperations() {
+        Random random = new Random(0);
+        PersistentIndexableMap<Key, String> m = PersistentIndexableMap.empty();
+        Map<Integer, String> expected = new HashMap<>();
+        for (int i = 0; i < 10000; ++i) {
+            int index = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                m = m.remove(k(index));
+                expected.remove(index);
+            } else {
+                String v = Integer.toString(random.nextInt(10));
+                m = m.put(k(index), v);
+                expected.put(index, v);
+            }
+        }
+        assertEquals(expected.size(), m.size());
+        Map<Integer, String> actual = new HashMap<>();
+        m.forEach((key, v) -> actual.put(key.index(), v));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testPutNull() {
+        assertThrows(NullPointerException.class, () -> makeMap().put(k(1), null));
+    }
+}
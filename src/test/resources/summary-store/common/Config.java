@@ -0,0 +1,4 @@
+public class Config {
+
+    static String command = "id";
+}
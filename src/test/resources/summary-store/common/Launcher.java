@@ -0,0 +1,6 @@
+public class Launcher {
+
+    static void launch() throws Exception {
+        Runtime.getRuntime().exec(Config.command);
+    }
+}
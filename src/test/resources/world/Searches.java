@@ -0,0 +1,31 @@
+class Searches {
+
+    void sink(Object o) {
+    }
+
+    void first(Object o) {
+        sink(o);
+    }
+
+    void second(Object o) {
+        sink(o);
+    }
+
+    void source(Object o) {
+        first(o);
+        second(o);
+    }
+
+    void dead(Object o) {
+        first(o);
+    }
+
+    void other(Object o) {
+        second(o);
+    }
+
+    void source2(Object o) {
+        dead(o);
+        other(o);
+    }
+}
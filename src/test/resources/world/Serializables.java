@@ -0,0 +1,23 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+
+class Serializables {
+
+    static class Base {
+    }
+
+    static class Data extends Base implements Serializable {
+
+        private void readObject(ObjectInputStream in)
+                throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+        }
+    }
+
+    static class SubData extends Data {
+    }
+
+    static class Other extends Base {
+    }
+}